@@ -0,0 +1,31 @@
+package com.dxymf;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// MoveKernel with the Vector API: the 24 codes of a move fit into one 256-bit vector,
+// so 32 pieces are moved with a single byte shuffle (pshufb on x86)
+// The Vector API is an incubator module, so this class is kept out of src and has to be compiled and run with the module:
+// javac --add-modules jdk.incubator.vector -cp <classes of src> -d <classes of src> src-incubator/com/dxymf/VectorMoveKernel.java
+// java --add-modules jdk.incubator.vector ...
+// MoveKernel.best() uses it whenever it can be loaded
+public class VectorMoveKernel implements MoveKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_256;
+
+    public void apply(byte[] codes, int length, byte[] tables, int offset) {
+
+        ByteVector table = ByteVector.fromArray(SPECIES, tables, offset);
+
+        int i = 0;
+        for(int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length()) {
+            // Every lane is replaced by the lane of the table its code points to
+            ByteVector.fromArray(SPECIES, codes, i).selectFrom(table).intoArray(codes, i);
+        }
+
+        // Pieces that don't fill a whole vector
+        for(; i < length; i++) {
+            codes[i] = tables[offset + codes[i]];
+        }
+    }
+}
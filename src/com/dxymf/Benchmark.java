@@ -0,0 +1,426 @@
+package com.dxymf;
+
+import java.io.IOException;
+import java.util.Random;
+
+import com.dxymf.lut.ArrayLUTStorage;
+import com.dxymf.lut.CornerLUT;
+import com.dxymf.lut.EdgeLUT;
+import com.dxymf.lut.EdgePosLUT;
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.LUTFile;
+import com.dxymf.lut.LUTStorage;
+import com.dxymf.lut.LehmerRanking;
+import com.dxymf.lut.NibbleLUTStorage;
+import com.dxymf.lut.PatternSpec;
+import com.dxymf.lut.SymmetricPatternLUT;
+
+// Micro benchmarks for comparing implementations, run with enough heap for the tables (e.g. -Xmx2g)
+// Every benchmark does a warm-up run first so the JIT has compiled the measured code
+public class Benchmark {
+
+    public static void main(String[] args) {
+        // Change this depending on what you want to measure
+        // benchmarkLUTStorage(int size) -> Random lookups into a byte per value and a 4-bit packed table of size values
+        // benchmarkSymmetricEncode(int stateCount) -> Encoding random states for the plain and the symmetry-reduced corner and edge LUTs
+        // benchmarkBatchedSuccessors(int scrambleCount, int moveCount) -> Solving the same random scrambles with FastSolver
+        // with and without batched successors (needs the LUT files of Main)
+        // benchmarkBatchMoves(int stateCount, int moveCount) -> Applying moves to stateCount cubes one CubeState at a time,
+        // with a CubeBatch and the scalar kernel and with a CubeBatch and MoveKernel.best() (the Vector API kernel if it is available)
+        // benchmarkLehmerRanking(int permutationCount) -> Ranking and unranking random permutations with LehmerRanking and with
+        // the previous implementation (table of bit counts, unranking bit by bit) for every K of 8 corners and 12 edges
+        benchmarkLUTStorage(88179840);
+    }
+
+    private static void benchmarkLUTStorage(int size) {
+        Random rand = new Random(0);
+
+        // Random values that fit into 4 bits
+        byte[] values = new byte[size];
+        for(int i = 0; i < size; i++) {
+            values[i] = (byte) rand.nextInt(16);
+        }
+
+        LUTStorage byteStorage = new ArrayLUTStorage(values);
+        LUTStorage nibbleStorage = new NibbleLUTStorage(NibbleLUTStorage.pack(values), size);
+
+        // Same random indices for both storages
+        int[] indices = new int[1 << 24];
+        for(int i = 0; i < indices.length; i++) {
+            indices[i] = rand.nextInt(size);
+        }
+
+        for(int run = 0; run < 3; run++) {
+            System.out.println("Run " + run);
+            System.out.println("Byte per value: " + measureLookups(byteStorage, indices) + " ns per lookup");
+            System.out.println("4-bit packed: " + measureLookups(nibbleStorage, indices) + " ns per lookup");
+        }
+    }
+
+    private static void benchmarkSymmetricEncode(int stateCount) {
+        Random rand = new Random(0);
+
+        // Random states from random walks
+        byte[][][] states = new byte[stateCount][][];
+        for(int i = 0; i < stateCount; i++) {
+            CubeState state = CubeState.getSolvedState();
+            byte[][] arrays = {state.getCornerPositions(), state.getCornerOrientations(), state.getEdgePositions(), state.getEdgeOrientations()};
+
+            for(int j = 0; j < 30; j++) {
+                MoveTables.applyMove(arrays[0], arrays[1], arrays[2], arrays[3], rand.nextInt(MoveTables.MOVE_COUNT));
+            }
+
+            states[i] = arrays;
+        }
+
+        byte[] edges = {0, 1, 2, 3, 8, 9, 10};
+
+        LUT[] luts = {
+            new CornerLUT(),
+            new SymmetricPatternLUT(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4, (byte) 5, (byte) 6)),
+            new EdgeLUT(edges),
+            new SymmetricPatternLUT(PatternSpec.edges(edges))
+        };
+
+        for(int run = 0; run < 3; run++) {
+            System.out.println("Run " + run);
+            for(LUT lut : luts) {
+                System.out.println(lut.getDescription() + " (" + lut.getSize() + " values): " + measureEncode(lut, states) + " ns per encode");
+            }
+        }
+    }
+
+    private static void benchmarkBatchedSuccessors(int scrambleCount, int moveCount) {
+        LUT[] luts = {
+            new CornerLUT(),
+            new EdgeLUT(new byte[] {1, 3, 4, 6, 7, 8, 10}),
+            new EdgeLUT(new byte[] {0, 2, 5, 6, 7, 9, 11}),
+            new EdgePosLUT()
+        };
+
+        try{
+            LUTFile.loadAll(luts, new String[] {"corner_lut", "7_edge_lut_1", "7_edge_lut_2", "12_edge_pos_lut"});
+        } catch(IOException e) {
+            System.out.println("Could not load LUTs");
+            System.out.println(e);
+            return;
+        }
+
+        compareBatchedSuccessors(luts, scrambleCount, moveCount);
+    }
+
+    private static void benchmarkBatchMoves(int stateCount, int moveCount) {
+        Random rand = new Random(0);
+
+        // The same random moves for all three
+        int[] moves = new int[moveCount];
+        for(int i = 0; i < moveCount; i++) {
+            moves[i] = rand.nextInt(MoveTables.MOVE_COUNT);
+        }
+
+        CubeState[] states = new CubeState[stateCount];
+        for(int i = 0; i < stateCount; i++) {
+            states[i] = CubeState.getSolvedState();
+        }
+
+        CubeBatch scalarBatch = new CubeBatch(stateCount, new ScalarMoveKernel());
+        CubeBatch bestBatch = new CubeBatch(stateCount);
+
+        System.out.println("Best kernel: " + bestBatch.getKernel().getClass().getSimpleName());
+
+        for(int run = 0; run < 3; run++) {
+            System.out.println("Run " + run);
+            System.out.println("CubeState.applyMove: " + measureMoves(states, moves) + " states per second");
+            System.out.println("Batch with scalar kernel: " + measureBatchMoves(scalarBatch, moves) + " states per second");
+            System.out.println("Batch with best kernel: " + measureBatchMoves(bestBatch, moves) + " states per second");
+        }
+
+        // All three applied the same moves to solved cubes
+        for(int i = 0; i < stateCount; i++) {
+            if(scalarBatch.get(i).longHash() != states[i].longHash() || bestBatch.get(i).longHash() != states[i].longHash()) {
+                System.out.println("Batch differs from CubeState.applyMove at cube " + i);
+                return;
+            }
+        }
+        System.out.println("All batches equal");
+    }
+
+    private static void benchmarkLehmerRanking(int permutationCount) {
+        Random rand = new Random(0);
+
+        for(int N : new int[] {8, 12}) {
+            // Random permutations of all N positions, the rankings only use the first K
+            byte[][] permutations = new byte[permutationCount][N];
+            for(byte[] permutation : permutations) {
+                for(int i = 0; i < N; i++) {
+                    permutation[i] = (byte) i;
+                }
+                for(int i = N - 1; i > 0; i--) {
+                    int j = rand.nextInt(i + 1);
+                    byte swap = permutation[i];
+                    permutation[i] = permutation[j];
+                    permutation[j] = swap;
+                }
+            }
+
+            for(int K = 1; K < N; K++) {
+                LehmerRanking ranking = new LehmerRanking(N, K);
+                TableRanking tableRanking = new TableRanking(N, K);
+
+                // Warm-up and check that both give the same ranks
+                for(int run = 0; run < 3; run++) {
+                    measureRanks(ranking, permutations);
+                    measureTableRanks(tableRanking, permutations);
+                    measureUnranks(ranking, N, permutationCount);
+                    measureTableUnranks(tableRanking, N, permutationCount);
+                }
+                for(byte[] permutation : permutations) {
+                    if(ranking.rank(permutation) != tableRanking.rank(permutation)) {
+                        System.out.println("Ranks differ for " + K + " of " + N);
+                        return;
+                    }
+                }
+
+                System.out.println(K + " of " + N + ": rank " + measureRanks(ranking, permutations) + " ns (previously " + measureTableRanks(tableRanking, permutations) + " ns)"
+                    + ", unrank " + measureUnranks(ranking, N, permutationCount) + " ns (previously " + measureTableUnranks(tableRanking, N, permutationCount) + " ns)");
+            }
+        }
+    }
+
+    private static void compareBatchedSuccessors(LUT[] luts, int scrambleCount, int moveCount) {
+        Random rand = new Random(0);
+
+        CubeState[] states = new CubeState[scrambleCount];
+        for(int i = 0; i < scrambleCount; i++) {
+            states[i] = CubeState.getSolvedState();
+
+            for(int j = 0; j < moveCount; j++) {
+                states[i].applyMove(Move.fromIndex(rand.nextInt(MoveTables.MOVE_COUNT)));
+            }
+        }
+
+        for(int run = 0; run < 3; run++) {
+            System.out.println("Run " + run);
+            System.out.println("One successor at a time: " + measureSolves(luts, states, false) + " states per second");
+            System.out.println("Batched successors: " + measureSolves(luts, states, true) + " states per second");
+        }
+    }
+
+    private static long measureSolves(LUT[] luts, CubeState[] states, boolean batched) {
+        FastSolver solver = new FastSolver(luts);
+        solver.setVerbose(false);
+        solver.setBatchedSuccessors(batched);
+
+        long t1 = System.nanoTime();
+
+        long exploredStates = 0;
+        for(CubeState state : states) {
+            exploredStates += solver.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null).getExploredStates();
+        }
+
+        long timeTaken = Math.max(1, System.nanoTime() - t1);
+
+        return 1000000000L * exploredStates / timeTaken;
+    }
+
+    private static long measureMoves(CubeState[] states, int[] moves) {
+        long t1 = System.nanoTime();
+
+        for(int m : moves) {
+            for(CubeState state : states) {
+                state.applyMove(m);
+            }
+        }
+
+        long timeTaken = Math.max(1, System.nanoTime() - t1);
+
+        return 1000000000L * states.length * moves.length / timeTaken;
+    }
+
+    private static long measureBatchMoves(CubeBatch batch, int[] moves) {
+        long t1 = System.nanoTime();
+
+        for(int m : moves) {
+            batch.applyMove(m);
+        }
+
+        long timeTaken = Math.max(1, System.nanoTime() - t1);
+
+        return 1000000000L * batch.size() * moves.length / timeTaken;
+    }
+
+    private static double measureRanks(LehmerRanking ranking, byte[][] permutations) {
+        long t1 = System.nanoTime();
+
+        long sum = 0;
+        for(byte[] permutation : permutations) {
+            sum += ranking.rank(permutation);
+        }
+
+        long timeTaken = System.nanoTime() - t1;
+
+        if(sum < 0) System.out.println(sum);
+
+        return (double) timeTaken / permutations.length;
+    }
+
+    private static double measureTableRanks(TableRanking ranking, byte[][] permutations) {
+        long t1 = System.nanoTime();
+
+        long sum = 0;
+        for(byte[] permutation : permutations) {
+            sum += ranking.rank(permutation);
+        }
+
+        long timeTaken = System.nanoTime() - t1;
+
+        if(sum < 0) System.out.println(sum);
+
+        return (double) timeTaken / permutations.length;
+    }
+
+    private static double measureUnranks(LehmerRanking ranking, int N, int count) {
+        byte[] permutation = new byte[N];
+        int size = ranking.getSize();
+
+        long t1 = System.nanoTime();
+
+        long sum = 0;
+        for(int i = 0; i < count; i++) {
+            ranking.unrank(i % size, permutation);
+            sum += permutation[N - 1];
+        }
+
+        long timeTaken = System.nanoTime() - t1;
+
+        if(sum < 0) System.out.println(sum);
+
+        return (double) timeTaken / count;
+    }
+
+    private static double measureTableUnranks(TableRanking ranking, int N, int count) {
+        byte[] permutation = new byte[N];
+        int size = ranking.getSize();
+
+        long t1 = System.nanoTime();
+
+        long sum = 0;
+        for(int i = 0; i < count; i++) {
+            ranking.unrank(i % size, permutation);
+            sum += permutation[N - 1];
+        }
+
+        long timeTaken = System.nanoTime() - t1;
+
+        if(sum < 0) System.out.println(sum);
+
+        return (double) timeTaken / count;
+    }
+
+    private static double measureEncode(LUT lut, byte[][][] states) {
+        long t1 = System.nanoTime();
+
+        // Sum the keys so the encoding can't be optimized away
+        long sum = 0;
+        for(byte[][] state : states) {
+            sum += lut.encode(state[0], state[1], state[2], state[3]);
+        }
+
+        long timeTaken = System.nanoTime() - t1;
+
+        if(sum < 0) System.out.println(sum);
+
+        return (double) timeTaken / states.length;
+    }
+
+    private static double measureLookups(LUTStorage storage, int[] indices) {
+        long t1 = System.nanoTime();
+
+        // Sum the values so the lookups can't be optimized away
+        long sum = 0;
+        for(int index : indices) {
+            sum += storage.get(index);
+        }
+
+        long timeTaken = System.nanoTime() - t1;
+
+        if(sum < 0) System.out.println(sum);
+
+        return (double) timeTaken / indices.length;
+    }
+
+    // Previous implementation of LehmerRanking as the baseline: bit counts from a table of 2^N entries
+    // and unranking that tests the positions one by one
+    private static class TableRanking {
+        private int N;
+        private int K;
+
+        private int[] picks;
+        private int[] onesCountLookup;
+
+        public TableRanking(int N, int K) {
+            this.N = N;
+            this.K = K;
+
+            picks = new int[K];
+            for(int i = 0; i < K; i++) {
+                picks[i] = pick(N - 1 - i, K - 1 - i);
+            }
+
+            onesCountLookup = new int[1 << N];
+            for(int i = 0; i < onesCountLookup.length; i++) {
+                onesCountLookup[i] = Integer.bitCount(i);
+            }
+        }
+
+        public int getSize() {
+            return pick(N, K);
+        }
+
+        // n! / (n - k)!
+        private static int pick(int n, int k) {
+            int result = 1;
+            for(int i = n - k + 1; i <= n; i++) {
+                result *= i;
+            }
+            return result;
+        }
+
+        public int rank(byte[] perm) {
+            int index = perm[0] * picks[0];
+            int seen = 1 << (N - 1 - perm[0]);
+
+            for(int i = 1; i < K; i++) {
+                seen += 1 << (N - 1 - perm[i]);
+                index += (perm[i] - onesCountLookup[seen >> (N - perm[i])]) * picks[i];
+            }
+
+            return index;
+        }
+
+        public void unrank(int index, byte[] perm) {
+            int used = 0;
+
+            for(int i = 0; i < K; i++) {
+                perm[i] = nthUnused(index / picks[i], used);
+                index %= picks[i];
+                used |= 1 << perm[i];
+            }
+            for(int i = K; i < N; i++) {
+                perm[i] = nthUnused(0, used);
+                used |= 1 << perm[i];
+            }
+        }
+
+        private static byte nthUnused(int n, int used) {
+            byte element = 0;
+
+            while(n > 0 || (used & (1 << element)) != 0) {
+                if((used & (1 << element)) == 0) n--;
+                element++;
+            }
+
+            return element;
+        }
+    }
+}
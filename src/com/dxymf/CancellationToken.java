@@ -0,0 +1,15 @@
+package com.dxymf;
+
+// Lets another thread stop a running solve, the solver checks the token regularly while searching
+public class CancellationToken {
+
+    private volatile boolean cancelled;
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
@@ -0,0 +1,104 @@
+package com.dxymf;
+
+// Many cubes stored as struct-of-arrays so one move can be applied to all of them in one pass
+// Every piece is a byte code: position * 3 + orientation for corners, position * 2 + orientation for edges
+// Both have 24 values, so a move is a table of 24 new codes that is the same for all corners (or all edges) of all cubes
+// corners[c * 8 + i] is corner i of cube c, edges[c * 12 + i] is edge i of cube c
+public class CubeBatch {
+
+    // Entries per move in the tables, 24 codes padded to 32 so a vector kernel can load a table as one 256-bit vector
+    public static final int TABLE_SIZE = 32;
+
+    // New code of a corner (edge) with code c after move m: CORNER_CODES[m * TABLE_SIZE + c] (EDGE_CODES)
+    public static final byte[] CORNER_CODES = new byte[MoveTables.MOVE_COUNT * TABLE_SIZE];
+    public static final byte[] EDGE_CODES = new byte[MoveTables.MOVE_COUNT * TABLE_SIZE];
+
+    static {
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            for(int p = 0; p < 8; p++) {
+                for(int o = 0; o < 3; o++) {
+                    int newPosition = MoveTables.CORNER_POSITIONS[m * 8 + p];
+                    int newOrientation = MoveTables.CORNER_ORIENTATIONS[(m * 8 + p) * 3 + o];
+                    CORNER_CODES[m * TABLE_SIZE + p * 3 + o] = (byte) (newPosition * 3 + newOrientation);
+                }
+            }
+            for(int p = 0; p < 12; p++) {
+                for(int o = 0; o < 2; o++) {
+                    int newPosition = MoveTables.EDGE_POSITIONS[m * 12 + p];
+                    int newOrientation = MoveTables.EDGE_ORIENTATIONS[(m * 12 + p) * 2 + o];
+                    EDGE_CODES[m * TABLE_SIZE + p * 2 + o] = (byte) (newPosition * 2 + newOrientation);
+                }
+            }
+        }
+    }
+
+    private byte[] corners;
+    private byte[] edges;
+    private int size;
+
+    private MoveKernel kernel;
+
+    // Batch of size solved cubes
+    public CubeBatch(int size, MoveKernel kernel) {
+        this.size = size;
+        this.kernel = kernel;
+
+        corners = new byte[size * 8];
+        edges = new byte[size * 12];
+
+        CubeState solved = CubeState.getSolvedState();
+        for(int c = 0; c < size; c++) {
+            set(c, solved);
+        }
+    }
+
+    public CubeBatch(int size) {
+        this(size, MoveKernel.best());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public MoveKernel getKernel() {
+        return kernel;
+    }
+
+    // Apply move m to all cubes
+    public void applyMove(int m) {
+        kernel.apply(corners, corners.length, CORNER_CODES, m * TABLE_SIZE);
+        kernel.apply(edges, edges.length, EDGE_CODES, m * TABLE_SIZE);
+    }
+
+    public void set(int c, CubeState state) {
+        byte[] cP = state.getCornerPositions();
+        byte[] cO = state.getCornerOrientations();
+        byte[] eP = state.getEdgePositions();
+        byte[] eO = state.getEdgeOrientations();
+
+        for(int i = 0; i < 8; i++) {
+            corners[c * 8 + i] = (byte) (cP[i] * 3 + cO[i]);
+        }
+        for(int i = 0; i < 12; i++) {
+            edges[c * 12 + i] = (byte) (eP[i] * 2 + eO[i]);
+        }
+    }
+
+    public CubeState get(int c) {
+        byte[] cP = new byte[8];
+        byte[] cO = new byte[8];
+        byte[] eP = new byte[12];
+        byte[] eO = new byte[12];
+
+        for(int i = 0; i < 8; i++) {
+            cP[i] = (byte) (corners[c * 8 + i] / 3);
+            cO[i] = (byte) (corners[c * 8 + i] % 3);
+        }
+        for(int i = 0; i < 12; i++) {
+            eP[i] = (byte) (edges[c * 12 + i] >> 1);
+            eO[i] = (byte) (edges[c * 12 + i] & 1);
+        }
+
+        return new CubeState(cP, cO, eP, eO);
+    }
+}
@@ -1,6 +1,5 @@
 package com.dxymf;
 
-import java.util.Arrays;
 import java.util.Scanner;
 
 public class CubeState {
@@ -17,134 +16,14 @@ public class CubeState {
         edgeOrientations = eO;
     }
 
+    // Apply the move in place in one pass with the precomputed tables of MoveTables
     public void applyMove(Move move) {
+        applyMove(move.getIndex());
+    }
 
-        // Clone the whole state
-        byte[] newCornerPositions = cornerPositions.clone();
-        byte[] newCornerOrientations = cornerOrientations.clone();
-        byte[] newEdgePositions = edgePositions.clone();
-        byte[] newEdgeOrientations = edgeOrientations.clone();
-
-        byte type = move.getType();
-        byte direction = move.getDirection();
-
-        // These will be a kind of LUT for how the orientations and positions of pieces should change
-        byte[] cornerPositionChanges;
-        byte[] cornerOrientationChanges;
-        byte[] edgePositionChanges;
-        byte[] edgeOrientationChanges;
-
-        // Set these LUTs depending on the type of move
-        switch(type) {
-            // R move
-            case 1:
-                {
-                    cornerPositionChanges = new byte[] {-1, 5, 1, -1, -1, 6, 2, -1};
-                    cornerOrientationChanges = new byte[] {1, 0, 2};
-
-                    edgePositionChanges = new byte[] {-1, 5, -1, -1, -1, 9, 1, -1, -1, 6, -1, -1};
-                    edgeOrientationChanges = new byte[] {0, 1};
-                }
-                break;
-
-            // U move
-            case 2:
-                {
-                    cornerPositionChanges = new byte[] {1, 2, 3, 0, -1, -1, -1, -1};
-                    cornerOrientationChanges = new byte[] {0, 2, 1};
-
-                    edgePositionChanges = new byte[] {1, 2, 3, 0, -1, -1, -1, -1, -1, -1, -1, -1};
-                    edgeOrientationChanges = new byte[] {0, 1};
-                }
-                break;
-
-            // F move
-            case 3:
-                {
-                    cornerPositionChanges = new byte[] {-1, -1, 6, 2, -1, -1, 7, 3};
-                    cornerOrientationChanges = new byte[] {2, 1, 0};
-
-                    edgePositionChanges = new byte[] {-1, -1, 6, -1, -1, -1, 10, 2, -1, -1, 7, -1};
-                    edgeOrientationChanges = new byte[] {1, 0};
-                }
-                break;
-
-            // L move
-            case 4:
-                {
-                    cornerPositionChanges = new byte[] {3, -1, -1, 7, 0, -1, -1, 4};
-                    cornerOrientationChanges = new byte[] {1, 0, 2};
-
-                    edgePositionChanges = new byte[] {-1, -1, -1, 7, 3, -1, -1, 11, -1, -1, -1, 4};
-                    edgeOrientationChanges = new byte[] {0, 1};
-                }
-                break;
-
-            // D move
-            case 5:
-                {
-                    cornerPositionChanges = new byte[] {-1, -1, -1, -1, 7, 4, 5, 6};
-                    cornerOrientationChanges = new byte[] {0, 2, 1};
-
-                    edgePositionChanges = new byte[] {-1, -1, -1, -1, -1, -1, -1, -1, 11, 8, 9, 10};
-                    edgeOrientationChanges = new byte[] {0, 1};
-                }
-                break;
-
-            // B move
-            case 6:
-                {
-                    cornerPositionChanges = new byte[] {4, 0, -1, -1, 5, 1, -1, -1};
-                    cornerOrientationChanges = new byte[] {2, 1, 0};
-
-                    edgePositionChanges = new byte[] {4, -1, -1, -1, 8, 0, -1, -1, 5, -1, -1, -1};
-                    edgeOrientationChanges = new byte[] {1, 0};
-                }
-                break;
-            
-            // Default case that initializes the arrays so compiler doesn't complain
-            default:
-                {
-                    cornerPositionChanges = new byte[8];
-                    cornerOrientationChanges = new byte[3];
-            
-                    edgePositionChanges = new byte[12];
-                    edgeOrientationChanges = new byte[2];
-                }
-        }
-
-        // direction is the number of times a clockwise turn should be applied
-        // (direction = 1 -> clockwise)
-        // (direction = 2 -> double turn)
-        // (direction = 3 -> anti-clockwise)
-        for(int i = 0; i < direction; i++) {
-
-            // Apply changes to corners
-            for(int j = 0; j < 8; j++) {
-                // Skip pieces that aren't affected by the move
-                if(cornerPositionChanges[cornerPositions[j]] == -1) continue;
-
-                // Apply changes
-                newCornerPositions[j] = cornerPositionChanges[cornerPositions[j]];
-                newCornerOrientations[j] = cornerOrientationChanges[cornerOrientations[j]];
-            }
-
-            // Apply changes to edges
-            for(int j = 0; j < 12; j++) {
-                // Skip pieces that aren't affected by the move
-                if(edgePositionChanges[edgePositions[j]] == -1) continue;
-
-                // Apply changes
-                newEdgePositions[j] = edgePositionChanges[edgePositions[j]];
-                newEdgeOrientations[j] = edgeOrientationChanges[edgeOrientations[j]];
-            }
-
-            // We clone the arrays once more because not doing so can cause issues
-            cornerPositions = newCornerPositions.clone();
-            cornerOrientations = newCornerOrientations.clone();
-            edgePositions = newEdgePositions.clone();
-            edgeOrientations = newEdgeOrientations.clone();
-        }
+    // Apply move m (indexed like in MoveTables)
+    public void applyMove(int m) {
+        MoveTables.applyMove(cornerPositions, cornerOrientations, edgePositions, edgeOrientations, m);
     }
 
     public String toString() {
@@ -202,21 +81,65 @@ public class CubeState {
     }
 
     public boolean isSolved() {
-        // Arrays of a solved state
-        byte[] cPSolved = {0, 1, 2, 3, 4, 5, 6, 7};
-        byte[] cOSolved = {0, 0, 0, 0, 0, 0, 0, 0};
-        byte[] ePSolved = {0, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11};
-        byte[] eOSolved = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0};
+        // Every piece must be at its own position with orientation 0
+        for(int i = 0; i < 8; i++) {
+            if(cornerPositions[i] != i || cornerOrientations[i] != 0) return false;
+        }
+        for(int i = 0; i < 12; i++) {
+            if(edgePositions[i] != i || edgeOrientations[i] != 0) return false;
+        }
+
+        return true;
+    }
 
-        boolean solved = true;
+    // State after applying the moves that lead to other to this state
+    // (solved.compose(x) is x, x.compose(x.inverse()) is the solved state)
+    public CubeState compose(CubeState other) {
+        CubeState composed = new CubeState(new byte[8], new byte[8], new byte[12], new byte[12]);
 
-        // Check whether they are all equal
-        solved = solved && Arrays.equals(cornerPositions, cPSolved);
-        solved = solved && Arrays.equals(cornerOrientations, cOSolved);
-        solved = solved && Arrays.equals(edgePositions, ePSolved);
-        solved = solved && Arrays.equals(edgeOrientations, eOSolved);
+        SymmetryTables.compose(cornerPositions, cornerOrientations, edgePositions, edgeOrientations,
+            other.cornerPositions, other.cornerOrientations, other.edgePositions, other.edgeOrientations,
+            composed.cornerPositions, composed.cornerOrientations, composed.edgePositions, composed.edgeOrientations);
+
+        return composed;
+    }
+
+    // State that undoes this state: applying the moves that lead to this state in reverse order and inverted
+    // Needs the same number of moves as this state
+    public CubeState inverse() {
+        CubeState inverse = new CubeState(new byte[8], new byte[8], new byte[12], new byte[12]);
+
+        SymmetryTables.invert(cornerPositions, cornerOrientations, edgePositions, edgeOrientations,
+            inverse.cornerPositions, inverse.cornerOrientations, inverse.edgePositions, inverse.edgeOrientations);
+
+        return inverse;
+    }
+
+    // State conjugated by a symmetry (S * state * S^-1, see SymmetryTables)
+    // Needs the same number of moves as this state
+    public CubeState conjugate(int symmetry) {
+        CubeState conjugated = new CubeState(new byte[8], new byte[8], new byte[12], new byte[12]);
+
+        SymmetryTables.conjugate(cornerPositions, cornerOrientations, edgePositions, edgeOrientations, symmetry,
+            conjugated.cornerPositions, conjugated.cornerOrientations, conjugated.edgePositions, conjugated.edgeOrientations);
+
+        return conjugated;
+    }
+
+    // 64-bit hash of the whole state (positions and orientations of all pieces)
+    // The state has about 100 bits, so different states can have the same hash but only very rarely
+    public long longHash() {
+        return longHash(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
+    }
+
+    // Same hash for a state given as arrays (e.g. a cube that MoveTables applies moves to)
+    public static long longHash(byte[] cP, byte[] cO, byte[] eP, byte[] eO) {
+        return PackedCubeState.hash(PackedCubeState.packCorners(cP, cO), PackedCubeState.packEdges(eP, eO));
+    }
 
-        return solved;
+    // The state packed into two longs (see PackedCubeState)
+    public PackedCubeState pack() {
+        return new PackedCubeState(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
     }
 
     public CubeState clone() {
@@ -0,0 +1,436 @@
+package com.dxymf;
+
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.MoveTableLUT;
+
+// Recursive IDA* that works on a single mutable cube and doesn't allocate anything per node
+// Moves are applied and undone in place using MoveTables and the path is stored as move indices
+public class FastSolver {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    // Length of solution can't be more than 20 (god's number)
+    private static final int MAX_DEPTH = 20;
+
+    // Number of generated states between checks of the deadline and the cancellation token
+    private static final long CHECK_INTERVAL = 1 << 14;
+
+    // The heuristic is the maximum of the values of all these LUTs
+    private LUT[] luts;
+
+    // If all LUTs have a move table their coordinates are carried forward with one table lookup per move
+    // instead of encoding the cube for every successor
+    private boolean useCoordinates;
+    // The LUTs that can have a move table, null for the others
+    private MoveTableLUT[] moveTableLuts;
+    private long[][] coordinates;
+
+    // Exact values of the LUTs for the node at every depth, the values of a successor are derived from them
+    // so LUTs that only store values mod 3 don't need a search for every value
+    private int[][] values;
+    private boolean exactValues;
+
+    // The cube that moves are applied to and undone on
+    private byte[] cornerPositions;
+    private byte[] cornerOrientations;
+    private byte[] edgePositions;
+    private byte[] edgeOrientations;
+
+    // Move indices to get to the current node
+    private byte[] path = new byte[MAX_DEPTH];
+
+    // Preallocated successor moves and f-scores for every depth, sorted by f-score
+    private int[][] successorMoves = new int[MAX_DEPTH][MoveTables.MOVE_COUNT];
+    private int[][] successorScores = new int[MAX_DEPTH][MoveTables.MOVE_COUNT];
+
+    // Batched successors: the LUT indices of all successors of a node are computed first and then all values are read
+    // in one tight loop, so the cache misses of the reads overlap instead of waiting for each other
+    // (Java has no software prefetch, reading the independent values back to back is the closest to it)
+    private boolean batchedSuccessors;
+    private boolean useBatches;
+
+    // Moves, LUT indices and values of the successors of the current node: batchIndices[successor * luts.length + i]
+    private int[] batchMoves = new int[MoveTables.MOVE_COUNT];
+    private long[] batchIndices;
+    private int[] batchValues;
+
+    // Only successors that keep the move sequence canonical are generated
+    private MoveAutomaton moveAutomaton = MoveAutomaton.SIMPLE;
+
+    // Bound for the next iteration (Minimum of all pruned nodes' f-scores)
+    private int nextBound;
+
+    // Total number of states that have been generated
+    private long exploredStates;
+
+    // Print progress and statistics of every solve
+    private boolean verbose = true;
+
+    // Receives an event for every iteration, null -> no events
+    private SolveListener listener;
+
+    // Limits of the current solve (deadline as System.currentTimeMillis())
+    private long deadline;
+    private long nodeBudget;
+    private CancellationToken token;
+
+    // Number of explored states at which the deadline and the token are checked next
+    private long nextCheck;
+
+    // Why the current solve was stopped, null while it isn't stopped
+    private SolveResult.Status stopStatus;
+
+    public FastSolver(LUT... luts) {
+        this.luts = luts;
+
+        moveTableLuts = new MoveTableLUT[luts.length];
+        for(int i = 0; i < luts.length; i++) {
+            if(luts[i] instanceof MoveTableLUT) moveTableLuts[i] = (MoveTableLUT) luts[i];
+        }
+
+        coordinates = new long[MAX_DEPTH + 1][luts.length];
+        values = new int[MAX_DEPTH + 1][luts.length];
+
+        batchIndices = new long[MoveTables.MOVE_COUNT * luts.length];
+        batchValues = new int[MoveTables.MOVE_COUNT * luts.length];
+    }
+
+    public Move[] solve(CubeState rootState) {
+
+        SolveResult result = solve(rootState, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+        // Same format as Solver.solve
+        Move[] solutionPath = new Move[MAX_DEPTH];
+        System.arraycopy(result.getSolution(), 0, solutionPath, 0, result.getLength());
+
+        return solutionPath;
+    }
+
+    // Stop once the time is past deadline (System.currentTimeMillis())
+    public SolveResult solve(CubeState rootState, long deadline) {
+
+        return solve(rootState, deadline, Long.MAX_VALUE, null);
+    }
+
+    // Stop once the time is past deadline, more than nodeBudget states were generated or token (may be null) is cancelled
+    // In those cases the result has no solution but the bound of the iteration that was stopped
+    public SolveResult solve(CubeState rootState, long deadline, long nodeBudget, CancellationToken token) {
+
+        if(verbose) System.out.println("Starting solving");
+        long t1 = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        this.deadline = deadline;
+        this.nodeBudget = nodeBudget;
+        this.token = token;
+        nextCheck = CHECK_INTERVAL;
+        stopStatus = null;
+
+        cornerPositions = rootState.getCornerPositions();
+        cornerOrientations = rootState.getCornerOrientations();
+        edgePositions = rootState.getEdgePositions();
+        edgeOrientations = rootState.getEdgeOrientations();
+
+        exploredStates = 0;
+
+        useCoordinates = true;
+        exactValues = true;
+        for(int i = 0; i < luts.length; i++) {
+            useCoordinates = useCoordinates && moveTableLuts[i] != null && moveTableLuts[i].hasMoveTable();
+            exactValues = exactValues && luts[i].isExact();
+        }
+
+        // The values of a batch are read without the values of their parent
+        useBatches = batchedSuccessors && exactValues;
+
+        if(useCoordinates) {
+            for(int i = 0; i < luts.length; i++) {
+                coordinates[0][i] = moveTableLuts[i].getCoordinate(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
+            }
+        }
+
+        int bound = rootHeuristic();
+        int solutionLength = -1;
+
+        while(solutionLength == -1) {
+            // Every state can be solved in 20 moves, so there is no solution if the bound gets larger
+            if(bound > MAX_DEPTH) {
+                stopStatus = SolveResult.Status.UNSOLVABLE;
+                break;
+            }
+
+            if(verbose) System.out.println("New Iteration with bound: " + bound + " after " + (System.currentTimeMillis() - t1) + "ms");
+            if(listener != null) listener.onIteration(bound, exploredStates, System.currentTimeMillis() - t1);
+            nextBound = INFINITY;
+
+            if(search(0, bound, MoveAutomaton.START)) {
+                solutionLength = bound;
+            } else if(stopStatus != null) {
+                break;
+            } else {
+                bound = nextBound;
+            }
+        }
+
+        long timeTaken = Math.max(1, System.currentTimeMillis() - t1);
+
+        if(verbose) {
+            System.out.println("Time taken: " + timeTaken + "ms");
+            System.out.println("Explored states: " + exploredStates);
+            System.out.println("States per Second: " + (1000 * exploredStates / timeTaken));
+        }
+
+        long solveNanos = System.nanoTime() - startNanos;
+
+        if(stopStatus != null) {
+            if(verbose) System.out.println("Stopped: " + stopStatus);
+
+            return new SolveResult(stopStatus, new Move[0], bound, exploredStates, solveNanos, solveNanos);
+        }
+
+        Move[] solution = new Move[solutionLength];
+        for(int i = 0; i < solutionLength; i++) {
+            solution[i] = Move.fromIndex(path[i]);
+        }
+
+        return new SolveResult(SolveResult.Status.SOLVED, solution, solutionLength, exploredStates, solveNanos, solveNanos);
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    // Evaluate the successors of a node as a batch (see batchedSuccessors)
+    // Only used if all LUTs store exact values, the values of LUTs storing values mod 3 depend on the parent's values
+    public void setBatchedSuccessors(boolean batchedSuccessors) {
+        this.batchedSuccessors = batchedSuccessors;
+    }
+
+    // Prune the moves with this automaton instead of the simple rules
+    public void setMoveAutomaton(MoveAutomaton moveAutomaton) {
+        this.moveAutomaton = moveAutomaton;
+    }
+
+    // Number of states generated by the last solve
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    // Search the subtree below the current cube, returns true if a solution was found
+    // In that case the cube is left in the solved state and path holds the solution
+    // automatonState is the state of the MoveAutomaton after the moves in path
+    private boolean search(int depth, int bound, int automatonState) {
+
+        // Only check if cube is solved when depth == bound (Estimated remaining number of moves is 0)
+        if(depth == bound) return isSolved();
+
+        if(limitReached()) return false;
+
+        int[] moves = successorMoves[depth];
+        int successorCount = useBatches ? batchSuccessors(depth, bound, automatonState) : evaluateSuccessors(depth, bound, automatonState);
+
+        for(int i = 0; i < successorCount; i++) {
+            int m = moves[i];
+
+            MoveTables.applyMove(cornerPositions, cornerOrientations, edgePositions, edgeOrientations, m);
+            path[depth] = (byte) m;
+
+            if(useCoordinates) {
+                moveCoordinates(depth, m);
+            }
+
+            // The values at depth + 1 are those of the last evaluated successor, LUTs storing values mod 3 need the ones of this successor
+            if(!exactValues) {
+                updateValues(depth + 1);
+            }
+
+            if(search(depth + 1, bound, moveAutomaton.next(automatonState, m))) return true;
+
+            // The cube doesn't need to be restored because the solve ends
+            if(stopStatus != null) return false;
+
+            MoveTables.applyMove(cornerPositions, cornerOrientations, edgePositions, edgeOrientations, MoveTables.inverse(m));
+        }
+
+        return false;
+    }
+
+    // Successors that aren't pruned sorted by f-score into successorMoves[depth] and successorScores[depth], returns their number
+    private int evaluateSuccessors(int depth, int bound, int automatonState) {
+
+        int successorCount = 0;
+
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            if(!moveAutomaton.isAllowed(automatonState, m)) continue;
+
+            exploredStates++;
+            int f = depth + 1 + successorHeuristic(depth, m);
+
+            successorCount = addSuccessor(depth, bound, successorCount, m, f);
+        }
+
+        return successorCount;
+    }
+
+
+    // Same as evaluateSuccessors but all LUT indices are computed before any value is read
+    private int batchSuccessors(int depth, int bound, int automatonState) {
+
+        int lutCount = luts.length;
+
+        int batchSize = 0;
+
+        // Compute all indices
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            if(!moveAutomaton.isAllowed(automatonState, m)) continue;
+
+            int offset = batchSize * lutCount;
+
+            if(useCoordinates) {
+                for(int i = 0; i < lutCount; i++) {
+                    batchIndices[offset + i] = moveTableLuts[i].getIndex(moveTableLuts[i].applyMove(coordinates[depth][i], m));
+                }
+            } else {
+                MoveTables.applyMove(cornerPositions, cornerOrientations, edgePositions, edgeOrientations, m);
+                for(int i = 0; i < lutCount; i++) {
+                    batchIndices[offset + i] = luts[i].encode(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
+                }
+                MoveTables.applyMove(cornerPositions, cornerOrientations, edgePositions, edgeOrientations, MoveTables.inverse(m));
+            }
+
+            batchMoves[batchSize++] = m;
+        }
+
+        exploredStates += batchSize;
+
+        // Read all values, none of the reads depends on another one
+        int valueCount = batchSize * lutCount;
+        for(int j = 0; j < valueCount; j++) {
+            batchValues[j] = luts[j % lutCount].getValue(batchIndices[j]);
+        }
+
+        int successorCount = 0;
+        for(int k = 0; k < batchSize; k++) {
+            int h = 0;
+            for(int i = 0; i < lutCount; i++) {
+                h = Math.max(h, batchValues[k * lutCount + i]);
+            }
+
+            successorCount = addSuccessor(depth, bound, successorCount, batchMoves[k], depth + 1 + h);
+        }
+
+        return successorCount;
+    }
+
+
+    // Insertion sort so the successor with the lowest f-score is searched first, pruned successors update nextBound
+    // Returns the new number of successors
+    private int addSuccessor(int depth, int bound, int successorCount, int m, int f) {
+
+        int[] moves = successorMoves[depth];
+        int[] scores = successorScores[depth];
+
+        if(f <= bound) {
+            int i = successorCount++;
+            while(i > 0 && scores[i - 1] > f) {
+                moves[i] = moves[i - 1];
+                scores[i] = scores[i - 1];
+                i--;
+            }
+            moves[i] = m;
+            scores[i] = f;
+        } else if(f < nextBound) {
+            nextBound = f;
+        }
+
+        return successorCount;
+    }
+
+
+    // Whether the solve has to stop, sets stopStatus in that case
+    // The clock and the token are only checked every CHECK_INTERVAL states because reading the clock is slow
+    private boolean limitReached() {
+
+        if(exploredStates >= nodeBudget) {
+            stopStatus = SolveResult.Status.NODE_BUDGET_EXCEEDED;
+        } else if(exploredStates >= nextCheck) {
+            nextCheck = exploredStates + CHECK_INTERVAL;
+
+            if(token != null && token.isCancelled()) {
+                stopStatus = SolveResult.Status.CANCELLED;
+            } else if(System.currentTimeMillis() >= deadline) {
+                stopStatus = SolveResult.Status.TIMED_OUT;
+            }
+        }
+
+        return stopStatus != null;
+    }
+
+    private boolean isSolved() {
+        for(int i = 0; i < 8; i++) {
+            if(cornerPositions[i] != i || cornerOrientations[i] != 0) return false;
+        }
+        for(int i = 0; i < 12; i++) {
+            if(edgePositions[i] != i || edgeOrientations[i] != 0) return false;
+        }
+        return true;
+    }
+
+    // Heuristic of the successor after move m, leaves the cube unchanged
+    private int successorHeuristic(int depth, int m) {
+
+        if(useCoordinates) {
+            moveCoordinates(depth, m);
+            return updateValues(depth + 1);
+        }
+
+        MoveTables.applyMove(cornerPositions, cornerOrientations, edgePositions, edgeOrientations, m);
+        int h = updateValues(depth + 1);
+        MoveTables.applyMove(cornerPositions, cornerOrientations, edgePositions, edgeOrientations, MoveTables.inverse(m));
+
+        return h;
+    }
+
+    // Coordinates at depth + 1 from the coordinates at depth and move m
+    private void moveCoordinates(int depth, int m) {
+        for(int i = 0; i < luts.length; i++) {
+            coordinates[depth + 1][i] = moveTableLuts[i].applyMove(coordinates[depth][i], m);
+        }
+    }
+
+    // Values of the root, the only ones that LUTs storing values mod 3 have to search for
+    private int rootHeuristic() {
+        int h = 0;
+        for(int i = 0; i < luts.length; i++) {
+            if(useCoordinates) {
+                values[0][i] = moveTableLuts[i].getMoveCount(coordinates[0][i]);
+            } else {
+                values[0][i] = luts[i].getMoveCount(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
+            }
+            h = Math.max(h, values[0][i]);
+        }
+        return h;
+    }
+
+    // Values at depth of the current cube (or the coordinates at depth) from the values of its parent at depth - 1
+    // Returns the maximum of all the values of the LUTs
+    private int updateValues(int depth) {
+        int h = 0;
+        for(int i = 0; i < luts.length; i++) {
+            long index;
+            if(useCoordinates) {
+                index = moveTableLuts[i].getIndex(coordinates[depth][i]);
+            } else {
+                index = luts[i].encode(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
+            }
+
+            values[depth][i] = luts[i].getValue(index, values[depth - 1][i]);
+            h = Math.max(h, values[depth][i]);
+        }
+        return h;
+    }
+}
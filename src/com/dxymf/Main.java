@@ -1,24 +1,80 @@
 package com.dxymf;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.Future;
 
 import com.dxymf.lut.CornerLUT;
 import com.dxymf.lut.EdgeLUT;
 import com.dxymf.lut.EdgePosLUT;
-import com.dxymf.lut.generating.CornerLUTGenerator;
-import com.dxymf.lut.generating.EdgeLUTGenerator;
-import com.dxymf.lut.generating.EdgePosLUTGenerator;
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.LUTFile;
+import com.dxymf.lut.TwoPhaseTables;
+import com.dxymf.lut.generating.BigLUTGenerator;
+import com.dxymf.lut.generating.LUTGenerator;
+import com.dxymf.lut.generating.ParallelLUTGenerator;
 
 public class Main {
 
+    // Map the LUT files read-only into memory instead of reading them onto the heap
+    // Solver processes on the same host then share one copy of the LUTs in the OS page cache
+    private static final boolean MAP_LUTS = false;
+
+    // The Solver also looks up the LUTs on the states conjugated by these symmetries (see SymmetryTables)
+    // and on the inverse states, which makes the heuristic stronger at the cost of more lookups per node
+    // Example: {2, 6} -> mirrored top to bottom and turned upside down, so the edge LUTs also look at the other layers
+    private static final int[] SYMMETRIC_LOOKUPS = {};
+    private static final boolean INVERSE_LOOKUPS = false;
+
+    // The Solver stops the lookups of a node at the first value that prunes it, in an order learned while solving
+    private static final boolean LAZY_HEURISTIC = false;
+
+    // Memory for the Solver's table of states already expanded in the current iteration, 0 -> no table
+    // Only nodes up to TRANSPOSITION_TABLE_DEPTH moves deep are stored
+    private static final long TRANSPOSITION_TABLE_BYTES = 0;
+    private static final int TRANSPOSITION_TABLE_DEPTH = 8;
+
+    // The Solver and the FastSolver only search move sequences without a redundant part of up to this many moves
+    // 2 -> only the simple rules that were always used, up to 6 (building the automaton takes about a second for 5 and much longer for 6)
+    private static final int MOVE_AUTOMATON_LENGTH = 2;
+
+    // Perimeter search: the Solver knows the exact distances of all states within PERIMETER_RADIUS moves of the solved state
+    // 0 -> no perimeter, 6 needs 128MB and a few seconds, 7 needs 2GB
+    private static final int PERIMETER_RADIUS = 0;
+    private static final long PERIMETER_BYTES = 128L << 20;
+
+    // The FastSolver computes the LUT indices of all successors of a node before reading their values
+    private static final boolean BATCHED_SUCCESSORS = false;
+
     public static void main(String[] args) {
         // Change this depending on what you want to do with the programm
         // solveFromConsole() -> User enters a state through console and program solves that state
         // solveRandomScramble(int moveCount) -> A random scramble is generated with a random walk then solved
         // moveCount is the number of moves for the random walk
-        // generateXLUT(String filename) -> Generates and saves that LUT
-        // With edge LUTs pass in byte array of the edges that will be used for generating
-        // Example: generateEdgeLUT("edgelutsmall", new byte[] {0, 1, 2, 3, 4, 5});
+        // solveRandomScrambleParallel(int moveCount, int parallelism) -> Same as solveRandomScramble but
+        // the search is split across parallelism worker threads
+        // solveRandomScrambleFast(int moveCount) -> Same as solveRandomScramble but solved with the allocation-free FastSolver
+        // which carries the LUT coordinates forward with move tables (generated next to the LUTs on the first run)
+        // solveRandomScramblesBatch(int scrambleCount, int moveCount, int threads) -> Loads the LUTs once and solves
+        // scrambleCount random scrambles on threads threads with a SolverService, then prints the throughput
+        // solveRandomScrambleTwoPhase(int moveCount, int targetLength, long timeLimitMillis) -> Same as solveRandomScramble but
+        // solved near-optimally with the two-phase algorithm, which stops at a solution with at most targetLength moves
+        // or returns the shortest one found after timeLimitMillis (its tables are generated on the first run)
+        // generateLUT(LUT lut, String filename) -> Generates and saves the table of lut
+        // lut can be a CornerLUT, EdgeLUT, EdgePosLUT or a PatternLUT for any combination of corners and edges
+        // Example: generateLUT(new EdgeLUT(new byte[] {0, 1, 2, 3, 4, 5}), "edgelutsmall");
+        // Example: generateLUT(new PatternLUT(new PatternSpec(new byte[] {0, 1, 2}, new byte[] {0, 1, 2}, true)), "cornersedgeslut");
+        // A SymmetricPatternLUT stores only one state of all states that are symmetric to each other, the corners need
+        // 2152008 values instead of 88179840 and the edges of the U and D layers fit into 319875072 values
+        // Example: generateLUT(new SymmetricPatternLUT(PatternSpec.edges((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 8, (byte) 9, (byte) 10, (byte) 11)), "8_edge_sym_lut");
+        // generateLUTParallel(LUT lut, String filename) -> Same as generateLUT but using all cores
+        // Example: generateLUTParallel(new EdgeLUT(new byte[] {0, 1, 2, 3, 4, 5}), "edgelutsmall");
+        // generateBigLUT(LUT lut, String filename, String scratchFilename) -> Same as generateLUTParallel for patterns
+        // with more than 2^31 states, the table is generated in scratchFilename (null -> in direct memory, see -XX:MaxDirectMemorySize)
+        // Such a LUT is loaded and used by the solvers like any other LUT, with MAP_LUTS it can be larger than the memory
+        // Example: generateBigLUT(new PatternLUT(PatternSpec.edges((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4, (byte) 5, (byte) 6, (byte) 7)), "8_edge_lut", "8_edge_lut.scratch");
         solveRandomScramble(15);
     }
 
@@ -40,10 +96,7 @@ public class Main {
         try{
             System.out.println("Loading LUTs");
 
-            cornerlut.loadLUT("corner_lut");
-            edgelut1.loadLUT("7_edge_lut_1");
-            edgelut2.loadLUT("7_edge_lut_2");
-            edgeposlut.loadLUT("12_edge_pos_lut");
+            loadLUTs(new LUT[] {cornerlut, edgelut1, edgelut2, edgeposlut}, new String[] {"corner_lut", "7_edge_lut_1", "7_edge_lut_2", "12_edge_pos_lut"});
 
         } catch(Exception e) {
             
@@ -54,6 +107,12 @@ public class Main {
         
         // Solve the cube
         Solver solver = new Solver(cornerlut, edgelut1, edgelut2, edgeposlut);
+        solver.setSymmetricLookups(SYMMETRIC_LOOKUPS);
+        solver.setInverseLookups(INVERSE_LOOKUPS);
+        solver.setLazyHeuristic(LAZY_HEURISTIC);
+        solver.setTranspositionTable(TRANSPOSITION_TABLE_BYTES, TRANSPOSITION_TABLE_DEPTH);
+        solver.setMoveAutomaton(MoveAutomaton.build(MOVE_AUTOMATON_LENGTH));
+        if(PERIMETER_RADIUS > 0) solver.setPerimeter(new Perimeter(PERIMETER_RADIUS, PERIMETER_BYTES));
 
         Move[] solution = solver.solve(state);
 
@@ -71,8 +130,8 @@ public class Main {
         System.out.println("Length: " + solutionLength);
     }
 
-    private static void generateCornerLUT(String filename) {
-        CornerLUTGenerator lutGenerator = new CornerLUTGenerator();
+    private static void generateLUT(LUT lut, String filename) {
+        LUTGenerator lutGenerator = new LUTGenerator(lut);
 
         lutGenerator.generateLUT();
 
@@ -89,8 +148,8 @@ public class Main {
         }
     }
 
-    private static void generateEdgeLUT(String filename, byte[] edges) {
-        EdgeLUTGenerator lutGenerator = new EdgeLUTGenerator(edges);
+    private static void generateLUTParallel(LUT lut, String filename) {
+        ParallelLUTGenerator lutGenerator = new ParallelLUTGenerator(lut);
 
         lutGenerator.generateLUT();
 
@@ -107,19 +166,23 @@ public class Main {
         }
     }
 
-    private static void generateEdgePosLUT(String filename) {
-        EdgePosLUTGenerator lutGenerator = new EdgePosLUTGenerator();
-
-        lutGenerator.generateLUT();
+    private static void generateBigLUT(LUT lut, String filename, String scratchFilename) {
+        BigLUTGenerator lutGenerator = new BigLUTGenerator(lut);
 
         try{
+            if(scratchFilename == null) {
+                lutGenerator.generateLUT();
+            } else {
+                lutGenerator.generateLUT(scratchFilename);
+            }
+
             System.out.println("Saving LUT");
 
             lutGenerator.saveLUT(filename);
 
         } catch(Exception e) {
             
-            System.out.println("Could not save LUT");
+            System.out.println("Could not generate LUT");
             System.out.println(e);
             return;
         }
@@ -143,10 +206,7 @@ public class Main {
         try{
             System.out.println("Loading LUTs");
 
-            cornerlut.loadLUT("corner_lut");
-            edgelut1.loadLUT("7_edge_lut_1");
-            edgelut2.loadLUT("7_edge_lut_2");
-            edgeposlut.loadLUT("12_edge_pos_lut");
+            loadLUTs(new LUT[] {cornerlut, edgelut1, edgelut2, edgeposlut}, new String[] {"corner_lut", "7_edge_lut_1", "7_edge_lut_2", "12_edge_pos_lut"});
 
         } catch(Exception e) {
             
@@ -159,6 +219,61 @@ public class Main {
         
         // Solve cube
         Solver solver = new Solver(cornerlut, edgelut1, edgelut2, edgeposlut);
+        solver.setSymmetricLookups(SYMMETRIC_LOOKUPS);
+        solver.setInverseLookups(INVERSE_LOOKUPS);
+        solver.setLazyHeuristic(LAZY_HEURISTIC);
+        solver.setTranspositionTable(TRANSPOSITION_TABLE_BYTES, TRANSPOSITION_TABLE_DEPTH);
+        solver.setMoveAutomaton(MoveAutomaton.build(MOVE_AUTOMATON_LENGTH));
+        if(PERIMETER_RADIUS > 0) solver.setPerimeter(new Perimeter(PERIMETER_RADIUS, PERIMETER_BYTES));
+
+        Move[] solution = solver.solve(state);
+
+        // Convert solution to string
+        String solutionString = "";
+        int solutionLength = 0;
+        for(Move move : solution) {
+            if(move != null) {
+                solutionString += move.toString() + " ";
+                solutionLength++;
+            }
+        }
+
+        System.out.println("Solution: " + solutionString);
+        System.out.println("Length: " + solutionLength);
+    }
+
+    private static void solveRandomScrambleParallel(int moveCount, int parallelism) {
+        Random rand = new Random(System.currentTimeMillis());
+
+        // Initialize LUTs
+        CornerLUT cornerlut = new CornerLUT();
+        EdgeLUT edgelut1 = new EdgeLUT(new byte[] {1, 3, 4, 6, 7, 8, 10});
+        EdgeLUT edgelut2 = new EdgeLUT(new byte[] {0, 2, 5, 6, 7, 9, 11});
+        EdgePosLUT edgeposlut = new EdgePosLUT();
+
+        CubeState state = CubeState.getSolvedState();
+
+        for(int i = 0; i < moveCount; i++) {
+            state.applyMove(randomMove(rand));
+        }
+
+        try{
+            System.out.println("Loading LUTs");
+
+            loadLUTs(new LUT[] {cornerlut, edgelut1, edgelut2, edgeposlut}, new String[] {"corner_lut", "7_edge_lut_1", "7_edge_lut_2", "12_edge_pos_lut"});
+
+        } catch(Exception e) {
+            
+            System.out.println("Could not load LUTs");
+            System.out.println(e);
+            return;
+        }
+
+        System.out.println(state.toString());
+        
+        // Solve cube
+        ParallelSolver solver = new ParallelSolver(new LUT[] {cornerlut, edgelut1, edgelut2, edgeposlut}, parallelism);
+        solver.setMoveAutomaton(MoveAutomaton.build(MOVE_AUTOMATON_LENGTH));
 
         Move[] solution = solver.solve(state);
 
@@ -176,6 +291,164 @@ public class Main {
         System.out.println("Length: " + solutionLength);
     }
 
+    private static void solveRandomScrambleTwoPhase(int moveCount, int targetLength, long timeLimitMillis) {
+        Random rand = new Random(System.currentTimeMillis());
+
+        CubeState state = CubeState.getSolvedState();
+
+        for(int i = 0; i < moveCount; i++) {
+            state.applyMove(randomMove(rand));
+        }
+
+        TwoPhaseTables tables;
+
+        try{
+            System.out.println("Loading two-phase tables");
+
+            tables = TwoPhaseTables.load("two_phase_tables");
+
+        } catch(Exception e) {
+            
+            System.out.println("Could not load two-phase tables");
+            System.out.println(e);
+            return;
+        }
+
+        System.out.println(state.toString());
+        
+        // Solve cube
+        TwoPhaseSolver solver = new TwoPhaseSolver(tables);
+
+        SolveResult result = solver.solve(state, targetLength, timeLimitMillis);
+
+        System.out.println("Solution: " + result.getSolutionString());
+        System.out.println("Length: " + result.getLength());
+    }
+
+    private static void solveRandomScramblesBatch(int scrambleCount, int moveCount, int threads) {
+        Random rand = new Random(System.currentTimeMillis());
+
+        // Initialize LUTs
+        CornerLUT cornerlut = new CornerLUT();
+        EdgeLUT edgelut1 = new EdgeLUT(new byte[] {1, 3, 4, 6, 7, 8, 10});
+        EdgeLUT edgelut2 = new EdgeLUT(new byte[] {0, 2, 5, 6, 7, 9, 11});
+        EdgePosLUT edgeposlut = new EdgePosLUT();
+
+        List<CubeState> states = new ArrayList<>();
+
+        for(int i = 0; i < scrambleCount; i++) {
+            CubeState state = CubeState.getSolvedState();
+
+            for(int j = 0; j < moveCount; j++) {
+                state.applyMove(randomMove(rand));
+            }
+
+            states.add(state);
+        }
+
+        try{
+            System.out.println("Loading LUTs");
+
+            loadLUTs(new LUT[] {cornerlut, edgelut1, edgelut2, edgeposlut}, new String[] {"corner_lut", "7_edge_lut_1", "7_edge_lut_2", "12_edge_pos_lut"});
+
+        } catch(Exception e) {
+            
+            System.out.println("Could not load LUTs");
+            System.out.println(e);
+            return;
+        }
+
+        System.out.println("Solving " + scrambleCount + " scrambles with " + threads + " threads");
+
+        try(SolverService service = new SolverService(new LUT[] {cornerlut, edgelut1, edgelut2, edgeposlut}, threads)) {
+
+            List<Future<SolveResult>> results = service.submitAll(states);
+
+            for(Future<SolveResult> result : results) {
+                SolveResult solveResult = result.get();
+
+                System.out.println("Solution: " + solveResult.getSolutionString() + " (" + solveResult.getLength() + " moves, "
+                        + solveResult.getExploredStates() + " states, " + (solveResult.getSolveNanos() / 1000000) + "ms)");
+            }
+
+            service.printThroughput();
+
+        } catch(Exception e) {
+
+            System.out.println("Solving failed");
+            System.out.println(e);
+        }
+    }
+
+    private static void solveRandomScrambleFast(int moveCount) {
+        Random rand = new Random(System.currentTimeMillis());
+
+        // Initialize LUTs
+        CornerLUT cornerlut = new CornerLUT();
+        EdgeLUT edgelut1 = new EdgeLUT(new byte[] {1, 3, 4, 6, 7, 8, 10});
+        EdgeLUT edgelut2 = new EdgeLUT(new byte[] {0, 2, 5, 6, 7, 9, 11});
+        EdgePosLUT edgeposlut = new EdgePosLUT();
+
+        CubeState state = CubeState.getSolvedState();
+
+        for(int i = 0; i < moveCount; i++) {
+            state.applyMove(randomMove(rand));
+        }
+
+        try{
+            System.out.println("Loading LUTs");
+
+            loadLUTs(new LUT[] {cornerlut, edgelut1, edgelut2, edgeposlut}, new String[] {"corner_lut", "7_edge_lut_1", "7_edge_lut_2", "12_edge_pos_lut"});
+
+            // Move tables are generated and saved on the first run
+            System.out.println("Loading move tables");
+
+            cornerlut.loadMoveTable("corner_move_table");
+            edgelut1.loadMoveTable("7_edge_move_table");
+            edgelut2.loadMoveTable("7_edge_move_table");
+            edgeposlut.loadMoveTable("6_edge_move_table");
+
+        } catch(Exception e) {
+            
+            System.out.println("Could not load LUTs");
+            System.out.println(e);
+            return;
+        }
+
+        System.out.println(state.toString());
+        
+        // Solve cube
+        FastSolver solver = new FastSolver(cornerlut, edgelut1, edgelut2, edgeposlut);
+        solver.setBatchedSuccessors(BATCHED_SUCCESSORS);
+        solver.setMoveAutomaton(MoveAutomaton.build(MOVE_AUTOMATON_LENGTH));
+
+        Move[] solution = solver.solve(state);
+
+        // Convert solution to string
+        String solutionString = "";
+        int solutionLength = 0;
+        for(Move move : solution) {
+            if(move != null) {
+                solutionString += move.toString() + " ";
+                solutionLength++;
+            }
+        }
+
+        System.out.println("Solution: " + solutionString);
+        System.out.println("Length: " + solutionLength);
+    }
+
+    // All files are read at the same time and checked against their headers
+    private static void loadLUTs(LUT[] luts, String[] fileNames) throws IOException {
+        if(MAP_LUTS) {
+            for(int i = 0; i < luts.length; i++) {
+                luts[i].mapLUT(fileNames[i], true);
+            }
+        } else {
+            LUTFile.loadAll(luts, fileNames);
+        }
+    }
+
     private static Move randomMove(Random rand) {
         byte moveType = (byte)(rand.nextInt(5) + 1);
         byte moveDir = (byte)(rand.nextInt(2) + 1);
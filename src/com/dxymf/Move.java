@@ -18,6 +18,15 @@ public class Move {
         return moveDirection;
     }
 
+    // Index of the move in MoveTables (0-17)
+    public int getIndex() {
+        return (moveType - 1) * 3 + moveDirection - 1;
+    }
+
+    public static Move fromIndex(int index) {
+        return new Move((byte) (index / 3 + 1), (byte) (index % 3 + 1));
+    }
+
     public Move clone() {
         return new Move(moveType, moveDirection);
     }
@@ -0,0 +1,240 @@
+package com.dxymf;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Finite-state automaton over the 18 moves that only allows canonical move sequences
+// A sequence is canonical if no sequence that is shorter, or as long and smaller move by move (by move index),
+// has the same effect on the cube. Every part of a canonical sequence is canonical itself, so every state still has
+// an optimal solution that the automaton allows, and the searches only need to check the last few moves
+// The automaton is built by a BFS over all sequences of up to maxLength moves and remembers as much of the
+// last moves as is needed to reject every sequence that contains a non-canonical part of up to maxLength moves
+// maxLength 2 gives the same pruning as the simple rules (no two moves of the same type, commuting moves in one order)
+// Its state is a small int that is carried along the search, a move is checked with one table lookup
+public class MoveAutomaton {
+
+    // State before the first move
+    public static final int START = 0;
+
+    // Returned by next for moves that aren't allowed
+    public static final int REJECTED = -1;
+
+    // Sequences of more moves need too much memory for the BFS
+    public static final int MAX_LENGTH = 6;
+
+    private static final int MOVE_COUNT = MoveTables.MOVE_COUNT;
+
+    // Same pruning as the simple rules, used by the solvers unless another automaton is set
+    public static final MoveAutomaton SIMPLE = build(2);
+
+    // State after move m in state q: transitions[q * 18 + m], REJECTED if the move isn't allowed
+    private int[] transitions;
+
+    private int stateCount;
+    private int maxLength;
+
+    private MoveAutomaton(int[] transitions, int stateCount, int maxLength) {
+        this.transitions = transitions;
+        this.stateCount = stateCount;
+        this.maxLength = maxLength;
+    }
+
+    // State after move m in state, REJECTED if the move would make the sequence non-canonical
+    public int next(int state, int m) {
+        return transitions[state * MOVE_COUNT + m];
+    }
+
+    public boolean isAllowed(int state, int m) {
+        return transitions[state * MOVE_COUNT + m] != REJECTED;
+    }
+
+    public int getStateCount() {
+        return stateCount;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    // Automaton that rejects all sequences with a non-canonical part of up to maxLength moves
+    public static MoveAutomaton build(int maxLength) {
+
+        if(maxLength < 1 || maxLength > MAX_LENGTH) {
+            throw new IllegalArgumentException("Move automaton length must be between 1 and " + MAX_LENGTH + ": " + maxLength);
+        }
+
+        boolean[][] canonical = findCanonicalSequences(maxLength);
+
+        // A state for every canonical sequence of less than maxLength moves (the last moves of the sequence so far)
+        // states[length][code] is the state of the sequence, its moves are the digits of code in base 18 (first move highest)
+        int[][] states = new int[maxLength][];
+        int count = 0;
+        for(int length = 0; length < maxLength; length++) {
+            states[length] = new int[canonical[length].length];
+            for(int code = 0; code < canonical[length].length; code++) {
+                states[length][code] = canonical[length][code] ? count++ : REJECTED;
+            }
+        }
+
+        int[] transitions = new int[count * MOVE_COUNT];
+
+        for(int length = 0; length < maxLength; length++) {
+            for(int code = 0; code < states[length].length; code++) {
+                int state = states[length][code];
+                if(state == REJECTED) continue;
+
+                for(int m = 0; m < MOVE_COUNT; m++) {
+                    int nextLength = length + 1;
+                    int nextCode = code * MOVE_COUNT + m;
+
+                    if(!allSuffixesCanonical(canonical, nextLength, nextCode)) {
+                        transitions[state * MOVE_COUNT + m] = REJECTED;
+                        continue;
+                    }
+
+                    // Only the last maxLength - 1 moves are remembered
+                    if(nextLength == maxLength) {
+                        nextLength--;
+                        nextCode %= canonical[nextLength].length;
+                    }
+
+                    transitions[state * MOVE_COUNT + m] = states[nextLength][nextCode];
+                }
+            }
+        }
+
+        return minimize(transitions, count, maxLength);
+    }
+
+
+    // canonical[length][code] for all sequences of up to maxLength moves
+    // The sequences of each length are tried in increasing order of their code, which is the order of the moves,
+    // so the first sequence that reaches a state that wasn't reached by a shorter one is its canonical sequence
+    private static boolean[][] findCanonicalSequences(int maxLength) {
+
+        boolean[][] canonical = new boolean[maxLength + 1][];
+        canonical[0] = new boolean[] {true};
+
+        Set<PackedCubeState> reached = new HashSet<>();
+        reached.add(CubeState.getSolvedState().pack());
+
+        for(int length = 1; length <= maxLength; length++) {
+            canonical[length] = new boolean[canonical[length - 1].length * MOVE_COUNT];
+
+            for(int code = 0; code < canonical[length - 1].length; code++) {
+                // Sequences with a non-canonical start aren't canonical
+                if(!canonical[length - 1][code]) continue;
+
+                CubeState state = CubeState.getSolvedState();
+                byte[] cP = state.getCornerPositions();
+                byte[] cO = state.getCornerOrientations();
+                byte[] eP = state.getEdgePositions();
+                byte[] eO = state.getEdgeOrientations();
+
+                for(int i = 0; i < length - 1; i++) {
+                    MoveTables.applyMove(cP, cO, eP, eO, moveAt(code, i, length - 1));
+                }
+
+                for(int m = 0; m < MOVE_COUNT; m++) {
+                    MoveTables.applyMove(cP, cO, eP, eO, m);
+
+                    if(reached.add(new PackedCubeState(cP, cO, eP, eO))) {
+                        canonical[length][code * MOVE_COUNT + m] = true;
+                    }
+
+                    MoveTables.applyMove(cP, cO, eP, eO, MoveTables.inverse(m));
+                }
+            }
+        }
+
+        return canonical;
+    }
+
+
+    private static boolean allSuffixesCanonical(boolean[][] canonical, int length, int code) {
+
+        for(int suffixLength = 1; suffixLength <= length; suffixLength++) {
+            if(!canonical[suffixLength][code % canonical[suffixLength].length]) return false;
+        }
+
+        return true;
+    }
+
+
+    // Move i of the sequence with code and length moves
+    private static int moveAt(int code, int i, int length) {
+
+        for(int j = length - 1; j > i; j--) {
+            code /= MOVE_COUNT;
+        }
+
+        return code % MOVE_COUNT;
+    }
+
+
+    // Merge states that allow exactly the same sequences (Moore's partition refinement)
+    // The automaton shrinks to a size that fits into the cache, state START stays 0
+    private static MoveAutomaton minimize(int[] transitions, int count, int maxLength) {
+
+        // All states start in one class, the classes are split until the transitions of all states in a class
+        // lead to the same classes
+        int[] classes = new int[count];
+        int classCount = 1;
+
+        while(true) {
+            Map<Signature, Integer> newClasses = new HashMap<>();
+            int[] refined = new int[count];
+
+            for(int q = 0; q < count; q++) {
+                int[] signature = new int[MOVE_COUNT + 1];
+                signature[0] = classes[q];
+                for(int m = 0; m < MOVE_COUNT; m++) {
+                    int next = transitions[q * MOVE_COUNT + m];
+                    signature[m + 1] = (next == REJECTED) ? REJECTED : classes[next];
+                }
+
+                // Classes are numbered in the order of their first state, so START is in class 0
+                refined[q] = newClasses.computeIfAbsent(new Signature(signature), s -> newClasses.size());
+            }
+
+            classes = refined;
+
+            if(newClasses.size() == classCount) break;
+            classCount = newClasses.size();
+        }
+
+        int[] minimized = new int[classCount * MOVE_COUNT];
+        for(int q = 0; q < count; q++) {
+            for(int m = 0; m < MOVE_COUNT; m++) {
+                int next = transitions[q * MOVE_COUNT + m];
+                minimized[classes[q] * MOVE_COUNT + m] = (next == REJECTED) ? REJECTED : classes[next];
+            }
+        }
+
+        return new MoveAutomaton(minimized, classCount, maxLength);
+    }
+
+
+    // Class of a state and the classes its transitions lead to
+    private static class Signature {
+
+        private int[] values;
+
+        public Signature(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return (other instanceof Signature) && Arrays.equals(values, ((Signature) other).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(values);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.dxymf;
+
+// Applies a move to many pieces at once (see CubeBatch)
+// Every piece is one byte code and the move maps each code to a new code with a table of 24 entries
+public interface MoveKernel {
+
+    // Replace codes[i] by tables[offset + codes[i]] for all i < length
+    void apply(byte[] codes, int length, byte[] tables, int offset);
+
+    // Kernel using the Vector API if it was compiled and the module is present (see VectorMoveKernel in src-incubator),
+    // the scalar kernel otherwise
+    static MoveKernel best() {
+        try{
+            return (MoveKernel) Class.forName("com.dxymf.VectorMoveKernel").getDeclaredConstructor().newInstance();
+        } catch(ReflectiveOperationException | LinkageError e) {
+            return new ScalarMoveKernel();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.dxymf;
+
+// Precomputed tables for all 18 moves so a move can be applied in a single pass without allocating
+// Moves are indexed by (type - 1) * 3 + (direction - 1), see Move.getIndex()
+public class MoveTables {
+
+    public static final int MOVE_COUNT = 18;
+
+    // New position of a corner at position p after move m: CORNER_POSITIONS[m * 8 + p]
+    public static final byte[] CORNER_POSITIONS = new byte[MOVE_COUNT * 8];
+    // New orientation of a corner at position p with orientation o after move m: CORNER_ORIENTATIONS[(m * 8 + p) * 3 + o]
+    public static final byte[] CORNER_ORIENTATIONS = new byte[MOVE_COUNT * 8 * 3];
+
+    // New position of an edge at position p after move m: EDGE_POSITIONS[m * 12 + p]
+    public static final byte[] EDGE_POSITIONS = new byte[MOVE_COUNT * 12];
+    // New orientation of an edge at position p with orientation o after move m: EDGE_ORIENTATIONS[(m * 12 + p) * 2 + o]
+    public static final byte[] EDGE_ORIENTATIONS = new byte[MOVE_COUNT * 12 * 2];
+
+    // Clockwise quarter turns of R, U, F, L, D, B (-1 -> position not affected)
+    private static final byte[][] QUARTER_CORNER_POSITIONS = {
+        {-1, 5, 1, -1, -1, 6, 2, -1},
+        {1, 2, 3, 0, -1, -1, -1, -1},
+        {-1, -1, 6, 2, -1, -1, 7, 3},
+        {3, -1, -1, 7, 0, -1, -1, 4},
+        {-1, -1, -1, -1, 7, 4, 5, 6},
+        {4, 0, -1, -1, 5, 1, -1, -1}
+    };
+    private static final byte[][] QUARTER_CORNER_ORIENTATIONS = {
+        {1, 0, 2}, {0, 2, 1}, {2, 1, 0}, {1, 0, 2}, {0, 2, 1}, {2, 1, 0}
+    };
+    private static final byte[][] QUARTER_EDGE_POSITIONS = {
+        {-1, 5, -1, -1, -1, 9, 1, -1, -1, 6, -1, -1},
+        {1, 2, 3, 0, -1, -1, -1, -1, -1, -1, -1, -1},
+        {-1, -1, 6, -1, -1, -1, 10, 2, -1, -1, 7, -1},
+        {-1, -1, -1, 7, 3, -1, -1, 11, -1, -1, -1, 4},
+        {-1, -1, -1, -1, -1, -1, -1, -1, 11, 8, 9, 10},
+        {4, -1, -1, -1, 8, 0, -1, -1, 5, -1, -1, -1}
+    };
+    private static final byte[][] QUARTER_EDGE_ORIENTATIONS = {
+        {0, 1}, {0, 1}, {1, 0}, {0, 1}, {0, 1}, {1, 0}
+    };
+
+    static {
+        for(int m = 0; m < MOVE_COUNT; m++) {
+            int type = m / 3;
+            int direction = m % 3 + 1;
+
+            fillTable(CORNER_POSITIONS, CORNER_ORIENTATIONS, QUARTER_CORNER_POSITIONS[type], QUARTER_CORNER_ORIENTATIONS[type], m, direction, 8, 3);
+            fillTable(EDGE_POSITIONS, EDGE_ORIENTATIONS, QUARTER_EDGE_POSITIONS[type], QUARTER_EDGE_ORIENTATIONS[type], m, direction, 12, 2);
+        }
+    }
+
+    // Index of the move that undoes move m (R -> R', R2 -> R2, R' -> R)
+    public static int inverse(int m) {
+        return m - m % 3 + 2 - m % 3;
+    }
+
+    // Type of move m (1-6   -   R, U, F, L, D, B)
+    public static int type(int m) {
+        return m / 3 + 1;
+    }
+
+    // Apply move m to the arrays in place
+    public static void applyMove(byte[] cP, byte[] cO, byte[] eP, byte[] eO, int m) {
+
+        int cornerOffset = m * 8;
+        for(int j = 0; j < 8; j++) {
+            int p = cornerOffset + cP[j];
+
+            cO[j] = CORNER_ORIENTATIONS[p * 3 + cO[j]];
+            cP[j] = CORNER_POSITIONS[p];
+        }
+
+        int edgeOffset = m * 12;
+        for(int j = 0; j < 12; j++) {
+            int p = edgeOffset + eP[j];
+
+            eO[j] = EDGE_ORIENTATIONS[p * 2 + eO[j]];
+            eP[j] = EDGE_POSITIONS[p];
+        }
+    }
+
+    // Compose the quarter turn direction times for every position and orientation
+    private static void fillTable(byte[] positions, byte[] orientations, byte[] quarterPositions, byte[] quarterOrientations, int m, int direction, int pieceCount, int orientationCount) {
+
+        for(int p = 0; p < pieceCount; p++) {
+            for(int o = 0; o < orientationCount; o++) {
+                int position = p;
+                int orientation = o;
+
+                for(int i = 0; i < direction; i++) {
+                    // Skip pieces that aren't affected by the move
+                    if(quarterPositions[position] == -1) continue;
+
+                    orientation = quarterOrientations[orientation];
+                    position = quarterPositions[position];
+                }
+
+                positions[m * pieceCount + p] = (byte) position;
+                orientations[(m * pieceCount + p) * orientationCount + o] = (byte) orientation;
+            }
+        }
+    }
+}
@@ -5,6 +5,10 @@ public class Node implements Comparable<Node> {
     public int depth = 0;
     public int f = 0;
     public Move prevMove;
+    // Exact values of the LUTs for state, carried down so LUTs storing values mod 3 can be used
+    public int[] moveCounts;
+    // State of the MoveAutomaton after the moves to this node
+    public int automatonState = MoveAutomaton.START;
 
     public Node(CubeState state, int depth, int f, Move prevMove) {
         this.state = state;
@@ -13,6 +17,16 @@ public class Node implements Comparable<Node> {
         this.prevMove = prevMove;
     }
 
+    public Node(CubeState state, int depth, int f, Move prevMove, int[] moveCounts) {
+        this(state, depth, f, prevMove);
+        this.moveCounts = moveCounts;
+    }
+
+    public Node(CubeState state, int depth, int f, Move prevMove, int[] moveCounts, int automatonState) {
+        this(state, depth, f, prevMove, moveCounts);
+        this.automatonState = automatonState;
+    }
+
     @Override
     public int compareTo(Node other) {
         return Integer.compare(other.f, this.f);
@@ -0,0 +1,105 @@
+package com.dxymf;
+
+// Whole cube packed into two longs so large numbers of states can be stored without an object with four arrays each
+// corners: 5 bits per corner (position << 2 | orientation), corner 0 in the highest of the 40 bits
+// edges: 5 bits per edge (position << 1 | orientation), edge 0 in the highest of the 60 bits
+// Equal states have equal packed values, so equals, isSolved and hashCode are a few operations on the two longs
+public final class PackedCubeState {
+
+    public static final long SOLVED_CORNERS = packCorners(CubeState.getSolvedState().getCornerPositions(), new byte[8]);
+    public static final long SOLVED_EDGES = packEdges(CubeState.getSolvedState().getEdgePositions(), new byte[12]);
+
+    private final long corners;
+    private final long edges;
+
+    public PackedCubeState(long corners, long edges) {
+        this.corners = corners;
+        this.edges = edges;
+    }
+
+    public PackedCubeState(CubeState state) {
+        this(packCorners(state.getCornerPositions(), state.getCornerOrientations()), packEdges(state.getEdgePositions(), state.getEdgeOrientations()));
+    }
+
+    public PackedCubeState(byte[] cP, byte[] cO, byte[] eP, byte[] eO) {
+        this(packCorners(cP, cO), packEdges(eP, eO));
+    }
+
+    public long getCorners() {
+        return corners;
+    }
+
+    public long getEdges() {
+        return edges;
+    }
+
+    public boolean isSolved() {
+        return corners == SOLVED_CORNERS && edges == SOLVED_EDGES;
+    }
+
+    // Same hash as CubeState.longHash
+    public long longHash() {
+        return hash(corners, edges);
+    }
+
+    // Unpacked state with new arrays
+    public CubeState toCubeState() {
+        byte[] cP = new byte[8];
+        byte[] cO = new byte[8];
+        byte[] eP = new byte[12];
+        byte[] eO = new byte[12];
+
+        unpack(corners, edges, cP, cO, eP, eO);
+
+        return new CubeState(cP, cO, eP, eO);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if(!(other instanceof PackedCubeState)) return false;
+
+        PackedCubeState state = (PackedCubeState) other;
+        return corners == state.corners && edges == state.edges;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash(corners, edges));
+    }
+
+    public static long packCorners(byte[] cP, byte[] cO) {
+        long corners = 0;
+        for(int i = 0; i < 8; i++) {
+            corners = (corners << 5) | (cP[i] << 2) | cO[i];
+        }
+        return corners;
+    }
+
+    public static long packEdges(byte[] eP, byte[] eO) {
+        long edges = 0;
+        for(int i = 0; i < 12; i++) {
+            edges = (edges << 5) | (eP[i] << 1) | eO[i];
+        }
+        return edges;
+    }
+
+    // Write the packed state into the arrays
+    public static void unpack(long corners, long edges, byte[] cP, byte[] cO, byte[] eP, byte[] eO) {
+        for(int i = 7; i >= 0; i--, corners >>>= 5) {
+            cP[i] = (byte) ((corners >>> 2) & 7);
+            cO[i] = (byte) (corners & 3);
+        }
+        for(int i = 11; i >= 0; i--, edges >>>= 5) {
+            eP[i] = (byte) ((edges >>> 1) & 15);
+            eO[i] = (byte) (edges & 1);
+        }
+    }
+
+    // 64-bit hash of a packed state, the bits are mixed so every bit of the hash depends on all pieces
+    // The state has 100 bits, so different states can have the same hash but only very rarely
+    public static long hash(long corners, long edges) {
+        long hash = corners * 0x9E3779B97F4A7C15L ^ edges;
+        hash = (hash ^ (hash >>> 31)) * 0xBF58476D1CE4E5B9L;
+        return hash ^ (hash >>> 29);
+    }
+}
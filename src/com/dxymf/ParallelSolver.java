@@ -0,0 +1,375 @@
+package com.dxymf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.dxymf.lut.LUT;
+
+public class ParallelSolver {
+
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    // God's number, no solution is longer
+    private static final int MAX_DEPTH = 20;
+
+    // Number of states a worker generates between checks of the limits of the solve
+    private static final long CHECK_INTERVAL = 1 << 14;
+
+    // The heuristic is the maximum of the values of all these LUTs
+    private LUT[] luts;
+
+    // Number of worker threads of the ForkJoinPool
+    private int parallelism;
+    // Nodes up to this depth are split into separate tasks, deeper nodes are searched sequentially
+    private int splitDepth;
+
+    // Only move sequences the automaton allows are searched
+    private MoveAutomaton moveAutomaton = MoveAutomaton.SIMPLE;
+
+    private SolveListener listener;
+
+    // Limits of the current solve (see solve(rootState, deadline, nodeBudget, token))
+    private long deadline;
+    private long nodeBudget;
+    private CancellationToken token;
+
+    // State shared by all workers of the current iteration
+    private AtomicInteger nextBound;
+    private AtomicBoolean solved;
+    private AtomicReference<Move[]> solution;
+    // Why the solve was stopped, null while it isn't stopped
+    private AtomicReference<SolveResult.Status> stopStatus;
+    // Number of states all workers have generated and reported so far (workers report every CHECK_INTERVAL states)
+    private AtomicLong totalStates;
+
+    // Number of generated states per worker thread
+    private Map<String, LongAdder> workerStates;
+
+    public ParallelSolver(LUT[] luts, int parallelism) {
+        // 3 plies give up to 3240 subtrees which is plenty to keep all workers busy
+        this(luts, parallelism, 3);
+    }
+
+    public ParallelSolver(LUT[] luts, int parallelism, int splitDepth) {
+        this.luts = luts;
+        this.parallelism = parallelism;
+        this.splitDepth = splitDepth;
+    }
+
+    public void setMoveAutomaton(MoveAutomaton moveAutomaton) {
+        this.moveAutomaton = moveAutomaton;
+    }
+
+    // Gets notified at the start of every iteration
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    public Move[] solve(CubeState rootState) {
+
+        SolveResult result = solve(rootState, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+        // Moves of the solution followed by nulls
+        Move[] solutionPath = new Move[MAX_DEPTH];
+        System.arraycopy(result.getSolution(), 0, solutionPath, 0, result.getLength());
+
+        return solutionPath;
+    }
+
+    // Same as Solver.solve(rootState, deadline, nodeBudget, token): stop once the time is past deadline,
+    // more than nodeBudget states were generated or token (may be null) is cancelled
+    // Every worker checks the limits after CHECK_INTERVAL states, so up to that many states per worker are generated past the budget
+    public SolveResult solve(CubeState rootState, long deadline, long nodeBudget, CancellationToken token) {
+
+        System.out.println("Starting solving with " + parallelism + " workers");
+        long t1 = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        this.deadline = deadline;
+        this.nodeBudget = nodeBudget;
+        this.token = token;
+
+        nextBound = new AtomicInteger();
+        solved = new AtomicBoolean(false);
+        solution = new AtomicReference<>();
+        stopStatus = new AtomicReference<>();
+        totalStates = new AtomicLong();
+        workerStates = new ConcurrentHashMap<>();
+
+        Node root = new Node(rootState, 0, 0, null, moveCounts(rootState));
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+
+        // Bound for the first iteration
+        int bound = heuristic(root.moveCounts);
+
+        try{
+            while(!solved.get()) {
+                // Every state can be solved in 20 moves, so there is no solution if the bound gets larger
+                if(bound > MAX_DEPTH) {
+                    stopStatus.set(SolveResult.Status.UNSOLVABLE);
+                    break;
+                }
+
+                System.out.println("New Iteration with bound: " + bound + " after " + (System.currentTimeMillis() - t1) + "ms");
+                if(listener != null) listener.onIteration(bound, totalStates.get(), System.currentTimeMillis() - t1);
+                nextBound.set(INFINITY);
+
+                // Every solution found within an iteration has exactly bound moves
+                // and no iteration with a smaller bound found one, so any of them is optimal
+                pool.invoke(new SubtreeTask(root, new Move[MAX_DEPTH + 1], bound));
+
+                // A solution found while the limits were reached still counts
+                if(solved.get() || stopStatus.get() != null) break;
+
+                bound = nextBound.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        long timeTaken = Math.max(1, System.currentTimeMillis() - t1);
+
+        for(Map.Entry<String, LongAdder> entry : workerStates.entrySet()) {
+            long states = entry.getValue().sum();
+
+            System.out.println(entry.getKey() + ": " + states + " states, " + (1000 * states / timeTaken) + " states per second");
+        }
+
+        long exploredStates = totalStates.get();
+
+        System.out.println("Time taken: " + timeTaken + "ms");
+        System.out.println("Explored states: " + exploredStates);
+        System.out.println("States per Second: " + (1000 * exploredStates / timeTaken));
+
+        long solveNanos = System.nanoTime() - startNanos;
+
+        if(!solved.get()) {
+            System.out.println("Stopped: " + stopStatus.get());
+
+            return new SolveResult(stopStatus.get(), new Move[0], bound, exploredStates, solveNanos, solveNanos);
+        }
+
+        Move[] moves = new Move[bound];
+        System.arraycopy(solution.get(), 0, moves, 0, bound);
+
+        return new SolveResult(SolveResult.Status.SOLVED, moves, bound, exploredStates, solveNanos, solveNanos);
+    }
+
+    // Task that either splits a node into one subtask per successor or searches its subtree sequentially
+    private class SubtreeTask extends RecursiveAction {
+
+        // RecursiveAction is Serializable but tasks are never serialized
+        private static final long serialVersionUID = 1L;
+
+        private Node node;
+        // Moves to get from the root to node
+        private Move[] path;
+        private int bound;
+
+        public SubtreeTask(Node node, Move[] path, int bound) {
+            this.node = node;
+            this.path = path;
+            this.bound = bound;
+        }
+
+        @Override
+        protected void compute() {
+            // Another worker has already found a solution or the solve was stopped
+            if(solved.get() || stopStatus.get() != null) return;
+
+            if(node.depth >= splitDepth || node.depth == bound) {
+                searchSubtree(node, path, bound);
+                return;
+            }
+
+            long exploredStates = 0;
+            int localNextBound = INFINITY;
+
+            List<SubtreeTask> subtasks = new ArrayList<>();
+
+            // Lowest f-score first so the most promising subtrees are started first
+            PriorityQueue<Node> successors = new PriorityQueue<>((a, b) -> Integer.compare(a.f, b.f));
+
+            for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+
+                // Move pruning, only moves that keep the sequence canonical are applied
+                int automatonState = moveAutomaton.next(node.automatonState, m);
+                if(automatonState == MoveAutomaton.REJECTED) continue;
+
+                CubeState clonedState = node.state.clone();
+
+                Move move = Move.fromIndex(m);
+                clonedState.applyMove(m);
+
+                exploredStates++;
+
+                int[] moveCounts = moveCounts(clonedState, node.moveCounts);
+                int f = node.depth + 1 + heuristic(moveCounts);
+
+                if(f <= bound) {
+                    successors.add(new Node(clonedState, node.depth + 1, f, move, moveCounts, automatonState));
+                } else if(f < localNextBound) {
+                    localNextBound = f;
+                }
+            }
+
+            while(!successors.isEmpty()) {
+                Node successor = successors.poll();
+
+                Move[] successorPath = path.clone();
+                successorPath[node.depth] = successor.prevMove;
+
+                subtasks.add(new SubtreeTask(successor, successorPath, bound));
+            }
+
+            recordStates(exploredStates);
+            updateNextBound(localNextBound);
+
+            if(limitReached(exploredStates)) return;
+
+            invokeAll(subtasks);
+        }
+    }
+
+    // Sequential IDA* iteration below subtreeRoot (same as Solver.solve but for a single iteration)
+    private void searchSubtree(Node subtreeRoot, Move[] path, int bound) {
+
+        Stack<Node> stack = new Stack<>();
+        stack.push(subtreeRoot);
+
+        Move[] solutionPath = path.clone();
+
+        long exploredStates = 0;
+        int localNextBound = INFINITY;
+
+        // States generated since the limits were checked last
+        long uncheckedStates = 0;
+
+        // Stop as soon as this or any other worker has found a solution or the solve was stopped
+        while(!stack.empty() && !solved.get()) {
+
+            if(uncheckedStates >= CHECK_INTERVAL) {
+                boolean stop = limitReached(uncheckedStates);
+                uncheckedStates = 0;
+
+                if(stop) break;
+            }
+
+            Node currentNode = stack.pop();
+
+            // Update solutionPath
+            if(currentNode.depth != 0) {
+                solutionPath[currentNode.depth - 1] = currentNode.prevMove;
+            }
+            solutionPath[currentNode.depth] = null;
+
+            if(currentNode.depth == bound) {
+                // Only the first worker to find a solution gets to publish it
+                if(currentNode.state.isSolved() && solved.compareAndSet(false, true)) {
+                    solution.set(solutionPath.clone());
+                }
+
+            } else {
+                PriorityQueue<Node> successors = new PriorityQueue<>();
+
+                for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+
+                    // Move pruning, only moves that keep the sequence canonical are applied
+                    int automatonState = moveAutomaton.next(currentNode.automatonState, m);
+                    if(automatonState == MoveAutomaton.REJECTED) continue;
+
+                    CubeState clonedState = currentNode.state.clone();
+
+                    Move move = Move.fromIndex(m);
+                    clonedState.applyMove(m);
+
+                    exploredStates++;
+                    uncheckedStates++;
+
+                    int[] moveCounts = moveCounts(clonedState, currentNode.moveCounts);
+                    int f = currentNode.depth + 1 + heuristic(moveCounts);
+
+                    if(f <= bound) {
+                        successors.add(new Node(clonedState, currentNode.depth + 1, f, move, moveCounts, automatonState));
+                    } else if(f < localNextBound) {
+                        localNextBound = f;
+                    }
+                }
+                // Lowest f-score gets added to the stack last so it will be searched first
+                while(!successors.isEmpty()) {
+                    stack.push(successors.poll());
+                }
+            }
+        }
+
+        recordStates(exploredStates);
+        updateNextBound(localNextBound);
+
+        limitReached(uncheckedStates);
+    }
+
+    // Adds newStates to the total and checks the node budget, the token and the deadline
+    // Returns true if the solve is stopped (by this or any other worker)
+    private boolean limitReached(long newStates) {
+        long states = totalStates.addAndGet(newStates);
+
+        if(states >= nodeBudget) {
+            stopStatus.compareAndSet(null, SolveResult.Status.NODE_BUDGET_EXCEEDED);
+        } else if(token != null && token.isCancelled()) {
+            stopStatus.compareAndSet(null, SolveResult.Status.CANCELLED);
+        } else if(System.currentTimeMillis() >= deadline) {
+            stopStatus.compareAndSet(null, SolveResult.Status.TIMED_OUT);
+        }
+
+        return stopStatus.get() != null;
+    }
+
+    // nextBound is the minimum of all pruned nodes' f-scores across all workers
+    private void updateNextBound(int f) {
+        nextBound.accumulateAndGet(f, Math::min);
+    }
+
+    private void recordStates(long exploredStates) {
+        workerStates.computeIfAbsent(Thread.currentThread().getName(), name -> new LongAdder()).add(exploredStates);
+    }
+
+    // Exact values of all the LUTs, only used for the root
+    private int[] moveCounts(CubeState state) {
+        int[] moveCounts = new int[luts.length];
+        for(int i = 0; i < luts.length; i++) {
+            moveCounts[i] = luts[i].getMoveCount(state);
+        }
+        return moveCounts;
+    }
+
+    // Exact values of all the LUTs for a successor of a state with parentMoveCounts
+    // The exact values are carried down with the nodes so LUTs that only store values mod 3 don't search for every value
+    private int[] moveCounts(CubeState state, int[] parentMoveCounts) {
+        int[] moveCounts = new int[luts.length];
+        for(int i = 0; i < luts.length; i++) {
+            moveCounts[i] = luts[i].getMoveCount(state, parentMoveCounts[i]);
+        }
+        return moveCounts;
+    }
+
+    private int heuristic(int[] moveCounts) {
+        // Return the maximum of all the values of the LUTs
+        int h = 0;
+        for(int moveCount : moveCounts) {
+            h = Math.max(h, moveCount);
+        }
+        return h;
+    }
+}
@@ -0,0 +1,228 @@
+package com.dxymf;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// All states within radius moves of the solved state with their exact distances (perimeter search)
+// The states are stored as 64-bit hashes (see CubeState.longHash) in an open-addressing hash table outside the heap
+// Each entry is one long: the hash with its lowest 4 bits replaced by distance + 1, 0 -> empty slot
+// A state that isn't in the table is more than radius moves away from the solved state
+// A state whose hash equals the hash of a closer state gets that state's distance, so the distances never overestimate
+public class Perimeter {
+
+    // Entries per buffer (a direct buffer can't have more than 2GB)
+    private static final int SEGMENT_BITS = 27;
+    private static final int SEGMENT_ENTRIES = 1 << SEGMENT_BITS;
+
+    // The distance is stored in 4 bits
+    public static final int MAX_RADIUS = 14;
+
+    // Returned by getDistance for states outside of the perimeter
+    public static final int OUTSIDE = -1;
+
+    // Length of the move sequences the BFS avoids (see MoveAutomaton)
+    private static final int AUTOMATON_LENGTH = 4;
+
+    private static final long DISTANCE_MASK = 15;
+
+    private int radius;
+
+    private ByteBuffer[] segments;
+    private long mask;
+
+    private long stateCount;
+
+    // Builds the perimeter of radius with a table of at most memoryBytes
+    public Perimeter(int radius, long memoryBytes) {
+
+        if(radius < 0 || radius > MAX_RADIUS) {
+            throw new IllegalArgumentException("Perimeter radius must be between 0 and " + MAX_RADIUS + ": " + radius);
+        }
+
+        this.radius = radius;
+
+        long entries = Long.highestOneBit(Math.max(1, memoryBytes / Long.BYTES));
+        mask = entries - 1;
+
+        segments = new ByteBuffer[(int) ((entries + SEGMENT_ENTRIES - 1) / SEGMENT_ENTRIES)];
+        for(int i = 0; i < segments.length; i++) {
+            int segmentEntries = (int) Math.min(SEGMENT_ENTRIES, entries);
+            segments[i] = ByteBuffer.allocateDirect(segmentEntries * Long.BYTES).order(ByteOrder.nativeOrder());
+        }
+
+        generate();
+    }
+
+
+    public int getRadius() {
+
+        return radius;
+    }
+
+
+    // Number of states in the perimeter
+    public long getStateCount() {
+
+        return stateCount;
+    }
+
+
+    // Bytes of the table
+    public long getMemoryBytes() {
+
+        return (mask + 1) * Long.BYTES;
+    }
+
+
+    // Distance of the state to the solved state, OUTSIDE if it is more than radius moves away
+    public int getDistance(CubeState state) {
+
+        return getDistance(state.longHash());
+    }
+
+
+    // Lower bound for the distance of the state to the solved state
+    public int lowerBound(CubeState state) {
+
+        int distance = getDistance(state);
+
+        return (distance == OUTSIDE) ? radius + 1 : distance;
+    }
+
+
+    // Move indices that solve a state within the perimeter, null if the state is outside
+    // Every state in the perimeter has a move to a state that is one move closer, the result is checked in case of hash collisions
+    public int[] pathToSolved(CubeState state) {
+
+        int distance = getDistance(state);
+        if(distance == OUTSIDE) return null;
+
+        byte[] cP = state.getCornerPositions().clone();
+        byte[] cO = state.getCornerOrientations().clone();
+        byte[] eP = state.getEdgePositions().clone();
+        byte[] eO = state.getEdgeOrientations().clone();
+
+        int[] path = new int[distance];
+
+        for(int depth = 0; depth < distance; depth++) {
+            path[depth] = -1;
+
+            for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                MoveTables.applyMove(cP, cO, eP, eO, m);
+
+                if(getDistance(CubeState.longHash(cP, cO, eP, eO)) == distance - depth - 1) {
+                    path[depth] = m;
+                    break;
+                }
+
+                MoveTables.applyMove(cP, cO, eP, eO, MoveTables.inverse(m));
+            }
+
+            if(path[depth] == -1) return null;
+        }
+
+        return new CubeState(cP, cO, eP, eO).isSolved() ? path : null;
+    }
+
+
+    // Iterative deepening from the solved state, the states at depth d that aren't in the table yet are d moves away
+    // A depth-first search needs no queue of states, the states closer to the solved state are visited again for every depth
+    private void generate() {
+
+        System.out.println("Starting generating perimeter with radius " + radius);
+        long t1 = System.currentTimeMillis();
+
+        MoveAutomaton automaton = MoveAutomaton.build(Math.max(1, Math.min(radius, AUTOMATON_LENGTH)));
+
+        CubeState solved = CubeState.getSolvedState();
+        byte[] cP = solved.getCornerPositions();
+        byte[] cO = solved.getCornerOrientations();
+        byte[] eP = solved.getEdgePositions();
+        byte[] eO = solved.getEdgeOrientations();
+
+        for(int depth = 0; depth <= radius; depth++) {
+            long states = stateCount;
+
+            search(automaton, cP, cO, eP, eO, 0, depth, MoveAutomaton.START);
+
+            System.out.println("Depth " + depth + ": " + (stateCount - states) + " states after " + (System.currentTimeMillis() - t1) + "ms");
+        }
+
+        System.out.println("Done generating perimeter");
+        System.out.println("Number of states: " + stateCount + " in " + (getMemoryBytes() >> 20) + "MB");
+    }
+
+
+    private void search(MoveAutomaton automaton, byte[] cP, byte[] cO, byte[] eP, byte[] eO, int depth, int bound, int automatonState) {
+
+        if(depth == bound) {
+            insert(CubeState.longHash(cP, cO, eP, eO), depth);
+            return;
+        }
+
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            int nextState = automaton.next(automatonState, m);
+            if(nextState == MoveAutomaton.REJECTED) continue;
+
+            MoveTables.applyMove(cP, cO, eP, eO, m);
+            search(automaton, cP, cO, eP, eO, depth + 1, bound, nextState);
+            MoveTables.applyMove(cP, cO, eP, eO, MoveTables.inverse(m));
+        }
+    }
+
+
+    // Add the state with hash at distance unless it is already in the table
+    private void insert(long hash, int distance) {
+
+        long key = hash & ~DISTANCE_MASK;
+
+        for(long slot = slot(hash); ; slot = (slot + 1) & mask) {
+            long entry = getEntry(slot);
+
+            if(entry == 0) {
+                // Keep a quarter of the slots empty so the probe sequences stay short
+                if(stateCount >= (mask + 1) / 4 * 3) {
+                    throw new IllegalArgumentException("Perimeter of radius " + radius + " doesn't fit into " + getMemoryBytes() + " bytes");
+                }
+
+                setEntry(slot, key | (distance + 1));
+                stateCount++;
+                return;
+            }
+
+            if((entry & ~DISTANCE_MASK) == key) return;
+        }
+    }
+
+
+    private int getDistance(long hash) {
+
+        long key = hash & ~DISTANCE_MASK;
+
+        for(long slot = slot(hash); ; slot = (slot + 1) & mask) {
+            long entry = getEntry(slot);
+
+            if(entry == 0) return OUTSIDE;
+            if((entry & ~DISTANCE_MASK) == key) return (int) (entry & DISTANCE_MASK) - 1;
+        }
+    }
+
+
+    // The low bits of the hash hold the distance, the slot comes from the high bits
+    private long slot(long hash) {
+
+        return (hash >>> 32 ^ hash >>> 4) & mask;
+    }
+
+
+    private long getEntry(long slot) {
+
+        return segments[(int) (slot >>> SEGMENT_BITS)].getLong((int) (slot & (SEGMENT_ENTRIES - 1)) * Long.BYTES);
+    }
+
+
+    private void setEntry(long slot, long entry) {
+
+        segments[(int) (slot >>> SEGMENT_BITS)].putLong((int) (slot & (SEGMENT_ENTRIES - 1)) * Long.BYTES, entry);
+    }
+}
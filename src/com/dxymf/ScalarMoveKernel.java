@@ -0,0 +1,11 @@
+package com.dxymf;
+
+// One table lookup per piece, used if the Vector API isn't available
+public class ScalarMoveKernel implements MoveKernel {
+
+    public void apply(byte[] codes, int length, byte[] tables, int offset) {
+        for(int i = 0; i < length; i++) {
+            codes[i] = tables[offset + codes[i]];
+        }
+    }
+}
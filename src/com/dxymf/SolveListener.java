@@ -0,0 +1,9 @@
+package com.dxymf;
+
+// Receives progress events of a solve
+public interface SolveListener {
+
+    // Called when an iteration with a new bound starts
+    // exploredStates and elapsedMillis are the totals of the solve so far
+    void onIteration(int bound, long exploredStates, long elapsedMillis);
+}
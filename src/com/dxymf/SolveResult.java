@@ -0,0 +1,79 @@
+package com.dxymf;
+
+// Solution of one solve together with its statistics
+// Solves that were stopped before finding a solution have an empty solution and the lower bound reached
+public class SolveResult {
+
+    public enum Status {
+        SOLVED,
+        TIMED_OUT,             // The deadline passed
+        NODE_BUDGET_EXCEEDED,  // More states than the node budget were generated
+        CANCELLED,             // The cancellation token was cancelled
+        UNSOLVABLE             // No solution with at most 20 moves exists
+    }
+
+    private Status status;
+
+    // Moves of the solution without trailing nulls
+    private Move[] solution;
+
+    // The optimal solution has at least this many moves (the length of the solution if solved)
+    private int lowerBound;
+
+    // Number of states generated by the search
+    private long exploredStates;
+
+    // Time taken by the search alone and since the solve was submitted (including time in the queue)
+    private long solveNanos;
+    private long totalNanos;
+
+    public SolveResult(Status status, Move[] solution, int lowerBound, long exploredStates, long solveNanos, long totalNanos) {
+        this.status = status;
+        this.solution = solution;
+        this.lowerBound = lowerBound;
+        this.exploredStates = exploredStates;
+        this.solveNanos = solveNanos;
+        this.totalNanos = totalNanos;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+
+    public Move[] getSolution() {
+        return solution.clone();
+    }
+
+    public int getLength() {
+        return solution.length;
+    }
+
+    public int getLowerBound() {
+        return lowerBound;
+    }
+
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    public long getSolveNanos() {
+        return solveNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    // Solution in standard move notation (example: "R U' F2")
+    public String getSolutionString() {
+        String solutionString = "";
+        for(Move move : solution) {
+            solutionString += (solutionString.isEmpty() ? "" : " ") + move.toString();
+        }
+        return solutionString;
+    }
+}
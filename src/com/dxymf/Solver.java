@@ -1,50 +1,201 @@
 package com.dxymf;
 
+import java.util.Arrays;
 import java.util.PriorityQueue;
 import java.util.Stack;
 
-import com.dxymf.lut.CornerLUT;
-import com.dxymf.lut.EdgeLUT;
-import com.dxymf.lut.EdgePosLUT;
+import com.dxymf.lut.LUT;
 
 public class Solver {
 
     private static final int INFINITY = Integer.MAX_VALUE;
 
-    private CornerLUT cornerLUT;
-    private EdgeLUT edgeLUT1;
-    private EdgeLUT edgeLUT2;
-    private EdgePosLUT edgePosLUT;
+    // Length of solution can't be more than 20 (god's number)
+    private static final int MAX_DEPTH = 20;
 
-    public Solver(CornerLUT cLUT, EdgeLUT eLUT1, EdgeLUT eLUT2, EdgePosLUT ePosLUT) {
-        cornerLUT = cLUT;
-        edgeLUT1 = eLUT1;
-        edgeLUT2 = eLUT2;
-        edgePosLUT = ePosLUT;
+    // Number of generated states between checks of the deadline and the cancellation token
+    private static final long CHECK_INTERVAL = 1 << 14;
+
+    // The heuristic is the maximum of the values of all these LUTs
+    private LUT[] luts;
+
+    // Receives an event for every iteration, null -> no events
+    private SolveListener listener;
+
+    // The LUTs are also looked up on the state conjugated by each of these symmetries (see SymmetryTables)
+    // and on the inverse state if inverseLookups is set, all these values are lower bounds as well (Korf)
+    private int[] symmetries = new int[0];
+    private boolean inverseLookups;
+
+    // Number of nodes pruned by each extra lookup (symmetries in order, then the inverse)
+    // that the lookups on the state itself didn't prune
+    private long[] extraPrunes = new long[0];
+
+    // Lazy heuristic: the lookups are done one by one and stop at the first value that prunes the node
+    // Lookups are numbered like the values in Node.moveCounts (all LUTs on the state, then on each conjugate, then on the inverse)
+    private boolean lazyHeuristic;
+
+    // Order in which the lazy heuristic does the lookups, sorted by the rate at which they prune
+    private int[] lookupOrder = new int[0];
+
+    // Number of times each lookup was done and the number of times it was the one that pruned the node
+    private long[] lookupCounts = new long[0];
+    private long[] pruneCounts = new long[0];
+
+    // States expanded in the current iteration, null -> no duplicate pruning
+    // Only nodes up to transpositionDepth are stored, deeper nodes are too many and their subtrees too small
+    private TranspositionTable transpositionTable;
+    private int transpositionDepth;
+
+    // Only successors that keep the move sequence canonical are generated
+    private MoveAutomaton moveAutomaton = MoveAutomaton.SIMPLE;
+
+    // States close to the solved state with their exact distances, null -> no perimeter search
+    // Nodes outside of the perimeter are at least radius + 1 moves away and an iteration ends at the first node
+    // inside the perimeter that can be solved within the bound
+    private Perimeter perimeter;
+    private long perimeterHits;
+
+    public Solver(LUT... luts) {
+        this.luts = luts;
+    }
+
+    public void setListener(SolveListener listener) {
+        this.listener = listener;
+    }
+
+    // Add lookups on the conjugates of the states by these symmetries
+    public void setSymmetricLookups(int... symmetries) {
+        this.symmetries = symmetries.clone();
+    }
+
+    // Add lookups on the inverses of the states
+    // The values of the inverse aren't derived from the parent's values, so LUTs storing values mod 3 are searched
+    public void setInverseLookups(boolean inverseLookups) {
+        this.inverseLookups = inverseLookups;
+    }
+
+    // Stop the lookups of a node at the first value that prunes it, starting with the lookups that prune most often
+    // The values of pruned nodes are incomplete, but pruned nodes have no successors that would need them
+    // The next bound can be lower than with all lookups, which at most costs an iteration that prunes everything
+    public void setLazyHeuristic(boolean lazyHeuristic) {
+        this.lazyHeuristic = lazyHeuristic;
+    }
+
+    // Number of times each lookup was done in the last solve (indexed like Node.moveCounts)
+    public long[] getLookupCounts() {
+        return lookupCounts.clone();
+    }
+
+    // Number of nodes each lookup pruned in the last solve with the lazy heuristic (indexed like Node.moveCounts)
+    public long[] getPruneCounts() {
+        return pruneCounts.clone();
+    }
+
+    // Prune the moves with this automaton instead of the simple rules
+    public void setMoveAutomaton(MoveAutomaton moveAutomaton) {
+        this.moveAutomaton = moveAutomaton;
+    }
+
+    // Use a perimeter (null -> none), it can be shared by several solvers
+    public void setPerimeter(Perimeter perimeter) {
+        this.perimeter = perimeter;
+    }
+
+    // Number of nodes in the last solve that were found in the perimeter
+    public long getPerimeterHits() {
+        return perimeterHits;
+    }
+
+    // Cut off states that were already expanded in the same iteration with at least as many moves left
+    // using a table of at most memoryBytes, only nodes up to maxDepth are stored and checked
+    // memoryBytes 0 -> no transposition table
+    public void setTranspositionTable(long memoryBytes, int maxDepth) {
+        transpositionTable = (memoryBytes > 0) ? new TranspositionTable(memoryBytes) : null;
+        transpositionDepth = maxDepth;
+    }
+
+    // Number of nodes cut off by the transposition table in the last solve
+    public long getTranspositionHits() {
+        return (transpositionTable == null) ? 0 : transpositionTable.getHits();
+    }
+
+    // Number of nodes stored in the transposition table in the last solve
+    public long getTranspositionMisses() {
+        return (transpositionTable == null) ? 0 : transpositionTable.getMisses();
+    }
+
+    // Nodes pruned by each extra lookup in the last solve that wouldn't have been pruned without the extra lookups
+    // (symmetric lookups in the order they were set, then the inverse lookup)
+    public long[] getExtraPrunes() {
+        return extraPrunes.clone();
     }
 
     public Move[] solve(CubeState rootState) {
 
+        SolveResult result = solve(rootState, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+        // Moves of the solution followed by nulls
+        Move[] solutionPath = new Move[MAX_DEPTH];
+        System.arraycopy(result.getSolution(), 0, solutionPath, 0, result.getLength());
+
+        return solutionPath;
+    }
+
+    // Stop once the time is past deadline (System.currentTimeMillis())
+    public SolveResult solve(CubeState rootState, long deadline) {
+
+        return solve(rootState, deadline, Long.MAX_VALUE, null);
+    }
+
+    // Stop once the time is past deadline, more than nodeBudget states were generated or token (may be null) is cancelled
+    // In those cases the result has no solution but the bound of the iteration that was stopped
+    public SolveResult solve(CubeState rootState, long deadline, long nodeBudget, CancellationToken token) {
+
         System.out.println("Starting solving");
         long t1 = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
         
         // Array of moves to get to the current node and the solution once solving is complete
-        Move[] solutionPath = new Move[20]; // Length of solution can't be more than 20 (god's number)
+        Move[] solutionPath = new Move[MAX_DEPTH + 1]; // Length of solution can't be more than 20 (god's number)
 
         Stack<Node> stack = new Stack<>();
 
-        Node root = new Node(rootState, 0, 0, null);
+        Node root = new Node(rootState, 0, 0, null, moveCounts(rootState));
         Node currentNode;
 
         boolean solved = false;
 
+        // Why the solve was stopped, null while it isn't stopped
+        SolveResult.Status stopStatus = null;
+
         // Total number of states that have been generated
         long exploredStates = 0;
 
+        extraPrunes = new long[symmetries.length + (inverseLookups ? 1 : 0)];
+
+        if(transpositionTable != null) transpositionTable.resetCounters();
+        perimeterHits = 0;
+
+        int lookups = root.moveCounts.length;
+        lookupCounts = new long[lookups];
+        pruneCounts = new long[lookups];
+        lookupOrder = new int[lookups];
+        for(int i = 0; i < lookups; i++) {
+            lookupOrder[i] = i;
+        }
+
+        // Number of explored states at which the deadline and the token are checked next
+        long nextCheck = CHECK_INTERVAL;
+
         // Bound for the current iteration (0 to begin with because we haven't started the first iteration yet)
         int bound = 0;
         // Bound for the next iteration (Minimum of all pruned nodes' f-scores)
-        int nextBound = heuristic(root.state); // Here it is going to be the bound for the first iteration
+        int nextBound = max(root.moveCounts); // Here it is going to be the bound for the first iteration
+        if(perimeter != null) nextBound = Math.max(nextBound, perimeter.lowerBound(rootState));
+
+        // Number of moves of the solution, bound unless it ends inside the perimeter
+        int solutionLength = -1;
 
         while(!solved) {
             /*
@@ -58,8 +209,39 @@ public class Solver {
                 stack.push(root);
 
                 bound = nextBound;
+
+                // Every state can be solved in 20 moves, so there is no solution if the bound gets larger
+                if(bound > MAX_DEPTH) {
+                    stopStatus = SolveResult.Status.UNSOLVABLE;
+                    break;
+                }
+
                 System.out.println("New Iteration with bound: " + bound + " after " + (System.currentTimeMillis() - t1) + "ms");
+                if(listener != null) listener.onIteration(bound, exploredStates, System.currentTimeMillis() - t1);
                 nextBound = INFINITY;
+
+                // The remaining moves stored in the table are only comparable within one iteration
+                if(transpositionTable != null) transpositionTable.clear();
+            }
+
+            // Check the limits, the clock and the token only every CHECK_INTERVAL states because reading the clock is slow
+            if(exploredStates >= nodeBudget) {
+                stopStatus = SolveResult.Status.NODE_BUDGET_EXCEEDED;
+                break;
+            }
+            if(exploredStates >= nextCheck) {
+                nextCheck = exploredStates + CHECK_INTERVAL;
+
+                if(lazyHeuristic) sortLookupOrder();
+
+                if(token != null && token.isCancelled()) {
+                    stopStatus = SolveResult.Status.CANCELLED;
+                    break;
+                }
+                if(System.currentTimeMillis() >= deadline) {
+                    stopStatus = SolveResult.Status.TIMED_OUT;
+                    break;
+                }
             }
 
             currentNode = stack.pop();
@@ -74,25 +256,30 @@ public class Solver {
             if(currentNode.depth == bound) {
                 if(currentNode.state.isSolved()) {
                     solved = true;
+                    solutionLength = bound;
                 }
 
+            } else if(perimeter != null && (solutionLength = solveInPerimeter(currentNode, bound, solutionPath)) != -1) {
+                // The rest of the solution comes from the perimeter, it can't be shorter than bound
+                // because all shorter solutions would have been found in the previous iterations
+                solved = true;
+
+            } else if(isTransposition(currentNode, bound)) {
+                // The subtree of this node was already searched with at least as many moves left and had no solution
+                // Its pruned nodes also had f-scores that are at most as large, so nextBound doesn't change
+
             } else {
                 // PriorityQueue with the successors of currentNode so they can be ordered by their f-scores
                 PriorityQueue<Node> successors = new PriorityQueue<>();
 
                 // Apply all possible moves
                 for(byte moveType = 1; moveType <= 6; moveType++) {
-
-                    // Simple move pruning
-                    if(currentNode.prevMove != null) {
-                        // Don't repeat moves of the same type
-                        if(moveType == currentNode.prevMove.getType()) continue;
-                        // Only allow commutative moves in a certain order
-                        if((moveType <= 3) && (moveType == currentNode.prevMove.getType() - 3)) continue;
-                    }
-        
-                    // Apply moves that haven't been pruned
                     for(byte moveDirection = 1; moveDirection <= 3; moveDirection++) {
+
+                        // Move pruning, only moves that keep the sequence canonical are applied
+                        int automatonState = moveAutomaton.next(currentNode.automatonState, (moveType - 1) * 3 + moveDirection - 1);
+                        if(automatonState == MoveAutomaton.REJECTED) continue;
+
                         // Clone the current node
                         CubeState clonedState = currentNode.state.clone();
         
@@ -102,18 +289,41 @@ public class Solver {
 
                         exploredStates++;
 
+                        // Values of the LUTs are derived from the parent's values
+                        int[] moveCounts;
+                        int h;
+
+                        if(lazyHeuristic) {
+                            moveCounts = new int[currentNode.moveCounts.length];
+                            h = lazyMoveCounts(clonedState, currentNode.moveCounts, moveCounts, bound - currentNode.depth - 1);
+                        } else {
+                            moveCounts = moveCounts(clonedState, currentNode.moveCounts);
+                            h = max(moveCounts);
+
+                            for(int i = 0; i < moveCounts.length; i++) {
+                                lookupCounts[i]++;
+                            }
+                        }
+
+                        // Nodes outside of the perimeter are more than its radius away
+                        if(perimeter != null) h = Math.max(h, perimeter.lowerBound(clonedState));
+
                         // Calculate f-score
-                        int f = currentNode.depth + 1 + heuristic(clonedState);
+                        int f = currentNode.depth + 1 + h;
                         // Create a successor node with the cloned state
-                        Node successor = new Node(clonedState, currentNode.depth + 1, f, move);
+                        Node successor = new Node(clonedState, currentNode.depth + 1, f, move, moveCounts, automatonState);
 
                         // Check if the successors f-score exceeds the bound
                         if(f <= bound) {
                             // If not add it to the PriorityQueue so it can be added to the stack
                             successors.add(successor);
-                        } else if(f < nextBound) {
-                            // This results in nextBound being the minimum of all pruned nodes' f-scores
-                            nextBound = f;
+                        } else {
+                            if(f < nextBound) {
+                                // This results in nextBound being the minimum of all pruned nodes' f-scores
+                                nextBound = f;
+                            }
+
+                            if(!lazyHeuristic) countExtraPrunes(moveCounts, bound - currentNode.depth - 1);
                         }
                     }
                 }
@@ -125,15 +335,202 @@ public class Solver {
             }
         }
 
-        System.out.println("Time taken: " + (System.currentTimeMillis() - t1) + "ms");
+        long timeTaken = Math.max(1, System.currentTimeMillis() - t1);
+
+        System.out.println("Time taken: " + timeTaken + "ms");
         System.out.println("Explored states: " + exploredStates);
-        System.out.println("States per Second: " + (1000 * exploredStates / (System.currentTimeMillis() - t1)));
+        System.out.println("States per Second: " + (1000 * exploredStates / timeTaken));
 
-        return solutionPath;
+        for(int k = 0; k < symmetries.length; k++) {
+            System.out.println("Pruned by lookups on symmetry " + symmetries[k] + ": " + extraPrunes[k]);
+        }
+        if(inverseLookups) {
+            System.out.println("Pruned by lookups on the inverse: " + extraPrunes[symmetries.length]);
+        }
+        if(perimeter != null) {
+            System.out.println("Perimeter hits: " + perimeterHits);
+        }
+        if(transpositionTable != null) {
+            System.out.println("Transposition table hits: " + transpositionTable.getHits() + ", misses: " + transpositionTable.getMisses());
+        }
+        if(lazyHeuristic) {
+            for(int i = 0; i < lookupCounts.length; i++) {
+                System.out.println("Lookup " + i + " (LUT " + (i % luts.length) + "): " + lookupCounts[i] + " lookups, " + pruneCounts[i] + " prunes");
+            }
+        }
+
+        long solveNanos = System.nanoTime() - startNanos;
+
+        if(stopStatus != null) {
+            System.out.println("Stopped: " + stopStatus);
+
+            return new SolveResult(stopStatus, new Move[0], bound, exploredStates, solveNanos, solveNanos);
+        }
+
+        Move[] solution = new Move[solutionLength];
+        System.arraycopy(solutionPath, 0, solution, 0, solutionLength);
+
+        return new SolveResult(SolveResult.Status.SOLVED, solution, solutionLength, exploredStates, solveNanos, solveNanos);
+    }
+
+    // Exact values of all the LUTs, followed by the values for the conjugates and the inverse if those are looked up
+    private int[] moveCounts(CubeState state) {
+        int[] moveCounts = new int[luts.length * (1 + symmetries.length + (inverseLookups ? 1 : 0))];
+        for(int i = 0; i < luts.length; i++) {
+            moveCounts[i] = luts[i].getMoveCount(state);
+        }
+
+        for(int k = 0; k < symmetries.length; k++) {
+            CubeState conjugated = state.conjugate(symmetries[k]);
+
+            int offset = (1 + k) * luts.length;
+            for(int i = 0; i < luts.length; i++) {
+                moveCounts[offset + i] = luts[i].getMoveCount(conjugated);
+            }
+        }
+
+        if(inverseLookups) {
+            addInverseMoveCounts(state, moveCounts);
+        }
+        return moveCounts;
     }
 
-    private int heuristic(CubeState state) {
-        // Return the maximum of all the values of the LUTs
-        return Math.max(cornerLUT.getMoveCount(state), Math.max(edgeLUT1.getMoveCount(state), Math.max(edgeLUT2.getMoveCount(state), edgePosLUT.getMoveCount(state))));
+    // Exact values of all the LUTs for a successor of a state with parentMoveCounts
+    // The exact values are carried down the search path so LUTs that only store values mod 3 can be used
+    // A conjugate of the successor is a successor of the parent's conjugate, so its values are derived the same way
+    private int[] moveCounts(CubeState state, int[] parentMoveCounts) {
+        int[] moveCounts = new int[parentMoveCounts.length];
+        for(int i = 0; i < luts.length; i++) {
+            moveCounts[i] = luts[i].getMoveCount(state, parentMoveCounts[i]);
+        }
+
+        for(int k = 0; k < symmetries.length; k++) {
+            CubeState conjugated = state.conjugate(symmetries[k]);
+
+            int offset = (1 + k) * luts.length;
+            for(int i = 0; i < luts.length; i++) {
+                moveCounts[offset + i] = luts[i].getMoveCount(conjugated, parentMoveCounts[offset + i]);
+            }
+        }
+
+        if(inverseLookups) {
+            addInverseMoveCounts(state, moveCounts);
+        }
+        return moveCounts;
+    }
+
+    // The inverse of a successor isn't a successor of the parent's inverse (the move is applied on the other side)
+    // so the values of the inverse are looked up without the parent's values
+    private void addInverseMoveCounts(CubeState state, int[] moveCounts) {
+        CubeState inverse = state.inverse();
+
+        int offset = (1 + symmetries.length) * luts.length;
+        for(int i = 0; i < luts.length; i++) {
+            moveCounts[offset + i] = luts[i].getMoveCount(inverse);
+        }
+    }
+
+    // If the node is in the perimeter and can be solved within bound, completes solutionPath with the moves from the perimeter
+    // Returns the length of the solution or -1 if the node isn't in the perimeter or too far away
+    private int solveInPerimeter(Node node, int bound, Move[] solutionPath) {
+        int distance = perimeter.getDistance(node.state);
+        if(distance == Perimeter.OUTSIDE || node.depth + distance > bound) return -1;
+
+        perimeterHits++;
+
+        int[] moves = perimeter.pathToSolved(node.state);
+        if(moves == null) return -1;
+
+        for(int i = 0; i < moves.length; i++) {
+            solutionPath[node.depth + i] = Move.fromIndex(moves[i]);
+        }
+        solutionPath[node.depth + moves.length] = null;
+
+        return node.depth + moves.length;
+    }
+
+    // Whether the node's state was already expanded in this iteration with at least as many moves left, stores it otherwise
+    // The automaton state is part of the key because it decides which moves are pruned below the node
+    private boolean isTransposition(Node node, int bound) {
+        if(transpositionTable == null || node.depth > transpositionDepth) return false;
+
+        long key = node.state.longHash() + node.automatonState * 0x9E3779B97F4A7C15L;
+
+        return transpositionTable.checkAndStore(key, bound - node.depth);
+    }
+
+    // Lookups in lookupOrder until one of them is larger than remainingMoves, returns the largest value that was looked up
+    // moveCounts is filled with the values that were looked up
+    private int lazyMoveCounts(CubeState state, int[] parentMoveCounts, int[] moveCounts, int remainingMoves) {
+
+        // Conjugates and the inverse are only computed when a lookup needs them
+        CubeState[] states = new CubeState[moveCounts.length / luts.length];
+        states[0] = state;
+
+        int h = 0;
+        for(int lookup : lookupOrder) {
+            int kind = lookup / luts.length;
+            LUT lut = luts[lookup % luts.length];
+
+            if(states[kind] == null) {
+                states[kind] = (kind <= symmetries.length) ? state.conjugate(symmetries[kind - 1]) : state.inverse();
+            }
+
+            // The inverse isn't a successor of the parent's inverse, see addInverseMoveCounts
+            int moveCount = (kind <= symmetries.length) ? lut.getMoveCount(states[kind], parentMoveCounts[lookup]) : lut.getMoveCount(states[kind]);
+
+            moveCounts[lookup] = moveCount;
+            lookupCounts[lookup]++;
+            h = Math.max(h, moveCount);
+
+            if(moveCount > remainingMoves) {
+                pruneCounts[lookup]++;
+                break;
+            }
+        }
+        return h;
+    }
+
+    // Lookups that pruned the largest share of the nodes they were done for come first
+    private void sortLookupOrder() {
+        Integer[] order = new Integer[lookupOrder.length];
+        for(int i = 0; i < order.length; i++) {
+            order[i] = lookupOrder[i];
+        }
+
+        Arrays.sort(order, (a, b) -> Double.compare(pruneRate(b), pruneRate(a)));
+
+        for(int i = 0; i < order.length; i++) {
+            lookupOrder[i] = order[i];
+        }
+    }
+
+    private double pruneRate(int lookup) {
+        return (lookupCounts[lookup] == 0) ? 0 : (double) pruneCounts[lookup] / lookupCounts[lookup];
+    }
+
+    // Count the extra lookups that prune a node with the given values that the lookups on the state itself don't prune
+    private void countExtraPrunes(int[] moveCounts, int remainingMoves) {
+        if(max(moveCounts, 0, luts.length) > remainingMoves) return;
+
+        for(int k = 0; k < extraPrunes.length; k++) {
+            if(max(moveCounts, (1 + k) * luts.length, (2 + k) * luts.length) > remainingMoves) {
+                extraPrunes[k]++;
+            }
+        }
+    }
+
+    // Heuristic is the maximum of all the values of the LUTs
+    private static int max(int[] moveCounts) {
+        return max(moveCounts, 0, moveCounts.length);
+    }
+
+    // Maximum of moveCounts[from] to moveCounts[to - 1]
+    private static int max(int[] moveCounts, int from, int to) {
+        int h = 0;
+        for(int i = from; i < to; i++) {
+            h = Math.max(h, moveCounts[i]);
+        }
+        return h;
     }
 }
@@ -0,0 +1,159 @@
+package com.dxymf;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.dxymf.lut.LUT;
+
+// Solves many cubes on a fixed pool of threads that all share one set of loaded LUTs
+// Every thread has its own FastSolver because those keep the cube they work on as state
+// LUTs are only read while solving so sharing them between threads needs no synchronization
+// The LUTs are passed in already loaded (e.g. with LUTFile.loadAll), so the service never loads a LUT itself
+// Solves are always optimal, near-optimal solves with the two-phase algorithm use a TwoPhaseSolver directly
+public class SolverService implements AutoCloseable {
+
+    private LUT[] luts;
+
+    private ExecutorService executor;
+    private ThreadLocal<FastSolver> solvers;
+
+    // Aggregate statistics of all finished solves
+    private LongAdder solvedCount = new LongAdder();
+    private LongAdder exploredStates = new LongAdder();
+    private LongAdder solveNanos = new LongAdder();
+
+    // Time of the first submit and of the last finished solve (System.nanoTime(), 0 -> not yet)
+    private AtomicLong firstSubmitNanos = new AtomicLong();
+    private AtomicLong lastFinishNanos = new AtomicLong();
+
+    public SolverService(LUT[] luts, int threads) {
+        this.luts = luts.clone();
+
+        executor = Executors.newFixedThreadPool(threads);
+
+        solvers = ThreadLocal.withInitial(() -> {
+            FastSolver solver = new FastSolver(this.luts);
+            solver.setVerbose(false);
+            return solver;
+        });
+    }
+
+    public SolverService(LUT[] luts) {
+        this(luts, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    // Solve state on the pool, the state is copied so the caller can keep using it
+    public Future<SolveResult> submit(CubeState state) {
+
+        return submit(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+    }
+
+
+    // Same as submit(state) but the solve stops once the time is past deadline (System.currentTimeMillis()),
+    // more than nodeBudget states were generated or token (may be null) is cancelled
+    // The deadline also counts the time the solve waits in the queue
+    public Future<SolveResult> submit(CubeState state, long deadline, long nodeBudget, CancellationToken token) {
+
+        CubeState rootState = state.clone();
+        long submitNanos = System.nanoTime();
+
+        firstSubmitNanos.compareAndSet(0, submitNanos);
+
+        return executor.submit(() -> solve(rootState, deadline, nodeBudget, token, submitNanos));
+    }
+
+
+    // Solve all states, the futures are in the same order as the states
+    public List<Future<SolveResult>> submitAll(Collection<CubeState> states) {
+
+        List<Future<SolveResult>> results = new ArrayList<>(states.size());
+        for(CubeState state : states) {
+            results.add(submit(state));
+        }
+        return results;
+    }
+
+    public List<Future<SolveResult>> submitAll(Stream<CubeState> states) {
+
+        return states.map(this::submit).collect(Collectors.toList());
+    }
+
+
+    private SolveResult solve(CubeState state, long deadline, long nodeBudget, CancellationToken token, long submitNanos) {
+
+        SolveResult result = solvers.get().solve(state, deadline, nodeBudget, token);
+
+        long finishNanos = System.nanoTime();
+
+        solvedCount.increment();
+        exploredStates.add(result.getExploredStates());
+        solveNanos.add(result.getSolveNanos());
+        lastFinishNanos.accumulateAndGet(finishNanos, Math::max);
+
+        return new SolveResult(result.getStatus(), result.getSolution(), result.getLowerBound(), result.getExploredStates(), result.getSolveNanos(), finishNanos - submitNanos);
+    }
+
+
+    // Number of finished solves (including the ones that were stopped)
+    public long getSolvedCount() {
+        return solvedCount.sum();
+    }
+
+    // Number of states generated by all finished solves
+    public long getExploredStates() {
+        return exploredStates.sum();
+    }
+
+    // Finished solves per second of wall time from the first submit to the last finished solve
+    public double getSolvesPerSecond() {
+        return perSecond(solvedCount.sum());
+    }
+
+    // Generated states per second of wall time from the first submit to the last finished solve
+    public double getStatesPerSecond() {
+        return perSecond(exploredStates.sum());
+    }
+
+    // Average time a solve took without the time it waited in the queue
+    public double getAverageSolveMillis() {
+        long count = solvedCount.sum();
+        return (count == 0) ? 0 : solveNanos.sum() / 1e6 / count;
+    }
+
+    private double perSecond(long amount) {
+        long wallNanos = lastFinishNanos.get() - firstSubmitNanos.get();
+        return (wallNanos <= 0) ? 0 : amount * 1e9 / wallNanos;
+    }
+
+
+    public void printThroughput() {
+        System.out.println("Solved cubes: " + getSolvedCount());
+        System.out.println("Solves per Second: " + String.format("%.2f", getSolvesPerSecond()));
+        System.out.println("States per Second: " + String.format("%.0f", getStatesPerSecond()));
+        System.out.println("Average solve time: " + String.format("%.1f", getAverageSolveMillis()) + "ms");
+    }
+
+
+    // Finish the submitted solves and stop the threads
+    // If the calling thread is interrupted while waiting the remaining solves are cancelled and the interrupt flag is set again
+    public void close() {
+        executor.shutdown();
+
+        try{
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch(InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
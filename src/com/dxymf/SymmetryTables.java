@@ -0,0 +1,329 @@
+package com.dxymf;
+
+import java.util.Arrays;
+
+// Precomputed tables for the 48 symmetries of the cube (24 rotations, each with and without a reflection)
+// Conjugating a state by a symmetry (S * state * S^-1) gives a state that needs the same number of moves
+// because every move conjugated by a symmetry is a move again, so LUT values can be shared between them
+// Symmetries are given by a signed permutation of the axes x (R), y (U), z (F), symmetry 0 is the identity
+public class SymmetryTables {
+
+    public static final int SYMMETRY_COUNT = 48;
+
+    // Piece at position p (or piece p of the solved cube) is moved to SYMMETRY_CORNERS[s * 8 + p] by symmetry s
+    public static final byte[] SYMMETRY_CORNERS = new byte[SYMMETRY_COUNT * 8];
+    // Same for edges
+    public static final byte[] SYMMETRY_EDGES = new byte[SYMMETRY_COUNT * 12];
+
+    // Orientation after conjugating by symmetry s of corner i at position p with orientation o:
+    // CORNER_ORIENTATIONS[((s * 8 + i) * 8 + p) * 3 + o]
+    public static final byte[] CORNER_ORIENTATIONS = new byte[SYMMETRY_COUNT * 8 * 8 * 3];
+    // Same for edges: EDGE_ORIENTATIONS[((s * 12 + i) * 12 + p) * 2 + o]
+    public static final byte[] EDGE_ORIENTATIONS = new byte[SYMMETRY_COUNT * 12 * 12 * 2];
+
+    // Orientation of piece p at position i in the inverse of a state where piece i is at position p with orientation o:
+    // INVERSE_CORNER_ORIENTATIONS[(i * 8 + p) * 3 + o] and INVERSE_EDGE_ORIENTATIONS[(i * 12 + p) * 2 + o]
+    // The piece is turned by the inverse of its rotation, so these are computed the same way as the conjugations
+    public static final byte[] INVERSE_CORNER_ORIENTATIONS = new byte[8 * 8 * 3];
+    public static final byte[] INVERSE_EDGE_ORIENTATIONS = new byte[12 * 12 * 2];
+
+    // Orientation of a corner at position p with orientation o after applying a state that turns corner p
+    // from its solved position to position q with orientation r: COMPOSED_CORNER_ORIENTATIONS[((p * 8 + q) * 3 + r) * 3 + o]
+    // The corner is turned by the same rotation as corner p in that state, the 18 moves are states like that (see MoveTables)
+    public static final byte[] COMPOSED_CORNER_ORIENTATIONS = new byte[8 * 8 * 3 * 3];
+    // Same for edges: COMPOSED_EDGE_ORIENTATIONS[((p * 12 + q) * 2 + r) * 2 + o]
+    public static final byte[] COMPOSED_EDGE_ORIENTATIONS = new byte[12 * 12 * 2 * 2];
+
+    // Index of the symmetry that undoes symmetry s
+    private static final byte[] INVERSES = new byte[SYMMETRY_COUNT];
+
+    // Index of the symmetry a * b (b first, then a): PRODUCTS[a * SYMMETRY_COUNT + b]
+    private static final byte[] PRODUCTS = new byte[SYMMETRY_COUNT * SYMMETRY_COUNT];
+
+    // Coordinates of the corner and edge positions (x -> R, y -> U, z -> F)
+    private static final int[][] CORNER_VECTORS = {
+        {-1, 1, -1}, {1, 1, -1}, {1, 1, 1}, {-1, 1, 1}, {-1, -1, -1}, {1, -1, -1}, {1, -1, 1}, {-1, -1, 1}
+    };
+    private static final int[][] EDGE_VECTORS = {
+        {0, 1, -1}, {1, 1, 0}, {0, 1, 1}, {-1, 1, 0},
+        {-1, 0, -1}, {1, 0, -1}, {1, 0, 1}, {-1, 0, 1},
+        {0, -1, -1}, {1, -1, 0}, {0, -1, 1}, {-1, -1, 0}
+    };
+
+    // Axis of the sticker a corner orientation stands for (orientation 0 -> y, 1 -> z, 2 -> x)
+    private static final int[] CORNER_ORIENTATION_AXES = {1, 2, 0};
+
+    // Matrices of all symmetries and of the 24 rotations a piece can be turned by
+    private static final int[][][] SYMMETRIES = new int[SYMMETRY_COUNT][][];
+    private static final int[][][] ROTATIONS = new int[24][][];
+
+    static {
+        int[][] axisPermutations = {{0, 1, 2}, {0, 2, 1}, {1, 0, 2}, {1, 2, 0}, {2, 0, 1}, {2, 1, 0}};
+
+        int rotationCount = 0;
+        for(int permutation = 0; permutation < 6; permutation++) {
+            for(int signs = 0; signs < 8; signs++) {
+                int[][] matrix = new int[3][3];
+                for(int row = 0; row < 3; row++) {
+                    matrix[row][axisPermutations[permutation][row]] = ((signs >> row) & 1) == 0 ? 1 : -1;
+                }
+
+                SYMMETRIES[permutation * 8 + signs] = matrix;
+                if(determinant(matrix) == 1) ROTATIONS[rotationCount++] = matrix;
+            }
+        }
+
+        for(int i = 0; i < 8; i++) {
+            for(int p = 0; p < 8; p++) {
+                for(int o = 0; o < 3; o++) {
+                    int[][] rotation = findCornerRotation(i, p, o);
+                    if(rotation != null) INVERSE_CORNER_ORIENTATIONS[(i * 8 + p) * 3 + o] = (byte) cornerOrientation(transpose(rotation));
+                }
+            }
+        }
+        for(int i = 0; i < 12; i++) {
+            for(int p = 0; p < 12; p++) {
+                for(int o = 0; o < 2; o++) {
+                    int[][] rotation = findEdgeRotation(i, p, o);
+                    if(rotation != null) INVERSE_EDGE_ORIENTATIONS[(i * 12 + p) * 2 + o] = (byte) edgeOrientation(transpose(rotation), p);
+                }
+            }
+        }
+
+        // A corner at position p with orientation o is turned like corner p by a rotation that keeps it at p
+        for(int p = 0; p < 8; p++) {
+            for(int q = 0; q < 8; q++) {
+                for(int r = 0; r < 3; r++) {
+                    int[][] rotation = findCornerRotation(p, q, r);
+                    if(rotation == null) continue;
+
+                    for(int o = 0; o < 3; o++) {
+                        int[][] current = findCornerRotation(p, p, o);
+                        COMPOSED_CORNER_ORIENTATIONS[((p * 8 + q) * 3 + r) * 3 + o] = (byte) cornerOrientation(multiply(rotation, current));
+                    }
+                }
+            }
+        }
+        for(int p = 0; p < 12; p++) {
+            for(int q = 0; q < 12; q++) {
+                for(int r = 0; r < 2; r++) {
+                    int[][] rotation = findEdgeRotation(p, q, r);
+                    if(rotation == null) continue;
+
+                    for(int o = 0; o < 2; o++) {
+                        int[][] current = findEdgeRotation(p, p, o);
+                        COMPOSED_EDGE_ORIENTATIONS[((p * 12 + q) * 2 + r) * 2 + o] = (byte) edgeOrientation(multiply(rotation, current), p);
+                    }
+                }
+            }
+        }
+
+        for(int s = 0; s < SYMMETRY_COUNT; s++) {
+            int[][] matrix = SYMMETRIES[s];
+            int[][] inverse = transpose(matrix);
+
+            for(int t = 0; t < SYMMETRY_COUNT; t++) {
+                if(Arrays.deepEquals(SYMMETRIES[t], inverse)) INVERSES[s] = (byte) t;
+
+                int[][] product = multiply(matrix, SYMMETRIES[t]);
+                for(int u = 0; u < SYMMETRY_COUNT; u++) {
+                    if(Arrays.deepEquals(SYMMETRIES[u], product)) PRODUCTS[s * SYMMETRY_COUNT + t] = (byte) u;
+                }
+            }
+
+            for(int p = 0; p < 8; p++) {
+                SYMMETRY_CORNERS[s * 8 + p] = (byte) find(CORNER_VECTORS, multiply(matrix, CORNER_VECTORS[p]));
+            }
+            for(int p = 0; p < 12; p++) {
+                SYMMETRY_EDGES[s * 12 + p] = (byte) find(EDGE_VECTORS, multiply(matrix, EDGE_VECTORS[p]));
+            }
+
+            // The piece is turned by a rotation R from its solved position to its current one,
+            // in the conjugated state the piece is turned by S * R * S^-1
+            for(int i = 0; i < 8; i++) {
+                for(int p = 0; p < 8; p++) {
+                    for(int o = 0; o < 3; o++) {
+                        int[][] rotation = findCornerRotation(i, p, o);
+                        if(rotation == null) continue;
+
+                        int[][] conjugated = multiply(multiply(matrix, rotation), inverse);
+                        CORNER_ORIENTATIONS[((s * 8 + i) * 8 + p) * 3 + o] = (byte) cornerOrientation(conjugated);
+                    }
+                }
+            }
+            for(int i = 0; i < 12; i++) {
+                for(int p = 0; p < 12; p++) {
+                    for(int o = 0; o < 2; o++) {
+                        int[][] rotation = findEdgeRotation(i, p, o);
+                        if(rotation == null) continue;
+
+                        int[][] conjugated = multiply(multiply(matrix, rotation), inverse);
+                        int j = SYMMETRY_EDGES[s * 12 + i];
+                        EDGE_ORIENTATIONS[((s * 12 + i) * 12 + p) * 2 + o] = (byte) edgeOrientation(conjugated, j);
+                    }
+                }
+            }
+        }
+    }
+
+    // Write the inverse of the state into the output arrays (which must not be the input arrays)
+    // Piece i at position p becomes piece p at position i
+    public static void invert(byte[] cP, byte[] cO, byte[] eP, byte[] eO, byte[] outCP, byte[] outCO, byte[] outEP, byte[] outEO) {
+
+        for(int i = 0; i < 8; i++) {
+            outCP[cP[i]] = (byte) i;
+            outCO[cP[i]] = INVERSE_CORNER_ORIENTATIONS[(i * 8 + cP[i]) * 3 + cO[i]];
+        }
+
+        for(int i = 0; i < 12; i++) {
+            outEP[eP[i]] = (byte) i;
+            outEO[eP[i]] = INVERSE_EDGE_ORIENTATIONS[(i * 12 + eP[i]) * 2 + eO[i]];
+        }
+    }
+
+    // Write the state a followed by the state b into the output arrays (which must not be the input arrays)
+    // Every piece of a is moved and turned like the piece of the solved cube at the same position is moved and turned by b
+    public static void compose(byte[] aCP, byte[] aCO, byte[] aEP, byte[] aEO, byte[] bCP, byte[] bCO, byte[] bEP, byte[] bEO,
+                               byte[] outCP, byte[] outCO, byte[] outEP, byte[] outEO) {
+
+        for(int i = 0; i < 8; i++) {
+            int p = aCP[i];
+
+            outCP[i] = bCP[p];
+            outCO[i] = COMPOSED_CORNER_ORIENTATIONS[((p * 8 + bCP[p]) * 3 + bCO[p]) * 3 + aCO[i]];
+        }
+
+        for(int i = 0; i < 12; i++) {
+            int p = aEP[i];
+
+            outEP[i] = bEP[p];
+            outEO[i] = COMPOSED_EDGE_ORIENTATIONS[((p * 12 + bEP[p]) * 2 + bEO[p]) * 2 + aEO[i]];
+        }
+    }
+
+    // Index of the symmetry that undoes symmetry s
+    public static int inverse(int s) {
+        return INVERSES[s];
+    }
+
+    // Symmetry that has the same effect as conjugating by b and then by a
+    public static int product(int a, int b) {
+        return PRODUCTS[a * SYMMETRY_COUNT + b];
+    }
+
+    // Whether symmetry s is a rotation (the other 24 include a reflection)
+    public static boolean isRotation(int s) {
+        return determinant(SYMMETRIES[s]) == 1;
+    }
+
+    // Write S * state * S^-1 into the output arrays (which must not be the input arrays)
+    public static void conjugate(byte[] cP, byte[] cO, byte[] eP, byte[] eO, int s, byte[] outCP, byte[] outCO, byte[] outEP, byte[] outEO) {
+
+        int cornerOffset = s * 8;
+        for(int i = 0; i < 8; i++) {
+            int j = SYMMETRY_CORNERS[cornerOffset + i];
+
+            outCP[j] = SYMMETRY_CORNERS[cornerOffset + cP[i]];
+            outCO[j] = CORNER_ORIENTATIONS[((cornerOffset + i) * 8 + cP[i]) * 3 + cO[i]];
+        }
+
+        int edgeOffset = s * 12;
+        for(int i = 0; i < 12; i++) {
+            int j = SYMMETRY_EDGES[edgeOffset + i];
+
+            outEP[j] = SYMMETRY_EDGES[edgeOffset + eP[i]];
+            outEO[j] = EDGE_ORIENTATIONS[((edgeOffset + i) * 12 + eP[i]) * 2 + eO[i]];
+        }
+    }
+
+    // Rotation that turns corner i from its solved position to position p with orientation o
+    private static int[][] findCornerRotation(int i, int p, int o) {
+        for(int[][] rotation : ROTATIONS) {
+            if(find(CORNER_VECTORS, multiply(rotation, CORNER_VECTORS[i])) == p && cornerOrientation(rotation) == o) return rotation;
+        }
+        return null;
+    }
+
+    // Rotation that turns edge i from its solved position to position p with orientation o
+    private static int[][] findEdgeRotation(int i, int p, int o) {
+        for(int[][] rotation : ROTATIONS) {
+            if(find(EDGE_VECTORS, multiply(rotation, EDGE_VECTORS[i])) == p && edgeOrientation(rotation, i) == o) return rotation;
+        }
+        return null;
+    }
+
+    // A corner's orientation is the axis its U/D sticker points along after the rotation
+    private static int cornerOrientation(int[][] rotation) {
+        int[] sticker = multiply(rotation, new int[] {0, 1, 0});
+
+        for(int o = 0; o < 3; o++) {
+            if(sticker[CORNER_ORIENTATION_AXES[o]] != 0) return o;
+        }
+        return -1;
+    }
+
+    // An edge's reference sticker is its U/D sticker (or F/B sticker for edges of the middle layer)
+    // The edge is oriented (0) if the reference sticker is on the reference face of the position it is moved to
+    // This is the orientation that only F and B quarter turns change
+    private static int edgeOrientation(int[][] rotation, int i) {
+        int[] sticker = multiply(rotation, referenceAxis(EDGE_VECTORS[i]));
+        int[] position = multiply(rotation, EDGE_VECTORS[i]);
+
+        int[] reference = referenceAxis(position);
+        for(int axis = 0; axis < 3; axis++) {
+            if(reference[axis] != 0) return (sticker[axis] != 0) ? 0 : 1;
+        }
+        return -1;
+    }
+
+    // Direction of the reference sticker of an edge at the given coordinates
+    private static int[] referenceAxis(int[] position) {
+        if(position[1] != 0) return new int[] {0, position[1], 0};
+        return new int[] {0, 0, position[2]};
+    }
+
+    private static int find(int[][] vectors, int[] vector) {
+        for(int i = 0; i < vectors.length; i++) {
+            if(Arrays.equals(vectors[i], vector)) return i;
+        }
+        return -1;
+    }
+
+    private static int[] multiply(int[][] matrix, int[] vector) {
+        int[] result = new int[3];
+        for(int row = 0; row < 3; row++) {
+            for(int k = 0; k < 3; k++) {
+                result[row] += matrix[row][k] * vector[k];
+            }
+        }
+        return result;
+    }
+
+    private static int[][] multiply(int[][] a, int[][] b) {
+        int[][] result = new int[3][3];
+        for(int row = 0; row < 3; row++) {
+            for(int column = 0; column < 3; column++) {
+                for(int k = 0; k < 3; k++) {
+                    result[row][column] += a[row][k] * b[k][column];
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int[][] transpose(int[][] matrix) {
+        int[][] result = new int[3][3];
+        for(int row = 0; row < 3; row++) {
+            for(int column = 0; column < 3; column++) {
+                result[row][column] = matrix[column][row];
+            }
+        }
+        return result;
+    }
+
+    private static int determinant(int[][] m) {
+        return m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+             - m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+             + m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+    }
+}
@@ -0,0 +1,77 @@
+package com.dxymf;
+
+import java.util.Arrays;
+
+// Fixed size table of states that were already expanded in the current IDA* iteration and the number of moves
+// that were left when they were expanded, so the same state reached through a different move order can be cut off
+// The table is lossy: a new state replaces whatever was stored in its slot, so memory use never grows
+public class TranspositionTable {
+
+    // Bytes per entry (key and remaining moves)
+    private static final int ENTRY_BYTES = 9;
+
+    // Hash of the stored state in each slot, 0 -> empty
+    private long[] keys;
+    // Moves that were left when the state was expanded
+    private byte[] remainingMoves;
+
+    private int mask;
+
+    private long hits;
+    private long misses;
+
+    // Table with the largest power of two number of entries that fits into memoryBytes
+    public TranspositionTable(long memoryBytes) {
+        long entries = Long.highestOneBit(Math.max(1, memoryBytes / ENTRY_BYTES));
+
+        if(entries > (1 << 30)) entries = 1 << 30;
+
+        keys = new long[(int) entries];
+        remainingMoves = new byte[(int) entries];
+        mask = (int) entries - 1;
+    }
+
+    // Whether the state with key was already expanded with at least remaining moves left (hit)
+    // Otherwise the state is stored with remaining moves (miss)
+    public boolean checkAndStore(long key, int remaining) {
+
+        // 0 marks empty slots
+        if(key == 0) key = 1;
+
+        int slot = (int) (key ^ (key >>> 32)) & mask;
+
+        if(keys[slot] == key && remainingMoves[slot] >= remaining) {
+            hits++;
+            return true;
+        }
+
+        keys[slot] = key;
+        remainingMoves[slot] = (byte) remaining;
+        misses++;
+
+        return false;
+    }
+
+    // Forget all states, needed at the start of every iteration because the bound changes
+    public void clear() {
+        Arrays.fill(keys, 0);
+    }
+
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    // Number of entries
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,239 @@
+package com.dxymf;
+
+import com.dxymf.lut.TwoPhaseTables;
+
+// Near-optimal solver using Kociemba's two-phase algorithm
+// Phase 1 searches move sequences that bring the cube into the subgroup <U, D, R2, L2, F2, B2>
+// and phase 2 solves the cube from there with only those moves
+// Phase 1 solutions of increasing length keep being tried so the solution keeps getting shorter
+// until it is short enough or the time limit is reached
+public class TwoPhaseSolver {
+
+    // Two-phase solutions are never longer than 30 moves (12 for phase 1 and 18 for phase 2)
+    private static final int MAX_LENGTH = 30;
+
+    // Phase 1 never needs more than 20 moves
+    private static final int MAX_PHASE1_LENGTH = 20;
+
+    // Number of generated states between checks of the time limit
+    private static final long CHECK_INTERVAL = 1 << 12;
+
+    // Move pruning in both phases and across the switch from phase 1 to phase 2
+    // Only the simple rules, a longer automaton could reject a sequence that is only found with another split into the two phases
+    private static final MoveAutomaton MOVE_AUTOMATON = MoveAutomaton.SIMPLE;
+
+    private TwoPhaseTables tables;
+
+    // Print every improved solution and the statistics of every solve
+    private boolean verbose = true;
+
+    // The cube being solved
+    private byte[] cornerPositions;
+    private byte[] cornerOrientations;
+    private byte[] edgePositions;
+    private byte[] edgeOrientations;
+
+    // Moves of phase 1 followed by the moves of phase 2
+    private byte[] path = new byte[MAX_LENGTH];
+
+    // Best solution so far, bestLength is MAX_LENGTH + 1 until one is found
+    private byte[] bestPath = new byte[MAX_LENGTH];
+    private int bestLength;
+
+    // Stop once a solution with at most this many moves is found
+    private int targetLength;
+
+    private long deadline;
+    private long nextCheck;
+    private boolean timedOut;
+
+    private long exploredStates;
+    private long t1;
+
+    public TwoPhaseSolver(TwoPhaseTables tables) {
+        this.tables = tables;
+    }
+
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    // Solve with at most targetLength moves if possible, otherwise return the shortest solution found within timeLimitMillis
+    // The result is only TIMED_OUT if no solution at all was found in time
+    public SolveResult solve(CubeState rootState, int targetLength, long timeLimitMillis) {
+
+        if(verbose) System.out.println("Starting two-phase solving");
+        t1 = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+
+        cornerPositions = rootState.getCornerPositions();
+        cornerOrientations = rootState.getCornerOrientations();
+        edgePositions = rootState.getEdgePositions();
+        edgeOrientations = rootState.getEdgeOrientations();
+
+        this.targetLength = targetLength;
+        deadline = t1 + timeLimitMillis;
+        nextCheck = CHECK_INTERVAL;
+        timedOut = false;
+        exploredStates = 0;
+        bestLength = MAX_LENGTH + 1;
+
+        int cornerOrientationsCoordinate = TwoPhaseTables.cornerOrientations(cornerPositions, cornerOrientations);
+        int edgeOrientationsCoordinate = TwoPhaseTables.edgeOrientations(edgePositions, edgeOrientations);
+        int slicePositionsCoordinate = TwoPhaseTables.slicePositions(edgePositions);
+
+        // Getting into the subgroup is part of every solution, so this is also a lower bound for the optimal solution
+        int lowerBound = tables.phase1Distance(cornerOrientationsCoordinate, edgeOrientationsCoordinate, slicePositionsCoordinate);
+
+        // Longer phase 1 solutions can only give a shorter solution if they are shorter than the best solution
+        for(int bound = lowerBound; bound < bestLength && bound <= MAX_PHASE1_LENGTH; bound++) {
+            if(phase1(cornerOrientationsCoordinate, edgeOrientationsCoordinate, slicePositionsCoordinate, 0, bound, MoveAutomaton.START)) break;
+        }
+
+        long solveNanos = System.nanoTime() - startNanos;
+
+        if(verbose) {
+            System.out.println("Time taken: " + (solveNanos / 1000000) + "ms");
+            System.out.println("Explored states: " + exploredStates);
+        }
+
+        if(bestLength > MAX_LENGTH) {
+            SolveResult.Status status = timedOut ? SolveResult.Status.TIMED_OUT : SolveResult.Status.UNSOLVABLE;
+            return new SolveResult(status, new Move[0], lowerBound, exploredStates, solveNanos, solveNanos);
+        }
+
+        Move[] solution = new Move[bestLength];
+        for(int i = 0; i < bestLength; i++) {
+            solution[i] = Move.fromIndex(bestPath[i]);
+        }
+
+        // Like the other solvers the lower bound of a solved result is the length of the solution
+        return new SolveResult(SolveResult.Status.SOLVED, solution, bestLength, exploredStates, solveNanos, solveNanos);
+    }
+
+
+    // Phase 1 search for sequences of exactly bound moves into the subgroup, every one of them is passed on to phase 2
+    // Returns true if the search is done (target length reached or time is up)
+    // automatonState is the state of MOVE_AUTOMATON after the moves in path
+    private boolean phase1(int cornerOrientations, int edgeOrientations, int slicePositions, int depth, int bound, int automatonState) {
+
+        if(depth == bound) {
+            // The successor was only searched if its distance to the subgroup allows reaching it in bound moves
+            // so the cube is in the subgroup here
+            // If the last move is a subgroup move the cube was already in the subgroup before it, that was tried with a lower bound
+            if(depth > 0 && isPhase2Move(path[depth - 1])) return false;
+
+            return phase2Start(depth, automatonState);
+        }
+
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            int nextAutomatonState = MOVE_AUTOMATON.next(automatonState, m);
+
+            if(nextAutomatonState == MoveAutomaton.REJECTED) continue;
+
+            exploredStates++;
+
+            int newCornerOrientations = tables.moveCornerOrientations(cornerOrientations, m);
+            int newEdgeOrientations = tables.moveEdgeOrientations(edgeOrientations, m);
+            int newSlicePositions = tables.moveSlicePositions(slicePositions, m);
+
+            if(depth + 1 + tables.phase1Distance(newCornerOrientations, newEdgeOrientations, newSlicePositions) > bound) continue;
+
+            path[depth] = (byte) m;
+
+            if(phase1(newCornerOrientations, newEdgeOrientations, newSlicePositions, depth + 1, bound, nextAutomatonState)) return true;
+        }
+
+        return timeIsUp();
+    }
+
+
+    // Phase 2 for the cube after the phase 1 moves in path[0, phase1Length)
+    // Only solutions shorter than the best one are searched
+    private boolean phase2Start(int phase1Length, int automatonState) {
+
+        // Apply the phase 1 moves to a copy of the cube
+        byte[] cP = cornerPositions.clone();
+        byte[] cO = cornerOrientations.clone();
+        byte[] eP = edgePositions.clone();
+        byte[] eO = edgeOrientations.clone();
+
+        for(int i = 0; i < phase1Length; i++) {
+            MoveTables.applyMove(cP, cO, eP, eO, path[i]);
+        }
+
+        int cornerPermutation = TwoPhaseTables.cornerPermutation(cP);
+        int edgePermutation = TwoPhaseTables.edgePermutation(eP);
+        int slicePermutation = TwoPhaseTables.slicePermutation(eP);
+
+        int maxPhase2Length = Math.min(bestLength - 1, MAX_LENGTH) - phase1Length;
+
+        for(int bound = tables.phase2Distance(cornerPermutation, edgePermutation, slicePermutation); bound <= maxPhase2Length; bound++) {
+
+            if(phase2(cornerPermutation, edgePermutation, slicePermutation, phase1Length, phase1Length + bound, automatonState)) {
+                bestLength = phase1Length + bound;
+                System.arraycopy(path, 0, bestPath, 0, bestLength);
+
+                if(verbose) System.out.println("Found solution with " + bestLength + " moves (" + phase1Length + " + " + bound + ") after " + (System.currentTimeMillis() - t1) + "ms");
+
+                return bestLength <= targetLength;
+            }
+
+            if(timedOut) return true;
+        }
+
+        return false;
+    }
+
+
+    // Phase 2 search for sequences of subgroup moves that solve the cube with exactly bound moves in total
+    private boolean phase2(int cornerPermutation, int edgePermutation, int slicePermutation, int depth, int bound, int automatonState) {
+
+        if(depth == bound) {
+            // Distance 0 only for the solved cube
+            return tables.phase2Distance(cornerPermutation, edgePermutation, slicePermutation) == 0;
+        }
+
+        for(int i = 0; i < TwoPhaseTables.PHASE2_MOVES.length; i++) {
+            int m = TwoPhaseTables.PHASE2_MOVES[i];
+            int nextAutomatonState = MOVE_AUTOMATON.next(automatonState, m);
+
+            if(nextAutomatonState == MoveAutomaton.REJECTED) continue;
+
+            exploredStates++;
+
+            int newCornerPermutation = tables.moveCornerPermutation(cornerPermutation, i);
+            int newEdgePermutation = tables.moveEdgePermutation(edgePermutation, i);
+            int newSlicePermutation = tables.moveSlicePermutation(slicePermutation, i);
+
+            if(depth + 1 + tables.phase2Distance(newCornerPermutation, newEdgePermutation, newSlicePermutation) > bound) continue;
+
+            path[depth] = (byte) m;
+
+            if(phase2(newCornerPermutation, newEdgePermutation, newSlicePermutation, depth + 1, bound, nextAutomatonState)) return true;
+
+            if(timedOut) return false;
+        }
+
+        timeIsUp();
+
+        return false;
+    }
+
+
+    private static boolean isPhase2Move(int m) {
+        for(int phase2Move : TwoPhaseTables.PHASE2_MOVES) {
+            if(m == phase2Move) return true;
+        }
+        return false;
+    }
+
+    // Checks the time limit every CHECK_INTERVAL states, sets timedOut once it is reached
+    private boolean timeIsUp() {
+        if(!timedOut && exploredStates >= nextCheck) {
+            nextCheck = exploredStates + CHECK_INTERVAL;
+            timedOut = System.currentTimeMillis() >= deadline;
+        }
+        return timedOut;
+    }
+}
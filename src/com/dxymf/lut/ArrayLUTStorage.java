@@ -0,0 +1,19 @@
+package com.dxymf.lut;
+
+// LUT values in a byte array on the heap, one value per byte
+public class ArrayLUTStorage implements LUTStorage {
+
+    private byte[] data;
+
+    public ArrayLUTStorage(byte[] data) {
+        this.data = data;
+    }
+
+    public int get(long index) {
+        return data[(int) index];
+    }
+
+    public long size() {
+        return data.length;
+    }
+}
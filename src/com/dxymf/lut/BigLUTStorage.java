@@ -0,0 +1,240 @@
+package com.dxymf.lut;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// LUT values for tables with more than Integer.MAX_VALUE values, e.g. a PatternLUT of 8 or more edges with orientation
+// The values are packed into 4 bits each like in NibbleLUTStorage (even index -> low nibble, odd index -> high nibble)
+// and kept off-heap in segments of 1GB, either direct buffers or memory mapped parts of a file
+// so the table can be larger than the heap (and with a mapped file even larger than the memory)
+public class BigLUTStorage implements LUTStorage {
+
+    // Bytes per segment, a segment holds 2^31 values
+    private static final int SEGMENT_BITS = 30;
+    private static final int SEGMENT_BYTES = 1 << SEGMENT_BITS;
+
+    // Value of indices that haven't been set yet, only used while generating
+    public static final int EMPTY = 0xF;
+
+    // Ints of a buffer in little endian, so value i is at bits 4 * (i % 8) of the int holding byte i / 2
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private ByteBuffer[] segments;
+    private long size;
+
+    private BigLUTStorage(ByteBuffer[] segments, long size) {
+        this.segments = segments;
+        this.size = size;
+    }
+
+
+    // Storage for size values in direct buffers, all values are EMPTY
+    // Direct buffers are limited by -XX:MaxDirectMemorySize (by default the maximum heap size)
+    public static BigLUTStorage allocate(long size) {
+
+        long length = alignedLength(size);
+        ByteBuffer[] segments = new ByteBuffer[segmentCount(length)];
+
+        for(int i = 0; i < segments.length; i++) {
+            // Aligned so the ints of setIfEmpty can be updated atomically
+            segments[i] = ByteBuffer.allocateDirect(segmentLength(length, i) + 8).alignedSlice(8);
+        }
+
+        BigLUTStorage storage = new BigLUTStorage(segments, size);
+        storage.fill(EMPTY);
+
+        return storage;
+    }
+
+
+    // Storage for size values in fileName mapped read-write, all values are EMPTY
+    // The file is created or overwritten and only holds the data, so the table can be larger than the memory
+    // and the OS writes pages back to the file when it needs the memory
+    public static BigLUTStorage create(String fileName, long size) throws IOException {
+
+        long length = alignedLength(size);
+
+        try(FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteBuffer[] segments = new ByteBuffer[segmentCount(length)];
+
+            // Mapping past the end of the file grows the file, the mappings stay valid after the channel is closed
+            // Mappings start at a page of the file, so they are aligned as well
+            for(int i = 0; i < segments.length; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, (long) i << SEGMENT_BITS, segmentLength(length, i));
+            }
+
+            BigLUTStorage storage = new BigLUTStorage(segments, size);
+            storage.fill(EMPTY);
+
+            return storage;
+        }
+    }
+
+
+    // Map the data of size values starting at offset of fileName (after the header of the file) read-only
+    public static BigLUTStorage map(String fileName, long offset, long size) throws IOException {
+
+        long length = dataLength(size);
+
+        try(FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+
+            if(channel.size() != offset + length) {
+                throw new IOException(fileName + " has " + (channel.size() - offset) + " bytes of data instead of " + length);
+            }
+
+            ByteBuffer[] segments = new ByteBuffer[segmentCount(length)];
+
+            for(int i = 0; i < segments.length; i++) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset + ((long) i << SEGMENT_BITS), segmentLength(length, i));
+            }
+
+            return new BigLUTStorage(segments, size);
+        }
+    }
+
+
+    // Storage for the data read by LUTFile, the buffers must hold the values in the layout of this class
+    static BigLUTStorage wrap(ByteBuffer[] segments, long size) {
+
+        return new BigLUTStorage(segments, size);
+    }
+
+
+    // Number of bytes of the data for size values
+    public static long dataLength(long size) {
+
+        return (size + 1) / 2;
+    }
+
+
+    // Data length rounded up to whole longs, so setIfEmpty never updates an int past the end of a segment
+    private static long alignedLength(long size) {
+
+        return (dataLength(size) + 7) & ~7L;
+    }
+
+
+    // Segments needed for length bytes
+    static int segmentCount(long length) {
+
+        return (int) ((length + SEGMENT_BYTES - 1) >>> SEGMENT_BITS);
+    }
+
+
+    // Bytes of segment number segment of length bytes
+    static int segmentLength(long length, int segment) {
+
+        return (int) Math.min(SEGMENT_BYTES, length - ((long) segment << SEGMENT_BITS));
+    }
+
+
+    // Value at index
+    public int get(long index) {
+
+        ByteBuffer segment = segments[(int) (index >>> (SEGMENT_BITS + 1))];
+        int offset = (int) ((index >>> 1) & (SEGMENT_BYTES - 1));
+
+        return (segment.get(offset) >> (((int) index & 1) << 2)) & 0xF;
+    }
+
+
+    // Set the value at index if it is still EMPTY, returns whether it was set
+    // Safe to call from many threads at once, the int holding the value is updated with a compare and set
+    // because neighbouring values share their bytes
+    public boolean setIfEmpty(long index, int value) {
+
+        ByteBuffer segment = segments[(int) (index >>> (SEGMENT_BITS + 1))];
+        int offset = (int) ((index >>> 1) & (SEGMENT_BYTES - 1)) & ~3;
+        int shift = ((int) index & 7) << 2;
+
+        while(true) {
+            int word = (int) INTS.getVolatile(segment, offset);
+
+            if(((word >>> shift) & 0xF) != EMPTY) {
+                return false;
+            }
+
+            if(INTS.compareAndSet(segment, offset, word, (word & ~(0xF << shift)) | (value << shift))) {
+                return true;
+            }
+        }
+    }
+
+
+    // Set all values to value
+    public void fill(int value) {
+
+        byte[] chunk = new byte[1 << 20];
+        Arrays.fill(chunk, (byte) (value | (value << 4)));
+
+        for(ByteBuffer segment : segments) {
+            for(int offset = 0; offset < segment.capacity(); offset += chunk.length) {
+                segment.put(offset, chunk, 0, Math.min(chunk.length, segment.capacity() - offset));
+            }
+        }
+    }
+
+
+    // Data of the segments for saving, only the first dataLength(size()) bytes belong to the values
+    ByteBuffer[] getSegments() {
+
+        ByteBuffer[] views = new ByteBuffer[segments.length];
+        for(int i = 0; i < segments.length; i++) {
+            views[i] = segments[i].duplicate();
+        }
+
+        return views;
+    }
+
+
+    // Number of values
+    public long size() {
+
+        return size;
+    }
+
+
+    // Write mapped segments back to their file
+    public void force() {
+
+        for(ByteBuffer segment : segments) {
+            if(segment instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) segment).force();
+            }
+        }
+    }
+
+
+    // Touch every page of mapped segments in a background thread so the first solves don't stall on page faults
+    public Thread prefault() {
+
+        Thread thread = new Thread(() -> {
+            long t1 = System.currentTimeMillis();
+            long bytes = 0;
+
+            for(ByteBuffer segment : segments) {
+                if(segment instanceof MappedByteBuffer) {
+                    ((MappedByteBuffer) segment).load();
+                    bytes += segment.capacity();
+                }
+            }
+
+            System.out.println("Prefaulted " + bytes + " bytes in " + (System.currentTimeMillis() - t1) + "ms");
+        }, "lut-prefault");
+
+        thread.setDaemon(true);
+        thread.start();
+
+        return thread;
+    }
+}
@@ -0,0 +1,264 @@
+package com.dxymf.lut;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.dxymf.MoveTables;
+
+// Transition table for the positions of K pieces (corners or edges) under all 18 moves
+// Rank of the positions x move -> rank of the new positions, ranks are the same as LehmerRanking
+// Every entry also holds a mask of the pieces whose orientation is changed by the move
+public class CoordinateMoveTable {
+
+    // Tables that have already been loaded, LUTs with the same pieces count share one table
+    private static final Map<String, CoordinateMoveTable> loadedTables = new HashMap<>();
+
+    private int N; // Total number of corners/edges on the cube (8 or 12)
+    private int K; // Number of corners/edges being observed
+
+    // Number of different rank values (N pick K)
+    private int size;
+
+    private LehmerRanking ranking;
+
+    // Number of bits in an entry used for the rank, the orientation mask is stored above them
+    private int rankBits;
+    private int rankMask;
+
+    // [rank * 18 + move] -> new rank | orientation mask << rankBits
+    private int[] table;
+
+    // Corners only: [((move << K) + orientation mask) * 3^K + orientations] -> new orientations
+    private short[] cornerTwists;
+    private int cornerOrientationsSize;
+
+    private CoordinateMoveTable(int N, int K) {
+        this.N = N;
+        this.K = K;
+
+        size = LUT.pick(N, K);
+        ranking = new LehmerRanking(N, K);
+        rankBits = 32 - Integer.numberOfLeadingZeros(size - 1);
+        rankMask = (1 << rankBits) - 1;
+
+        if(rankBits + K > 31) {
+            throw new IllegalArgumentException("Move table for " + K + " of " + N + " pieces is too large");
+        }
+
+        if(N == 8) {
+            generateCornerTwists();
+        }
+    }
+
+
+    // Load the table for K out of N pieces from fileName, generate and save it there first if it doesn't exist yet
+    public static synchronized CoordinateMoveTable load(String fileName, int N, int K) throws IOException {
+
+        CoordinateMoveTable moveTable = loadedTables.get(fileName);
+        if(moveTable != null) {
+            if(moveTable.N != N || moveTable.K != K) {
+                throw new IOException(fileName + " was already loaded as " + description(moveTable.N, moveTable.K) + " instead of " + description(N, K));
+            }
+
+            return moveTable;
+        }
+
+        moveTable = new CoordinateMoveTable(N, K);
+
+        if(new File(fileName).exists()) {
+            moveTable.loadTable(fileName);
+        } else {
+            moveTable.generateTable();
+            moveTable.saveTable(fileName);
+        }
+
+        loadedTables.put(fileName, moveTable);
+
+        return moveTable;
+    }
+
+
+    // Entry for applying move m to the positions with rank
+    public int getEntry(int rank, int m) {
+        return table[rank * MoveTables.MOVE_COUNT + m];
+    }
+
+    // New rank stored in an entry
+    public int getRank(int entry) {
+        return entry & rankMask;
+    }
+
+    // Pieces whose orientation is changed by the move (bit i -> i-th observed piece)
+    public int getOrientationMask(int entry) {
+        return entry >>> rankBits;
+    }
+
+    // New corner orientations (encoded as in CornerLUT) after move m twisted the pieces in orientationMask
+    public int twistCorners(int orientations, int orientationMask, int m) {
+        return cornerTwists[((m << K) + orientationMask) * cornerOrientationsSize + orientations];
+    }
+
+
+    // Relative order of the positions with rank as Lehmer rank of a permutation of K elements
+    public int getPatternRank(int rank) {
+
+        byte[] positions = unrank(rank);
+
+        int patternRank = 0;
+        for(int i = 0; i < K; i++) {
+            int smallerRight = 0;
+            for(int j = i + 1; j < K; j++) {
+                if(positions[j] < positions[i]) smallerRight++;
+            }
+
+            // Lehmer digit is the number of smaller elements to the right
+            patternRank += smallerRight * LUT.factorial(K - 1 - i);
+        }
+
+        return patternRank;
+    }
+
+
+    public int getSize() {
+        return size;
+    }
+
+
+    // Description in the header of the file of the table (see LUTFile)
+    private static String description(int N, int K) {
+        return "move table for " + K + " of " + N + " pieces";
+    }
+
+
+    private void generateTable() {
+
+        System.out.println("Generating move table for " + K + " of " + N + " pieces");
+
+        table = new int[size * MoveTables.MOVE_COUNT];
+
+        byte[] movePositions = (N == 8) ? MoveTables.CORNER_POSITIONS : MoveTables.EDGE_POSITIONS;
+        byte[] moveOrientations = (N == 8) ? MoveTables.CORNER_ORIENTATIONS : MoveTables.EDGE_ORIENTATIONS;
+        int orientationCount = (N == 8) ? 3 : 2;
+
+        byte[] newPositions = new byte[K];
+
+        for(int rank = 0; rank < size; rank++) {
+            byte[] positions = unrank(rank);
+
+            for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                int orientationMask = 0;
+
+                for(int i = 0; i < K; i++) {
+                    int p = m * N + positions[i];
+
+                    newPositions[i] = movePositions[p];
+
+                    if(isOrientationChanged(moveOrientations, p, orientationCount)) {
+                        orientationMask |= 1 << i;
+                    }
+                }
+
+                table[rank * MoveTables.MOVE_COUNT + m] = rank(newPositions) | (orientationMask << rankBits);
+            }
+        }
+    }
+
+
+    // Twists of all corner orientation encodings for every move and set of twisted pieces
+    private void generateCornerTwists() {
+
+        int orientationsSize = LUT.pow(3, K);
+        cornerOrientationsSize = orientationsSize;
+        cornerTwists = new short[MoveTables.MOVE_COUNT * (1 << K) * orientationsSize];
+
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            // All twisted corners of a move have their orientation changed the same way
+            // so it can be read from any position where the move changes orientations
+            int twistedPosition = 0;
+            while(twistedPosition < 7 && !isOrientationChanged(MoveTables.CORNER_ORIENTATIONS, m * 8 + twistedPosition, 3)) {
+                twistedPosition++;
+            }
+
+            for(int orientationMask = 0; orientationMask < (1 << K); orientationMask++) {
+                for(int orientations = 0; orientations < orientationsSize; orientations++) {
+                    int newOrientations = 0;
+                    int remaining = orientations;
+
+                    for(int i = 0; i < K; i++) {
+                        int orientation = remaining % 3;
+                        remaining /= 3;
+
+                        if((orientationMask & (1 << i)) != 0) {
+                            orientation = MoveTables.CORNER_ORIENTATIONS[(m * 8 + twistedPosition) * 3 + orientation];
+                        }
+
+                        newOrientations += orientation * LUT.pow(3, i);
+                    }
+
+                    cornerTwists[((m << K) + orientationMask) * orientationsSize + orientations] = (short) newOrientations;
+                }
+            }
+        }
+    }
+
+
+    // Whether a move changes the orientation of a piece at table position p (m * N + position)
+    private static boolean isOrientationChanged(byte[] moveOrientations, int p, int orientationCount) {
+
+        for(int o = 0; o < orientationCount; o++) {
+            if(moveOrientations[p * orientationCount + o] != o) return true;
+        }
+
+        return false;
+    }
+
+
+    // Positions of the K pieces for a rank (inverse of rank)
+    private byte[] unrank(int rank) {
+
+        byte[] positions = new byte[N];
+        ranking.unrank(rank, positions);
+
+        return Arrays.copyOf(positions, K);
+    }
+
+
+    private int rank(byte[] positions) {
+
+        return ranking.rank(positions, 0);
+    }
+
+
+    // Rank of the K positions starting at offset
+    public int rank(byte[] positions, int offset) {
+
+        return ranking.rank(positions, offset);
+    }
+
+
+    // The entries as big endian ints in one LUT file (see LUTFile)
+    private void saveTable(String fileName) throws IOException {
+
+        System.out.println("Saving move table");
+
+        // The constructor rejects tables with more than 31 bits per entry, the remaining ones have less than 2^31 bytes
+        ByteBuffer bytes = ByteBuffer.allocate(table.length * 4);
+        bytes.asIntBuffer().put(table);
+
+        LUTFile.save(description(N, K), bytes.array(), LUTFile.Encoding.BYTES, fileName);
+    }
+
+
+    // The header and checksum of the file are verified, so a file of another table or a corrupted file isn't used
+    private void loadTable(String fileName) throws IOException {
+
+        byte[] bytes = LUTFile.load(description(N, K), size * MoveTables.MOVE_COUNT * 4, fileName);
+
+        table = new int[size * MoveTables.MOVE_COUNT];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(table);
+    }
+}
@@ -1,18 +1,22 @@
 package com.dxymf.lut;
 
-import java.util.Arrays;
+import java.io.IOException;
 
-import com.dxymf.CubeState;
-
-public class CornerLUT extends LUT {
+// Corners 0-6 with orientation (corner 7 is determined by them)
+// Encoding is done by PatternLUT, this class adds moving the coordinate with a move table
+public class CornerLUT extends PatternLUT implements MoveTableLUT {
+    private static final int N = 8; // Total number of corners on the cube
+    private static final int K = 7; // Number of corners being observed
 
     // Array of powers of 3
     private int[] powers;
 
+    // Transitions of the coordinates under moves, null until loadMoveTable is called
+    private CoordinateMoveTable moveTable;
+
     public CornerLUT() {
-        super(8, 7);
+        super(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4, (byte) 5, (byte) 6));
 
-        lut = new byte[factorial(N) * pow(3, K)];
         powers = new int[K + 1];
 
         // Populate powers with the powers of 3
@@ -22,33 +26,27 @@ public class CornerLUT extends LUT {
     }
 
 
-    // Generate key from a cube state using lexicographic ranking
-    protected int encode(CubeState state) {
+    // Load the move table from fileName (generated and saved first if the file doesn't exist)
+    public void loadMoveTable(String fileName) throws IOException {
 
-        byte[] pieces = Arrays.copyOf(state.getCornerPositions(), K);
-        byte[] orientations = Arrays.copyOf(state.getCornerOrientations(), K);
+        moveTable = CoordinateMoveTable.load(fileName, N, K);
+    }
 
-        int orientationsEncoded = 0;
-        int piecesEncoded = 0;
 
-        // Get and encode orientations and positions of the corner pieces
-        for(int i = 0; i < K; i++) {
-            // Encode orientations into the digits of a binary number
-            orientationsEncoded += orientations[i] * powers[i];
-        }
+    public boolean hasMoveTable() {
 
-        piecesEncoded = lehmerRankLinear(pieces);
-
-        // Combine encoded pieces and encoded orientations to a unique integer
-        // piecesEncoded is scaled by 3^K because orientationsEncoded is at most 3^K - 1
-        return piecesEncoded * powers[K] + orientationsEncoded;
+        return moveTable != null;
     }
 
 
-    // b to the power of e
-    private static int pow(int b, int e) {
-        if(e == 0) return 1;
+    // Positions and orientations are moved separately and combined the same way as in encode
+    public long applyMove(long coordinate, int m) {
+
+        int piecesEncoded = (int) (coordinate / powers[K]);
+        int orientationsEncoded = (int) (coordinate % powers[K]);
+
+        int entry = moveTable.getEntry(piecesEncoded, m);
 
-        return b * pow(b, e - 1);
+        return (long) moveTable.getRank(entry) * powers[K] + moveTable.twistCorners(orientationsEncoded, moveTable.getOrientationMask(entry), m);
     }
 }
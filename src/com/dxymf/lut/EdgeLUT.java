@@ -1,39 +1,45 @@
 package com.dxymf.lut;
 
-import com.dxymf.CubeState;
+import java.io.IOException;
 
-public class EdgeLUT extends LUT {
+// Positions and orientations of a subset of edges
+// Encoding is done by PatternLUT, this class adds moving the coordinate with a move table
+public class EdgeLUT extends PatternLUT implements MoveTableLUT {
+    private static final int N = 12; // Total number of edges on the cube
 
-    // Subset of Edges that is being observed
-    private byte[] subset;
+    private int K; // Number of edges being observed
+
+    // Transitions of the coordinates under moves, null until loadMoveTable is called
+    private CoordinateMoveTable moveTable;
 
     public EdgeLUT(byte[] subset) {
-        super(12, subset.length);
+        super(PatternSpec.edges(subset));
+
+        K = subset.length;
+    }
+
 
-        this.subset = subset;
+    // Load the move table from fileName (generated and saved first if the file doesn't exist)
+    public void loadMoveTable(String fileName) throws IOException {
 
-        lut = new byte[pick(N, K) * (1 << K)];
+        moveTable = CoordinateMoveTable.load(fileName, N, K);
     }
 
-    // Generate key from a cube state using lexicographic ranking
-    protected int encode(CubeState state) {
 
-        byte[] positions = CubeState.extractElementsFromArray(state.getEdgePositions(), subset);
-        byte[] orientations = CubeState.extractElementsFromArray(state.getEdgeOrientations(), subset);
+    public boolean hasMoveTable() {
+
+        return moveTable != null;
+    }
+
 
-        int orientationsEncoded = 0;
-        int positionsEncoded = 0;
+    // Positions are moved with the move table and the orientations of the edges it marks are flipped
+    public long applyMove(long coordinate, int m) {
 
-        // Get and encode orientations and positions of the edges
-        for(int i = 0; i < K; i++) {
-            // Encode orientations into the digits of a binary number
-            orientationsEncoded += orientations[i] * (1 << i);
-        }
+        int positionsEncoded = (int) (coordinate >> K);
+        int orientationsEncoded = (int) (coordinate & ((1 << K) - 1));
 
-        positionsEncoded = lehmerRankLinear(positions);
+        int entry = moveTable.getEntry(positionsEncoded, m);
 
-        // Combine encoded positions and encoded orientations to a unique integer
-        // positionsEncoded is scaled by 2^K because orientationsEncoded is at most 2^K - 1
-        return positionsEncoded * (1 << K) + orientationsEncoded;
+        return ((long) moveTable.getRank(entry) << K) | (orientationsEncoded ^ moveTable.getOrientationMask(entry));
     }
 }
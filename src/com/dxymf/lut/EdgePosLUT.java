@@ -1,23 +1,69 @@
 package com.dxymf.lut;
 
-import java.util.Arrays;
+import java.io.IOException;
 
-import com.dxymf.CubeState;
+// Positions of edges 0-10 (edge 11 is determined by them)
+// Encoding is done by PatternLUT, this class adds moving the coordinate with move tables
+public class EdgePosLUT extends PatternLUT implements MoveTableLUT {
+    private static final int N = 12; // Total number of edges on the cube
 
-public class EdgePosLUT extends LUT {
+    // The coordinate consists of the positions of edges 0-5 and of edges 6-11
+    // because a move table over all 12! permutations would be far too large
+    private static final int HALF = 6;
+    private static final int HALF_PERMUTATIONS = 720; // 6!
+
+    // Transitions of the coordinates of both halves under moves, null until loadMoveTable is called
+    private CoordinateMoveTable moveTable;
+
+    // Relative order of the positions of edges 6-11 for every rank of their positions
+    private int[] patternRanks;
 
     public EdgePosLUT() {
-        super(12, 11);
+        super(PatternSpec.edgePositions((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4, (byte) 5, (byte) 6, (byte) 7, (byte) 8, (byte) 9, (byte) 10));
+    }
+
+
+    // Both halves share a move table for 6 of 12 edges
+    public void loadMoveTable(String fileName) throws IOException {
+
+        moveTable = CoordinateMoveTable.load(fileName, N, HALF);
+
+        patternRanks = new int[moveTable.getSize()];
+        for(int i = 0; i < patternRanks.length; i++) {
+            patternRanks[i] = moveTable.getPatternRank(i);
+        }
+    }
+
+
+    public boolean hasMoveTable() {
 
-        lut = new byte[factorial(N)];
+        return moveTable != null;
     }
 
-    // Generate key from a cube state using lexicographic ranking
-    protected int encode(CubeState state) {
 
-        byte[] positions = Arrays.copyOf(state.getEdgePositions(), K);
+    // coordinate = rank of positions of edges 0-5 * (12 pick 6) + rank of positions of edges 6-11
+    public long getCoordinate(byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations) {
+
+        return (long) moveTable.rank(edgePositions, 0) * moveTable.getSize() + moveTable.rank(edgePositions, HALF);
+    }
+
+
+    public long applyMove(long coordinate, int m) {
+
+        int lower = (int) (coordinate / moveTable.getSize());
+        int upper = (int) (coordinate % moveTable.getSize());
+
+        return (long) moveTable.getRank(moveTable.getEntry(lower, m)) * moveTable.getSize() + moveTable.getRank(moveTable.getEntry(upper, m));
+    }
+
+
+    // The first 6 Lehmer digits of the index are the digits of the lower rank scaled by 6!
+    // the remaining digits only depend on the relative order of the positions of edges 6-11
+    public long getIndex(long coordinate) {
+
+        int lower = (int) (coordinate / moveTable.getSize());
+        int upper = (int) (coordinate % moveTable.getSize());
 
-        // Encode positions
-        return lehmerRankLinear(positions);
+        return lower * HALF_PERMUTATIONS + patternRanks[upper];
     }
 }
@@ -1,126 +1,194 @@
 package com.dxymf.lut;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.BitSet;
 
 import com.dxymf.CubeState;
+import com.dxymf.MoveTables;
 
 public abstract class LUT {
-    protected int N; // Total number of corners/edges on the cube
-    protected int K; // Number of corners/edges being observed
+
+    // Number of values in the LUT, more than Integer.MAX_VALUE values are stored in a BigLUTStorage
+    protected long size;
 
     // Data of the LUT
-    protected byte[] lut;
+    protected LUTStorage lut;
 
-    // Look up array of precomputed values for pick(N - 1 - i, K - 1 - i)
-    protected int[] picks;
 
-    // Look up array containing the number of "1" bits in the index
-    protected int[] onesCountLookup;
-    
-    public LUT(int N, int K) {
-        this.N = N;
-        this.K = K;
+    // Load LUT from binary file
+    // The header of the file (see LUTFile) must match this LUT and decides how the values are stored
+    // Raw files without a header must hold one value per byte (two values per byte for LUTs with more than Integer.MAX_VALUE values)
+    public void loadLUT(String fileName) throws IOException {
+
+        lut = LUTFile.load(this, fileName, null);
+    }
+
+
+    // Load LUT from a binary file saved with two values per byte (see savePackedLUT of the generators)
+    public void loadPackedLUT(String fileName) throws IOException {
+
+        lut = LUTFile.load(this, fileName, LUTFile.Encoding.PACKED);
+    }
+
+
+    // Load LUT from a binary file saved with four values mod 3 per byte (see saveMod3LUT of the generators)
+    // Exact values are reconstructed from the parent's value with getMoveCount(state, parentMoveCount)
+    public void loadMod3LUT(String fileName) throws IOException {
+
+        lut = LUTFile.load(this, fileName, LUTFile.Encoding.MOD3);
+    }
+
 
-        picks = new int[K];
-        onesCountLookup = new int[(1 << N) - 1];
+    // Map LUT file read-only into memory instead of copying it onto the heap
+    // so all processes on a host share the file's pages in the OS page cache
+    // prefault -> load all pages in a background thread
+    // Only the header is verified, the checksum would need to read the whole file
+    // LUTs with more than Integer.MAX_VALUE values are mapped with two values per byte,
+    // this is the only way to use LUTs that are larger than the memory
+    public void mapLUT(String fileName, boolean prefault) throws IOException {
 
-        // Populate picks
-        for(int i = 0; i < K; i++) {
-            picks[i] = pick(N - 1 - i, K - 1 - i);
+        LUTFile.Header header = LUTFile.readHeader(this, fileName);
+        long offset = (header == null) ? 0 : header.length;
+
+        if(size > Integer.MAX_VALUE) {
+            if(header != null && header.encoding != LUTFile.Encoding.PACKED) {
+                throw new IOException(fileName + " can't be mapped because it has encoding " + header.encoding);
+            }
+
+            BigLUTStorage mappedLUT = BigLUTStorage.map(fileName, offset, size);
+
+            if(prefault) {
+                mappedLUT.prefault();
+            }
+
+            lut = mappedLUT;
+            return;
         }
 
-        // Populate onesCountLookup
-        for(int i = 0; i < (1 << N) - 1; i++) {
-            onesCountLookup[i] = count1Bits(i);
+        if(header != null && header.encoding != LUTFile.Encoding.BYTES) {
+            throw new IOException(fileName + " can't be mapped because it has encoding " + header.encoding);
         }
-    }
 
+        MappedLUTStorage mappedLUT = new MappedLUTStorage(fileName, offset, (int) size);
 
-    // Load LUT from binary file
-    public void loadLUT(String fileName) throws IOException {
+        if(prefault) {
+            mappedLUT.prefault();
+        }
 
-        lut = Files.readAllBytes(Path.of(fileName));
+        lut = mappedLUT;
     }
 
 
     // Retrieve value from LUT
     public int getMoveCount(CubeState state) {
 
-        return lut[encode(state)];
+        return getMoveCount(state.getCornerPositions(), state.getCornerOrientations(), state.getEdgePositions(), state.getEdgeOrientations());
     }
 
 
-    // Generate key from a cube state using lexicographic ranking
-    protected abstract int encode(CubeState state);
-
+    // Retrieve value from LUT for a successor of a state whose value is parentMoveCount
+    // Needed to get exact values from LUTs that only store values mod 3 without searching for them
+    public int getMoveCount(CubeState state, int parentMoveCount) {
 
-    // Linear algorithm for indexing a permutation using Lehmer codes
-    // Using ints instead of BitSets
-    protected int lehmerRankLinear(byte[] perm) {
-
-        // The first digit of the Lehmer code is always the first digit of the permutation
-        int index = perm[0] * picks[0];
+        return lut.get(encode(state), parentMoveCount);
+    }
 
-        // We use an int instead of a BitSet because it is faster
-        // to an int in linear time
-        int seen = 1 << (N - 1 - perm[0]);
 
-        for(int i = 1; i < K; i++) {
-            // Set bit at position N - 1 - perm[i] of seen to 1
-            seen += 1 << (N - 1 - perm[i]);
+    // Retrieve value from LUT for a cube given as arrays without allocating anything
+    public int getMoveCount(byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations) {
 
-            // onesCountLookup[seen >> (N - perm[i])] shift seen by N - perm[i] bits to the right
-            // and count the number of remaining bits which is equal to the number of smaller
-            // elements to the left in the permutation
-            index += (perm[i] - onesCountLookup[seen >> (N - perm[i])]) * picks[i];
+        if(!lut.isExact()) {
+            return searchMoveCount(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
         }
 
-        return index;
+        return lut.get(encode(cornerPositions, cornerOrientations, edgePositions, edgeOrientations));
     }
 
 
-    // Linear algorithm for indexing a permutation using Lehmer codes
-    // With BitSets
-    protected int lehmerRankBitSets(byte[] perm) {
+    // Value at an index (from encode or MoveTableLUT.getIndex), only exact if isExact()
+    // Lets searches compute the indices of many states first and then read all their values at once
+    public int getValue(long index) {
+
+        return lut.get(index);
+    }
+
 
-        // The first digit of the Lehmer code is always the first digit of the permutation
-        int index = perm[0] * picks[0];
+    // Exact value at an index of a successor of a state whose value is parentValue
+    // Searches that carry their own values down the path use this instead of getMoveCount(state, parentMoveCount)
+    public int getValue(long index, int parentValue) {
 
-        // BitSet to keep track of the seen elements
-        BitSet seen = new BitSet(N);
-        seen.set(N - 1 - perm[0]);
+        return lut.get(index, parentValue);
+    }
 
-        for(int i = 1; i < K; i++) {
-            // Set bit at position N - 1 - perm[i]
-            seen.set(N - 1 - perm[i]);
 
-            // onesCountLookup[(int)(seen.toLongArray()[0]) >> (N - perm[i])]
-            // -> convert seen to an int
-            // shift int by N - perm[i] bits to the right
-            // and count the number of remaining bits which is equal to the number of smaller
-            // elements to the left in the permutation
-            index += (perm[i] - onesCountLookup[(int)(seen.toLongArray()[0]) >> (N - perm[i])]) * picks[i];
-        }
+    // Whether the values are stored exactly (not only mod 3)
+    public boolean isExact() {
 
-        return index;
+        return lut.isExact();
     }
 
 
-    // Count the number of 1 bits in an integer
-    protected int count1Bits(int n) {
-        int remaining = n;
-        int numOnes = 0;
+    // Exact value for LUTs that only store values mod 3
+    // Neighbouring states differ by at most 1, so there is always a move to a state whose value is
+    // one less (-1 mod 3), following those until the solved pattern is reached gives the exact value
+    private int searchMoveCount(byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations) {
+
+        byte[] cP = cornerPositions.clone();
+        byte[] cO = cornerOrientations.clone();
+        byte[] eP = edgePositions.clone();
+        byte[] eO = edgeOrientations.clone();
+
+        CubeState solved = CubeState.getSolvedState();
+        long solvedIndex = encode(solved);
+
+        long index = encode(cP, cO, eP, eO);
+        int moveCount = 0;
+
+        while(index != solvedIndex) {
+            int smaller = (lut.get(index) + 2) % 3;
 
-        for(int i = 1 << N; i > 0; i = i >> 1) {
-            if(i <= remaining) {
-                numOnes++;
-                remaining -= i;
+            for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                MoveTables.applyMove(cP, cO, eP, eO, m);
+
+                long nextIndex = encode(cP, cO, eP, eO);
+                if(lut.get(nextIndex) == smaller) {
+                    index = nextIndex;
+                    break;
+                }
+
+                MoveTables.applyMove(cP, cO, eP, eO, MoveTables.inverse(m));
             }
+
+            moveCount++;
         }
-        return numOnes;
+
+        return moveCount;
+    }
+
+
+    // Generate key from a cube state using lexicographic ranking
+    protected long encode(CubeState state) {
+
+        return encode(state.getCornerPositions(), state.getCornerOrientations(), state.getEdgePositions(), state.getEdgeOrientations());
+    }
+
+
+    // Generate key from the arrays of a cube state, must not modify the arrays
+    public abstract long encode(byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations);
+
+
+    // Inverse of encode: set the pieces observed by the LUT in the arrays to a state with key index
+    // Pieces that aren't observed are set to arbitrary valid values
+    public abstract void decode(long index, byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations);
+
+
+    // Description of the pattern of the LUT, LUT files are only loaded by LUTs with the same description
+    public abstract String getDescription();
+
+
+    // Number of values in the LUT
+    public long getSize() {
+
+        return size;
     }
 
 
@@ -137,4 +205,11 @@ public abstract class LUT {
 
         return n * factorial(n - 1);
     }
+
+    // b to the power of e
+    protected static int pow(int b, int e) {
+        if(e == 0) return 1;
+
+        return b * pow(b, e - 1);
+    }
 }
@@ -0,0 +1,428 @@
+package com.dxymf.lut;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+// File format of LUTs: a header followed by the data of the LUT
+// magic (int), version (int), pattern (UTF-8 string with a short length), encoding (byte), entry count (long), data length (long), checksum (int)
+// The checksum is the CRC32C of the data, the pattern is LUT.getDescription() of the LUT that generated the file
+// Files without the magic are raw dumps of older versions and are only checked against the size of the LUT
+public class LUTFile {
+
+    private static final int MAGIC = 0x4C555446; // "LUTF"
+    private static final int VERSION = 1;
+
+    // Bytes read per call while loading the data
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    // How the values are stored in the data of the file
+    public enum Encoding {
+        BYTES,  // One value per byte (ArrayLUTStorage)
+        PACKED, // Two values per byte (NibbleLUTStorage)
+        MOD3;   // Four values mod 3 per byte (Mod3LUTStorage)
+
+        // Number of bytes of the data for a LUT with size values
+        long dataLength(long size) {
+            switch(this) {
+                case PACKED: return (size + 1) / 2;
+                case MOD3: return (size + 3) / 4;
+                default: return size;
+            }
+        }
+
+        LUTStorage createStorage(byte[] data, int size) {
+            switch(this) {
+                case PACKED: return new NibbleLUTStorage(data, size);
+                case MOD3: return new Mod3LUTStorage(data, size);
+                default: return new ArrayLUTStorage(data);
+            }
+        }
+    }
+
+    // Header of a LUT file
+    public static class Header {
+        public final String pattern;
+        public final Encoding encoding;
+        public final long entryCount;
+        public final long dataLength;
+        public final int checksum;
+
+        // Number of bytes of the header, the data starts here
+        public final int length;
+
+        private Header(String pattern, Encoding encoding, long entryCount, long dataLength, int checksum, int length) {
+            this.pattern = pattern;
+            this.encoding = encoding;
+            this.entryCount = entryCount;
+            this.dataLength = dataLength;
+            this.checksum = checksum;
+            this.length = length;
+        }
+    }
+
+
+    // Save the values (one per byte) of lut to fileName in the given encoding
+    public static void save(LUT lut, byte[] values, Encoding encoding, String fileName) throws IOException {
+
+        save(lut.getDescription(), values, encoding, fileName);
+    }
+
+
+    // Save values that don't belong to a LUT (e.g. the pruning tables of TwoPhaseTables) with pattern as description
+    public static void save(String pattern, byte[] values, Encoding encoding, String fileName) throws IOException {
+
+        byte[] data;
+        switch(encoding) {
+            case PACKED: data = NibbleLUTStorage.pack(values); break;
+            case MOD3: data = Mod3LUTStorage.pack(values); break;
+            default: data = values;
+        }
+
+        CRC32C checksum = new CRC32C();
+        checksum.update(data);
+
+        try(DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(fileName)))) {
+
+            writeHeader(dos, pattern, encoding, values.length, data.length, (int) checksum.getValue());
+
+            dos.write(data);
+        }
+    }
+
+
+    // Save the values of a LUT with more than Integer.MAX_VALUE values (see BigLUTGenerator) to fileName, always with two values per byte
+    // The data is written straight from the off-heap segments, the checksum needs one pass over them first
+    public static void save(LUT lut, BigLUTStorage values, String fileName) throws IOException {
+
+        long dataLength = BigLUTStorage.dataLength(values.size());
+
+        CRC32C checksum = new CRC32C();
+        for(ByteBuffer segment : dataOf(values, dataLength)) {
+            checksum.update(segment);
+        }
+
+        try(FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            writeHeader(new DataOutputStream(header), lut.getDescription(), Encoding.PACKED, values.size(), dataLength, (int) checksum.getValue());
+
+            writeFully(channel, ByteBuffer.wrap(header.toByteArray()));
+
+            for(ByteBuffer segment : dataOf(values, dataLength)) {
+                writeFully(channel, segment);
+            }
+        }
+    }
+
+
+    private static void writeHeader(DataOutputStream dos, String pattern, Encoding encoding, long entryCount, long dataLength, int checksum) throws IOException {
+
+        byte[] patternBytes = pattern.getBytes(StandardCharsets.UTF_8);
+
+        dos.writeInt(MAGIC);
+        dos.writeInt(VERSION);
+        dos.writeShort(patternBytes.length);
+        dos.write(patternBytes);
+        dos.writeByte(encoding.ordinal());
+        dos.writeLong(entryCount);
+        dos.writeLong(dataLength);
+        dos.writeInt(checksum);
+        dos.flush();
+    }
+
+
+    // Segments of values limited to the first dataLength bytes, the rest is padding
+    private static ByteBuffer[] dataOf(BigLUTStorage values, long dataLength) {
+
+        ByteBuffer[] segments = values.getSegments();
+
+        for(int i = 0; i < segments.length; i++) {
+            segments[i].clear().limit(BigLUTStorage.segmentLength(dataLength, i));
+        }
+
+        return segments;
+    }
+
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+
+        while(buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+
+    // Read the data of fileName into a storage for lut, the checksum is computed while reading
+    // encoding null -> any encoding for files with a header, one value per byte for raw files
+    // otherwise the file must have that encoding
+    // LUTs with more than Integer.MAX_VALUE values are only stored with two values per byte and are read into a BigLUTStorage
+    static LUTStorage load(LUT lut, String fileName, Encoding encoding) throws IOException {
+
+        if(lut.getSize() > Integer.MAX_VALUE) {
+            if(encoding != null && encoding != Encoding.PACKED) {
+                throw new IOException("LUTs with " + lut.getSize() + " values are only stored with two values per byte");
+            }
+
+            return loadBig(lut, fileName);
+        }
+
+        try(InputStream in = new BufferedInputStream(new FileInputStream(fileName), CHUNK_SIZE)) {
+
+            Header header = readHeader(lut.getDescription(), lut.getSize(), fileName, in);
+
+            if(header == null) {
+                // Raw file, the whole file is the data
+                Encoding rawEncoding = (encoding == null) ? Encoding.BYTES : encoding;
+
+                byte[] data = readData(in, (int) rawEncoding.dataLength(lut.getSize()), fileName, null);
+                checkEnd(in, fileName);
+
+                return rawEncoding.createStorage(data, (int) lut.getSize());
+            }
+
+            if(encoding != null && header.encoding != encoding) {
+                throw new IOException(fileName + " has encoding " + header.encoding + " instead of " + encoding);
+            }
+
+            CRC32C checksum = new CRC32C();
+            byte[] data = readData(in, (int) header.dataLength, fileName, checksum);
+            checkEnd(in, fileName);
+
+            if((int) checksum.getValue() != header.checksum) {
+                throw new IOException(fileName + " is corrupted (checksum mismatch)");
+            }
+
+            return header.encoding.createStorage(data, (int) lut.getSize());
+        }
+    }
+
+
+    // Load size values (one per byte) saved with save(pattern, values, Encoding.BYTES, fileName)
+    // The file must have a header for pattern and the checksum must match, so stale or corrupted files are never used
+    public static byte[] load(String pattern, int size, String fileName) throws IOException {
+
+        try(InputStream in = new BufferedInputStream(new FileInputStream(fileName), CHUNK_SIZE)) {
+
+            Header header = readHeader(pattern, size, fileName, in);
+
+            if(header == null) {
+                throw new IOException(fileName + " has no header");
+            }
+            if(header.encoding != Encoding.BYTES) {
+                throw new IOException(fileName + " has encoding " + header.encoding + " instead of " + Encoding.BYTES);
+            }
+
+            CRC32C checksum = new CRC32C();
+            byte[] data = readData(in, (int) header.dataLength, fileName, checksum);
+            checkEnd(in, fileName);
+
+            if((int) checksum.getValue() != header.checksum) {
+                throw new IOException(fileName + " is corrupted (checksum mismatch)");
+            }
+
+            return data;
+        }
+    }
+
+
+    // Read the packed data of fileName into direct buffers, the checksum is computed while reading
+    // Raw files must hold the values two per byte
+    private static BigLUTStorage loadBig(LUT lut, String fileName) throws IOException {
+
+        try(InputStream in = new BufferedInputStream(new FileInputStream(fileName), CHUNK_SIZE)) {
+
+            Header header = readHeader(lut.getDescription(), lut.getSize(), fileName, in);
+
+            if(header != null && header.encoding != Encoding.PACKED) {
+                throw new IOException(fileName + " has encoding " + header.encoding + " instead of " + Encoding.PACKED);
+            }
+
+            long dataLength = Encoding.PACKED.dataLength(lut.getSize());
+            CRC32C checksum = (header == null) ? null : new CRC32C();
+
+            ByteBuffer[] segments = new ByteBuffer[BigLUTStorage.segmentCount(dataLength)];
+            byte[] chunk = new byte[CHUNK_SIZE];
+
+            for(int i = 0; i < segments.length; i++) {
+                int segmentLength = BigLUTStorage.segmentLength(dataLength, i);
+                segments[i] = ByteBuffer.allocateDirect(segmentLength);
+
+                long offset = (long) i * segments[0].capacity();
+                while(segments[i].hasRemaining()) {
+                    int read = in.read(chunk, 0, Math.min(chunk.length, segments[i].remaining()));
+
+                    if(read == -1) {
+                        throw new IOException(fileName + " is truncated (" + (offset + segments[i].position()) + " of " + dataLength + " bytes)");
+                    }
+
+                    if(checksum != null) {
+                        checksum.update(chunk, 0, read);
+                    }
+
+                    segments[i].put(chunk, 0, read);
+                }
+            }
+
+            checkEnd(in, fileName);
+
+            if(checksum != null && (int) checksum.getValue() != header.checksum) {
+                throw new IOException(fileName + " is corrupted (checksum mismatch)");
+            }
+
+            return BigLUTStorage.wrap(segments, lut.getSize());
+        }
+    }
+
+
+    // Load the LUTs from their files at the same time (one thread per file)
+    public static void loadAll(LUT[] luts, String[] fileNames) throws IOException {
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, luts.length));
+
+        try{
+            List<Future<?>> loads = new ArrayList<>();
+            for(int i = 0; i < luts.length; i++) {
+                LUT lut = luts[i];
+                String fileName = fileNames[i];
+
+                loads.add(executor.submit(() -> {
+                    lut.loadLUT(fileName);
+                    return null;
+                }));
+            }
+
+            for(Future<?> load : loads) {
+                try{
+                    load.get();
+                } catch(ExecutionException e) {
+                    if(e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                    throw new IOException("Loading LUTs failed", e.getCause());
+                } catch(InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Loading LUTs was interrupted", e);
+                }
+            }
+
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    // Header of fileName checked against lut, null for raw files
+    // The checksum isn't verified because that needs all of the data
+    public static Header readHeader(LUT lut, String fileName) throws IOException {
+
+        try(InputStream in = new BufferedInputStream(new FileInputStream(fileName))) {
+
+            return readHeader(lut.getDescription(), lut.getSize(), fileName, in);
+        }
+    }
+
+
+    // Reads the header if the stream starts with the magic, otherwise leaves the stream at the start
+    // The header must be for expectedPattern with size values
+    private static Header readHeader(String expectedPattern, long size, String fileName, InputStream in) throws IOException {
+
+        in.mark(4);
+
+        DataInputStream dis = new DataInputStream(in);
+
+        int magic;
+        try{
+            magic = dis.readInt();
+        } catch(EOFException e) {
+            magic = 0;
+        }
+
+        if(magic != MAGIC) {
+            in.reset();
+            return null;
+        }
+
+        int version = dis.readInt();
+        if(version != VERSION) {
+            throw new IOException(fileName + " has unsupported version " + version);
+        }
+
+        byte[] patternBytes = new byte[dis.readUnsignedShort()];
+        dis.readFully(patternBytes);
+        String pattern = new String(patternBytes, StandardCharsets.UTF_8);
+
+        int encoding = dis.readByte();
+        long entryCount = dis.readLong();
+        long dataLength = dis.readLong();
+        int checksum = dis.readInt();
+
+        if(!pattern.equals(expectedPattern)) {
+            throw new IOException(fileName + " is a LUT for " + pattern + " instead of " + expectedPattern);
+        }
+        if(encoding < 0 || encoding >= Encoding.values().length) {
+            throw new IOException(fileName + " has unknown encoding " + encoding);
+        }
+        if(entryCount != size) {
+            throw new IOException(fileName + " has " + entryCount + " values instead of " + size);
+        }
+        if(dataLength != Encoding.values()[encoding].dataLength(entryCount)) {
+            throw new IOException(fileName + " has the wrong data length for its encoding");
+        }
+
+        // magic, version, pattern length, pattern, encoding, entry count, data length, checksum
+        int length = 4 + 4 + 2 + patternBytes.length + 1 + 8 + 8 + 4;
+
+        return new Header(pattern, Encoding.values()[encoding], entryCount, dataLength, checksum, length);
+    }
+
+
+    // Files must not have anything after the data
+    private static void checkEnd(InputStream in, String fileName) throws IOException {
+
+        if(in.read() != -1) {
+            throw new IOException(fileName + " is larger than its LUT");
+        }
+    }
+
+
+    // Read exactly length bytes, updating checksum (if not null) chunk by chunk
+    private static byte[] readData(InputStream in, int length, String fileName, CRC32C checksum) throws IOException {
+
+        byte[] data = new byte[length];
+
+        int offset = 0;
+        while(offset < length) {
+            int read = in.read(data, offset, Math.min(CHUNK_SIZE, length - offset));
+
+            if(read == -1) {
+                throw new IOException(fileName + " is truncated (" + offset + " of " + length + " bytes)");
+            }
+
+            if(checksum != null) {
+                checksum.update(data, offset, read);
+            }
+
+            offset += read;
+        }
+
+        return data;
+    }
+}
@@ -0,0 +1,23 @@
+package com.dxymf.lut;
+
+// Backing storage of the values of a LUT
+// Indices are longs so storages can hold more than Integer.MAX_VALUE values (see BigLUTStorage)
+public interface LUTStorage {
+
+    // Value at index
+    int get(long index);
+
+    // Value at index of a successor of a state with value parentValue
+    // Storages that don't store exact values use parentValue to reconstruct the exact value
+    default int get(long index, int parentValue) {
+        return get(index);
+    }
+
+    // Whether get(long index) returns the exact value
+    default boolean isExact() {
+        return true;
+    }
+
+    // Number of values
+    long size();
+}
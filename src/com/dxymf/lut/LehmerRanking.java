@@ -0,0 +1,131 @@
+package com.dxymf.lut;
+
+// Ranking of the positions of K out of N pieces (corners or edges) using Lehmer codes
+// rank = sum of (position of i-th piece - number of smaller positions to its left) * pick(N - 1 - i, K - 1 - i)
+// Shared by all LUTs and move tables so there is only one implementation of ranking and unranking
+// The number of smaller positions to the left is counted with Integer.bitCount on a mask of the positions seen so far
+// (a single instruction on current CPUs), unranking finds the n-th unused position by clearing the lowest set bits
+public class LehmerRanking {
+    private int N; // Total number of corners/edges on the cube
+    private int K; // Number of corners/edges being ranked
+
+    // Look up array of precomputed values for pick(N - 1 - i, K - 1 - i)
+    private int[] picks;
+
+    public LehmerRanking(int N, int K) {
+        this.N = N;
+        this.K = K;
+
+        picks = new int[K];
+
+        // Populate picks
+        for(int i = 0; i < K; i++) {
+            picks[i] = LUT.pick(N - 1 - i, K - 1 - i);
+        }
+    }
+
+
+    // Number of different ranks (N pick K)
+    public int getSize() {
+
+        return LUT.pick(N, K);
+    }
+
+
+    // Linear algorithm for indexing a permutation using Lehmer codes
+    public int rank(byte[] perm) {
+
+        return rank(perm, 0);
+    }
+
+
+    // Same as rank(byte[] perm) for the K elements starting at offset
+    public int rank(byte[] perm, int offset) {
+
+        // The first digit of the Lehmer code is always the first element
+        int index = perm[offset] * picks[0];
+
+        // Bit p is set if position p was seen
+        int seen = 1 << perm[offset];
+
+        for(int i = 1; i < K; i++) {
+            int element = perm[offset + i];
+
+            // The number of seen positions below element is the number of smaller elements to the left
+            index += (element - Integer.bitCount(seen & ((1 << element) - 1))) * picks[i];
+
+            seen |= 1 << element;
+        }
+
+        return index;
+    }
+
+
+    // Same as rank(byte[] perm) but for the permutation of array[subset[0]], ..., array[subset[K - 1]]
+    // so the elements don't have to be extracted into a new array first
+    public int rank(byte[] array, byte[] subset) {
+
+        int index = array[subset[0]] * picks[0];
+
+        int seen = 1 << array[subset[0]];
+
+        for(int i = 1; i < K; i++) {
+            int element = array[subset[i]];
+
+            index += (element - Integer.bitCount(seen & ((1 << element) - 1))) * picks[i];
+
+            seen |= 1 << element;
+        }
+
+        return index;
+    }
+
+
+    // Inverse of rank(byte[] perm): writes the first K elements of perm
+    // and fills the remaining N - K elements with the unused elements in increasing order
+    public void unrank(int index, byte[] perm) {
+
+        int used = 0;
+
+        for(int i = 0; i < K; i++) {
+            perm[i] = nthUnused(index / picks[i], used);
+            index %= picks[i];
+
+            used |= 1 << perm[i];
+        }
+
+        for(int i = K; i < N; i++) {
+            perm[i] = nthUnused(0, used);
+
+            used |= 1 << perm[i];
+        }
+    }
+
+
+    // Inverse of rank(byte[] array, byte[] subset): writes array[subset[0]], ..., array[subset[K - 1]]
+    public void unrank(int index, byte[] array, byte[] subset) {
+
+        int used = 0;
+
+        for(int i = 0; i < K; i++) {
+            array[subset[i]] = nthUnused(index / picks[i], used);
+            index %= picks[i];
+
+            used |= 1 << array[subset[i]];
+        }
+    }
+
+
+    // The n-th (starting at 0) element that isn't set in the bit mask used
+    private static byte nthUnused(int n, int used) {
+
+        int unused = ~used;
+
+        // Clear the n lowest unused elements, the lowest remaining one is the n-th
+        for(int i = 0; i < n; i++) {
+            unused &= unused - 1;
+        }
+
+        return (byte) Integer.numberOfTrailingZeros(unused);
+    }
+}
@@ -0,0 +1,54 @@
+package com.dxymf.lut;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// LUT values in a read-only memory mapped file, one value per byte
+// The pages live in the OS page cache so every process that maps the same file shares one copy
+public class MappedLUTStorage implements LUTStorage {
+
+    private MappedByteBuffer data;
+
+    // Map the size values starting at offset (after the header of the file)
+    public MappedLUTStorage(String fileName, long offset, int size) throws IOException {
+
+        try(FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+
+            if(channel.size() != offset + size) {
+                throw new IOException(fileName + " has " + (channel.size() - offset) + " values instead of " + size);
+            }
+
+            // The mapping stays valid after the channel is closed
+            data = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        }
+    }
+
+    public int get(long index) {
+        // Absolute get is an intrinsic and compiles to a plain load just like an array access
+        return data.get((int) index);
+    }
+
+    public long size() {
+        return data.capacity();
+    }
+
+    // Touch every page in a background thread so the first solves don't stall on page faults
+    public Thread prefault() {
+
+        Thread thread = new Thread(() -> {
+            long t1 = System.currentTimeMillis();
+
+            data.load();
+
+            System.out.println("Prefaulted " + data.capacity() + " bytes in " + (System.currentTimeMillis() - t1) + "ms");
+        }, "lut-prefault");
+
+        thread.setDaemon(true);
+        thread.start();
+
+        return thread;
+    }
+}
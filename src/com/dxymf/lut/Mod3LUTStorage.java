@@ -0,0 +1,53 @@
+package com.dxymf.lut;
+
+// LUT values stored as value mod 3 in 2 bits each, four values per byte
+// A move changes the value of a LUT by at most 1, so the exact value of a state can be reconstructed
+// from the mod 3 value and the exact value of its parent (Breyer and Korf)
+public class Mod3LUTStorage implements LUTStorage {
+
+    private byte[] data;
+    private int size;
+
+    public Mod3LUTStorage(byte[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    // Value mod 3
+    public int get(long index) {
+        return (data[(int) (index >> 2)] >> (((int) index & 3) << 1)) & 3;
+    }
+
+    // The successor's value is parentValue - 1, parentValue or parentValue + 1
+    // and those three have different values mod 3
+    public int get(long index, int parentValue) {
+        int difference = (get(index) - parentValue % 3 + 3) % 3;
+
+        // difference 2 -> one less than the parent (-1 mod 3)
+        return (difference == 2) ? parentValue - 1 : parentValue + difference;
+    }
+
+    public boolean isExact() {
+        return false;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Pack one value per byte into four values mod 3 per byte
+    public static byte[] pack(byte[] values) {
+
+        byte[] packed = new byte[(values.length + 3) / 4];
+
+        for(int i = 0; i < values.length; i++) {
+            if(values[i] < 0) {
+                throw new IllegalArgumentException("Unexplored state at index " + i);
+            }
+
+            packed[i >> 2] |= (values[i] % 3) << ((i & 3) << 1);
+        }
+
+        return packed;
+    }
+}
@@ -0,0 +1,70 @@
+package com.dxymf.lut;
+
+import java.io.IOException;
+
+import com.dxymf.CubeState;
+import com.dxymf.MoveTables;
+
+// LUT whose coordinate can be carried through the search with a move table instead of encoding every state from scratch
+// Only some LUTs have move tables (CornerLUT, EdgeLUT, EdgePosLUT), searches check for this interface and hasMoveTable()
+// The lookups by index and encode are the ones of LUT
+public interface MoveTableLUT {
+
+    // Load the move table from fileName (generated and saved first if the file doesn't exist)
+    void loadMoveTable(String fileName) throws IOException;
+
+    // Whether loadMoveTable was called, the other methods need the move table
+    boolean hasMoveTable();
+
+    // Coordinate after applying move m (index in MoveTables)
+    long applyMove(long coordinate, int m);
+
+    // See LUT
+    long encode(byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations);
+    int getValue(long index);
+    boolean isExact();
+
+    // Coordinate of a state
+    default long getCoordinate(byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations) {
+        return encode(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
+    }
+
+    // Index into the LUT of a coordinate (the coordinate itself unless the LUT splits it like EdgePosLUT)
+    default long getIndex(long coordinate) {
+        return coordinate;
+    }
+
+    // Retrieve value from LUT for a coordinate
+    default int getMoveCount(long coordinate) {
+        if(!isExact()) {
+            return searchMoveCount(coordinate);
+        }
+
+        return getValue(getIndex(coordinate));
+    }
+
+    // Exact value for LUTs that only store values mod 3 (see LUT.searchMoveCount) moving the coordinate with the move table
+    private int searchMoveCount(long coordinate) {
+        CubeState solved = CubeState.getSolvedState();
+        long solvedIndex = encode(solved.getCornerPositions(), solved.getCornerOrientations(), solved.getEdgePositions(), solved.getEdgeOrientations());
+
+        int moveCount = 0;
+
+        while(getIndex(coordinate) != solvedIndex) {
+            int smaller = (getValue(getIndex(coordinate)) + 2) % 3;
+
+            for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                long nextCoordinate = applyMove(coordinate, m);
+
+                if(getValue(getIndex(nextCoordinate)) == smaller) {
+                    coordinate = nextCoordinate;
+                    break;
+                }
+            }
+
+            moveCount++;
+        }
+
+        return moveCount;
+    }
+}
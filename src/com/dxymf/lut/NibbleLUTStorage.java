@@ -0,0 +1,38 @@
+package com.dxymf.lut;
+
+// LUT values packed into 4 bits each, two values per byte (even index -> low nibble, odd index -> high nibble)
+// Works because no LUT value is larger than 15 and halves the memory of the byte per value storage
+public class NibbleLUTStorage implements LUTStorage {
+
+    private byte[] data;
+    private int size;
+
+    public NibbleLUTStorage(byte[] data, int size) {
+        this.data = data;
+        this.size = size;
+    }
+
+    public int get(long index) {
+        return (data[(int) (index >> 1)] >> (((int) index & 1) << 2)) & 0xF;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    // Pack one value per byte into two values per byte
+    public static byte[] pack(byte[] values) {
+
+        byte[] packed = new byte[(values.length + 1) / 2];
+
+        for(int i = 0; i < values.length; i++) {
+            if(values[i] < 0 || values[i] > 15) {
+                throw new IllegalArgumentException("Value " + values[i] + " at index " + i + " doesn't fit into 4 bits");
+            }
+
+            packed[i >> 1] |= values[i] << ((i & 1) << 2);
+        }
+
+        return packed;
+    }
+}
@@ -0,0 +1,132 @@
+package com.dxymf.lut;
+
+// LUT for any pattern described by a PatternSpec
+// index = ((corner rank * 3^corners + corner orientations) * edge ranks + edge rank) * 2^edges + edge orientations
+// where the orientation parts are left out if orientations aren't observed
+// With only corners 0-6 this is the encoding of CornerLUT and with only edges the encoding of EdgeLUT
+// Patterns can have more states than an int can index, e.g. 8 edges with orientation (12!/4! * 2^8 = 5109350400 states)
+// or 9 and 10 edges (40874803200 and 245248819200 states), their values are stored two per byte off-heap in a BigLUTStorage
+// so 8 edges need 2.4GB, 9 edges 19GB and 10 edges 114GB (generated with BigLUTGenerator)
+public class PatternLUT extends LUT {
+
+    private PatternSpec spec;
+
+    // Observed pieces
+    private byte[] corners;
+    private byte[] edges;
+    private boolean orientation;
+
+    // Ranking of the positions of the observed pieces, null if no pieces of that kind are observed
+    private LehmerRanking cornerRanking;
+    private LehmerRanking edgeRanking;
+
+    // Number of values of each part of the index
+    private int cornerOrientationsSize;
+    private int edgeRanksSize;
+
+    public PatternLUT(PatternSpec spec) {
+        this.spec = spec;
+
+        corners = spec.getCorners();
+        edges = spec.getEdges();
+        orientation = spec.isOrientationObserved();
+
+        size = 1;
+
+        if(corners.length > 0) {
+            cornerRanking = new LehmerRanking(8, corners.length);
+            cornerOrientationsSize = orientation ? pow(3, corners.length) : 1;
+
+            size *= (long) cornerRanking.getSize() * cornerOrientationsSize;
+        }
+
+        if(edges.length > 0) {
+            edgeRanking = new LehmerRanking(12, edges.length);
+            edgeRanksSize = edgeRanking.getSize();
+
+            size *= (long) edgeRanksSize * (orientation ? 1 << edges.length : 1);
+        }
+    }
+
+
+    public PatternSpec getSpec() {
+
+        return spec;
+    }
+
+
+    public String getDescription() {
+
+        return spec.toString();
+    }
+
+
+    // Generate key from a cube state using lexicographic ranking
+    public long encode(byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations) {
+
+        long index = 0;
+
+        if(cornerRanking != null) {
+            index = cornerRanking.rank(cornerPositions, corners);
+
+            if(orientation) {
+                // Orientations are the digits of a base 3 number, the first corner is the lowest digit
+                int orientationsEncoded = 0;
+                for(int i = corners.length - 1; i >= 0; i--) {
+                    orientationsEncoded = orientationsEncoded * 3 + cornerOrientations[corners[i]];
+                }
+
+                index = index * cornerOrientationsSize + orientationsEncoded;
+            }
+        }
+
+        if(edgeRanking != null) {
+            index = index * edgeRanksSize + edgeRanking.rank(edgePositions, edges);
+
+            if(orientation) {
+                // Orientations are the digits of a binary number, the first edge is the lowest digit
+                int orientationsEncoded = 0;
+                for(int i = 0; i < edges.length; i++) {
+                    orientationsEncoded |= edgeOrientations[edges[i]] << i;
+                }
+
+                index = (index << edges.length) | orientationsEncoded;
+            }
+        }
+
+        return index;
+    }
+
+
+    // Inverse of encode, pieces that aren't observed keep their values
+    public void decode(long index, byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations) {
+
+        if(edgeRanking != null) {
+            if(orientation) {
+                for(int i = 0; i < edges.length; i++) {
+                    edgeOrientations[edges[i]] = (byte) ((index >> i) & 1);
+                }
+
+                index >>= edges.length;
+            }
+
+            edgeRanking.unrank((int) (index % edgeRanksSize), edgePositions, edges);
+            index /= edgeRanksSize;
+        }
+
+        if(cornerRanking != null) {
+            if(orientation) {
+                int orientationsEncoded = (int) (index % cornerOrientationsSize);
+
+                for(int i = 0; i < corners.length; i++) {
+                    cornerOrientations[corners[i]] = (byte) (orientationsEncoded % 3);
+                    orientationsEncoded /= 3;
+                }
+
+                index /= cornerOrientationsSize;
+            }
+
+            cornerRanking.unrank((int) index, cornerPositions, corners);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.dxymf.lut;
+
+import java.util.Arrays;
+
+// Description of a pattern database: which corners and which edges are observed
+// and whether their orientations are observed as well as their positions
+// If all pieces of a kind are given the last one is dropped because it is fully determined by the others
+public class PatternSpec {
+
+    // Observed corners (0-7) and edges (0-11)
+    private byte[] corners;
+    private byte[] edges;
+
+    // Whether the orientations of the observed pieces are part of the pattern
+    private boolean orientation;
+
+    public PatternSpec(byte[] corners, byte[] edges, boolean orientation) {
+        this.corners = checkPieces(corners, 8, "corner");
+        this.edges = checkPieces(edges, 12, "edge");
+        this.orientation = orientation;
+
+        if(this.corners.length == 0 && this.edges.length == 0) {
+            throw new IllegalArgumentException("Pattern must observe at least one piece");
+        }
+    }
+
+    // Positions and orientations of corners
+    public static PatternSpec corners(byte... corners) {
+        return new PatternSpec(corners, new byte[0], true);
+    }
+
+    // Positions and orientations of edges
+    public static PatternSpec edges(byte... edges) {
+        return new PatternSpec(new byte[0], edges, true);
+    }
+
+    // Positions of edges only
+    public static PatternSpec edgePositions(byte... edges) {
+        return new PatternSpec(new byte[0], edges, false);
+    }
+
+
+    public byte[] getCorners() {
+        return corners.clone();
+    }
+
+    public byte[] getEdges() {
+        return edges.clone();
+    }
+
+    public boolean isOrientationObserved() {
+        return orientation;
+    }
+
+
+    public String toString() {
+        return "corners " + Arrays.toString(corners) + " edges " + Arrays.toString(edges) + (orientation ? " with orientation" : " without orientation");
+    }
+
+
+    private static byte[] checkPieces(byte[] pieces, int pieceCount, String name) {
+
+        boolean[] seen = new boolean[pieceCount];
+
+        for(byte piece : pieces) {
+            if(piece < 0 || piece >= pieceCount || seen[piece]) {
+                throw new IllegalArgumentException("Invalid " + name + " list " + Arrays.toString(pieces));
+            }
+            seen[piece] = true;
+        }
+
+        if(pieces.length == pieceCount) {
+            return Arrays.copyOf(pieces, pieceCount - 1);
+        }
+
+        return pieces.clone();
+    }
+}
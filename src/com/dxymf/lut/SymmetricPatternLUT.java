@@ -0,0 +1,329 @@
+package com.dxymf.lut;
+
+import java.util.Arrays;
+
+import com.dxymf.SymmetryTables;
+
+// LUT for a PatternSpec that only stores one state of every class of states that are symmetric to each other
+// Conjugating a state by one of the 48 symmetries of the cube (see SymmetryTables) doesn't change the number of moves
+// needed to solve it, so every state is mapped to a representative of its class before indexing
+// Only symmetries that map the observed pieces onto themselves can be used (all 48 for the corner pattern)
+// index = class of the positions * (orientations) + orientations after conjugating the positions to their representative
+// where the class of the positions comes from a table with an entry for every ranking of the positions
+public class SymmetricPatternLUT extends LUT {
+
+    // Largest number of position rankings the class table is built for and largest number of classes
+    private static final int MAX_RANKS = 1 << 25;
+    private static final int MAX_CLASSES = 1 << 24;
+
+    // Bit of a class entry that marks classes whose representative is mapped onto itself by other symmetries than the identity
+    private static final int SYMMETRIC_REPRESENTATIVE = 1 << 6;
+
+    // Twist of a corner at position p with orientation o: TWISTS[p * 3 + o]
+    // The twists of all corners of a solvable cube add up to a multiple of 3
+    private static final byte[] TWISTS = {0, 1, 2, 0, 2, 1, 0, 1, 2, 0, 2, 1, 0, 2, 1, 0, 1, 2, 0, 2, 1, 0, 1, 2};
+
+    private PatternSpec spec;
+
+    // Observed pieces (only corners or only edges)
+    private byte[] pieces;
+    private boolean corners;
+    private boolean orientation;
+
+    // Number of corners/edges on the cube and orientations of each of them
+    private int pieceCount;
+    private int orientationCount;
+
+    // The piece that isn't in pieces if all but one piece are observed (it is determined by the others), -1 otherwise
+    private int missingPiece = -1;
+
+    private LehmerRanking ranking;
+
+    // Symmetries that map the observed pieces onto themselves
+    private int[] symmetries;
+
+    // Entry for every ranking of the positions (one array so a lookup is only one cache miss):
+    // class << 7 | SYMMETRIC_REPRESENTATIVE if set | symmetry that conjugates the positions to the representative of the class
+    private int[] classEntries;
+
+    // Ranking of the representative of every class
+    private int[] representatives;
+
+    // Symmetries that map the representative of class c onto itself: stabilizers[stabilizerStarts[c]] to stabilizers[stabilizerStarts[c + 1] - 1]
+    // (only the identity for most classes)
+    private int[] stabilizerStarts;
+    private byte[] stabilizers;
+
+    // Number of values for the orientations of the observed pieces
+    private int orientationsSize;
+
+    public SymmetricPatternLUT(PatternSpec spec) {
+        this.spec = spec;
+
+        byte[] cornerPieces = spec.getCorners();
+        byte[] edgePieces = spec.getEdges();
+
+        if(cornerPieces.length > 0 && edgePieces.length > 0) {
+            throw new IllegalArgumentException("Symmetric pattern " + spec + " must observe only corners or only edges");
+        }
+
+        corners = cornerPieces.length > 0;
+        pieces = corners ? cornerPieces : edgePieces;
+        orientation = spec.isOrientationObserved();
+        pieceCount = corners ? 8 : 12;
+        orientationCount = corners ? 3 : 2;
+
+        // PatternSpec drops the last piece if all are given
+        if(pieces.length == pieceCount - 1) {
+            missingPiece = pieceCount * (pieceCount - 1) / 2;
+            for(byte piece : pieces) missingPiece -= piece;
+        }
+
+        ranking = new LehmerRanking(pieceCount, pieces.length);
+
+        if(ranking.getSize() > MAX_RANKS) {
+            throw new IllegalArgumentException("Pattern " + spec + " has too many positions (" + ranking.getSize() + ") for a symmetric LUT");
+        }
+
+        orientationsSize = orientation ? pow(orientationCount, pieces.length) : 1;
+
+        findSymmetries();
+        buildClasses();
+
+        size = (long) representatives.length * orientationsSize;
+    }
+
+
+    public PatternSpec getSpec() {
+
+        return spec;
+    }
+
+
+    public String getDescription() {
+
+        return spec + " reduced by " + symmetries.length + " symmetries";
+    }
+
+
+    // Number of symmetries the states are reduced by
+    public int getSymmetryCount() {
+
+        return symmetries.length;
+    }
+
+
+    // Number of classes of the positions of the observed pieces
+    public int getClassCount() {
+
+        return representatives.length;
+    }
+
+
+    // Conjugate the state so the positions are the representative of their class and encode that state
+    public long encode(byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations) {
+
+        byte[] positions = corners ? cornerPositions : edgePositions;
+
+        int entry = classEntries[ranking.rank(positions, pieces)];
+        int index = entry >>> 7;
+
+        if(!orientation) return index;
+
+        byte[] orientations = corners ? cornerOrientations : edgeOrientations;
+        int symmetry = entry & 63;
+
+        if((entry & SYMMETRIC_REPRESENTATIVE) == 0) {
+            return (long) index * orientationsSize + encodeOrientations(symmetry, positions, orientations);
+        }
+
+        // If symmetries map the representative onto itself the orientations can be conjugated by each of them
+        // and the smallest result is used, so all symmetric states have the same key
+        int orientationsEncoded = Integer.MAX_VALUE;
+        for(int i = stabilizerStarts[index]; i < stabilizerStarts[index + 1]; i++) {
+            int s = SymmetryTables.product(stabilizers[i], symmetry);
+
+            orientationsEncoded = Math.min(orientationsEncoded, encodeOrientations(s, positions, orientations));
+        }
+
+        return (long) index * orientationsSize + orientationsEncoded;
+    }
+
+
+    // Orientations of the observed pieces after conjugating by symmetry s
+    private int encodeOrientations(int s, byte[] positions, byte[] orientations) {
+
+        int inverse = SymmetryTables.inverse(s);
+
+        // The orientations are the digits of a number, the first piece is the lowest digit
+        // The piece that is conjugated onto a piece is the one the inverse symmetry moves that piece to
+        int orientationsEncoded = 0;
+        for(int i = pieces.length - 1; i >= 0; i--) {
+            int piece = pieceAfter(inverse, pieces[i]);
+
+            orientationsEncoded = orientationsEncoded * orientationCount + conjugatedOrientation(s, piece, positions[piece], orientations[piece]);
+        }
+
+        return orientationsEncoded;
+    }
+
+
+    // Sets the observed pieces to the representative state with key index
+    // If all but one piece are observed the last piece is set as well, other pieces keep their values
+    public void decode(long index, byte[] cornerPositions, byte[] cornerOrientations, byte[] edgePositions, byte[] edgeOrientations) {
+
+        byte[] positions = corners ? cornerPositions : edgePositions;
+        byte[] orientations = corners ? cornerOrientations : edgeOrientations;
+
+        int orientationsEncoded = (int) (index % orientationsSize);
+
+        unrankPositions(representatives[(int) (index / orientationsSize)], positions);
+
+        if(!orientation) return;
+
+        for(int i = 0; i < pieces.length; i++) {
+            orientations[pieces[i]] = (byte) (orientationsEncoded % orientationCount);
+            orientationsEncoded /= orientationCount;
+        }
+
+        // The orientation of the last piece is determined by the others
+        if(missingPiece != -1) {
+            if(corners) {
+                int twists = 0;
+                for(byte piece : pieces) twists += TWISTS[positions[piece] * 3 + orientations[piece]];
+
+                for(byte o = 0; o < 3; o++) {
+                    if((twists + TWISTS[positions[missingPiece] * 3 + o]) % 3 == 0) orientations[missingPiece] = o;
+                }
+            } else {
+                int flips = 0;
+                for(byte piece : pieces) flips += orientations[piece];
+
+                orientations[missingPiece] = (byte) (flips & 1);
+            }
+        }
+    }
+
+
+    // Keep the symmetries that map the observed pieces (including a missing piece) onto themselves
+    private void findSymmetries() {
+
+        boolean[] observed = new boolean[pieceCount];
+        for(byte piece : pieces) observed[piece] = true;
+        if(missingPiece != -1) observed[missingPiece] = true;
+
+        int[] found = new int[SymmetryTables.SYMMETRY_COUNT];
+        int count = 0;
+
+        for(int s = 0; s < SymmetryTables.SYMMETRY_COUNT; s++) {
+            boolean mapsOntoItself = true;
+            for(int piece = 0; piece < pieceCount; piece++) {
+                if(observed[piece] && !observed[pieceAfter(s, piece)]) mapsOntoItself = false;
+            }
+
+            if(mapsOntoItself) found[count++] = s;
+        }
+
+        symmetries = Arrays.copyOf(found, count);
+    }
+
+
+    // The representative of a class is its smallest ranking, classes are numbered in the order of their representatives
+    private void buildClasses() {
+
+        int rankCount = ranking.getSize();
+
+        classEntries = new int[rankCount];
+
+        int[] foundRepresentatives = new int[rankCount];
+        int classCount = 0;
+
+        int[] foundStabilizerStarts = new int[rankCount + 1];
+        byte[] foundStabilizers = new byte[symmetries.length];
+        byte[] stabilizer = new byte[symmetries.length];
+        int stabilizerCount = 0;
+
+        byte[] positions = new byte[pieceCount];
+        byte[] conjugated = new byte[pieceCount];
+
+        for(int rank = 0; rank < rankCount; rank++) {
+            unrankPositions(rank, positions);
+
+            int smallest = rank;
+            int smallestSymmetry = 0;
+            int stabilizerSize = 0;
+
+            for(int s : symmetries) {
+                for(byte piece : pieces) {
+                    conjugated[pieceAfter(s, piece)] = (byte) pieceAfter(s, positions[piece]);
+                }
+                if(missingPiece != -1) {
+                    conjugated[pieceAfter(s, missingPiece)] = (byte) pieceAfter(s, positions[missingPiece]);
+                }
+
+                int conjugatedRank = ranking.rank(conjugated, pieces);
+                if(conjugatedRank == rank) {
+                    stabilizer[stabilizerSize++] = (byte) s;
+                }
+                if(conjugatedRank < smallest) {
+                    smallest = conjugatedRank;
+                    smallestSymmetry = s;
+                }
+            }
+
+            if(smallest == rank) {
+                if(classCount == MAX_CLASSES) {
+                    throw new IllegalArgumentException("Pattern " + spec + " has too many classes for a symmetric LUT");
+                }
+
+                foundRepresentatives[classCount] = rank;
+                classEntries[rank] = (classCount++ << 7) | (stabilizerSize > 1 ? SYMMETRIC_REPRESENTATIVE : 0);
+
+                if(stabilizerCount + stabilizerSize > foundStabilizers.length) {
+                    foundStabilizers = Arrays.copyOf(foundStabilizers, 2 * (stabilizerCount + stabilizerSize));
+                }
+                System.arraycopy(stabilizer, 0, foundStabilizers, stabilizerCount, stabilizerSize);
+                stabilizerCount += stabilizerSize;
+                foundStabilizerStarts[classCount] = stabilizerCount;
+            } else {
+                // The representative has a smaller ranking so its class is already known
+                classEntries[rank] = (classEntries[smallest] & ~63) | smallestSymmetry;
+            }
+        }
+
+        representatives = Arrays.copyOf(foundRepresentatives, classCount);
+        stabilizerStarts = Arrays.copyOf(foundStabilizerStarts, classCount + 1);
+        stabilizers = Arrays.copyOf(foundStabilizers, stabilizerCount);
+    }
+
+
+    // Write the positions with ranking rank, including the position of a missing piece
+    private void unrankPositions(int rank, byte[] positions) {
+
+        ranking.unrank(rank, positions, pieces);
+
+        if(missingPiece != -1) {
+            int missingPosition = pieceCount * (pieceCount - 1) / 2;
+            for(byte piece : pieces) missingPosition -= positions[piece];
+
+            positions[missingPiece] = (byte) missingPosition;
+        }
+    }
+
+
+    // Piece (or position) that symmetry s moves piece (or position) p to
+    private int pieceAfter(int s, int p) {
+
+        return corners ? SymmetryTables.SYMMETRY_CORNERS[s * 8 + p] : SymmetryTables.SYMMETRY_EDGES[s * 12 + p];
+    }
+
+
+    private int conjugatedOrientation(int s, int piece, int position, int o) {
+
+        if(corners) {
+            return SymmetryTables.CORNER_ORIENTATIONS[((s * 8 + piece) * 8 + position) * 3 + o];
+        }
+
+        return SymmetryTables.EDGE_ORIENTATIONS[((s * 12 + piece) * 12 + position) * 2 + o];
+    }
+}
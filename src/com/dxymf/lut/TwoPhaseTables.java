@@ -0,0 +1,383 @@
+package com.dxymf.lut;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.dxymf.CubeState;
+import com.dxymf.MoveTables;
+
+// Move and pruning tables of the two-phase solver (see TwoPhaseSolver)
+// Phase 1 brings the cube into the subgroup <U, D, R2, L2, F2, B2>:
+// all corner and edge orientations are 0 and the slice edges (4-7) are in the middle layer
+// Phase 2 solves the cube with the moves of the subgroup:
+// permutation of the corners, of the U and D edges (0-3, 8-11) and of the slice edges
+// Move tables are generated on every load, the pruning tables are generated once and saved as a LUT file
+public class TwoPhaseTables {
+
+    // Moves of the subgroup: U, U2, U', D, D2, D', R2, L2, F2, B2 (indices in MoveTables)
+    public static final int[] PHASE2_MOVES = {3, 4, 5, 12, 13, 14, 1, 10, 7, 16};
+
+    // Number of values of the coordinates
+    private static final int CORNER_ORIENTATIONS = 6561; // 3^8, orientation of the corner at every position
+    private static final int EDGE_ORIENTATIONS = 4096; // 2^12, orientation of the edge at every position
+    private static final int SLICE_POSITIONS = 495; // 12 choose 4, positions of the slice edges
+    private static final int CORNER_PERMUTATIONS = 40320; // 8!
+    private static final int EDGE_PERMUTATIONS = 40320; // 8!, only the U and D edges
+    private static final int SLICE_PERMUTATIONS = 24; // 4!
+
+    // Description in the header of the file of the pruning tables and their total number of values
+    private static final String PRUNING_TABLES_DESCRIPTION = "two-phase pruning tables";
+    private static final int PRUNING_TABLES_SIZE = (CORNER_ORIENTATIONS + EDGE_ORIENTATIONS) * SLICE_POSITIONS + (CORNER_PERMUTATIONS + EDGE_PERMUTATIONS) * SLICE_PERMUTATIONS;
+
+    // U and D edges, their positions 0-3, 8-11 are mapped to 0-7 for ranking
+    private static final byte[] UD_EDGES = {0, 1, 2, 3, 8, 9, 10, 11};
+
+    // Tables that have already been loaded
+    private static final Map<String, TwoPhaseTables> loadedTables = new HashMap<>();
+
+    private static final LehmerRanking eightRanking = new LehmerRanking(8, 7);
+    private static final LehmerRanking fourRanking = new LehmerRanking(4, 3);
+
+    // Phase 1 move tables: [coordinate * 18 + move]
+    private int[] cornerOrientationMoves;
+    private int[] edgeOrientationMoves;
+    private int[] slicePositionMoves;
+
+    // Phase 2 move tables: [coordinate * 10 + i] for move PHASE2_MOVES[i]
+    private int[] cornerPermutationMoves;
+    private int[] edgePermutationMoves;
+    private int[] slicePermutationMoves;
+
+    // Pruning tables, number of moves needed to solve both coordinates (-1 -> unreachable)
+    private byte[] cornerSlicePruning; // corner orientations * SLICE_POSITIONS + slice positions
+    private byte[] edgeSlicePruning; // edge orientations * SLICE_POSITIONS + slice positions
+    private byte[] cornerPermutationPruning; // corner permutation * SLICE_PERMUTATIONS + slice permutation
+    private byte[] edgePermutationPruning; // edge permutation * SLICE_PERMUTATIONS + slice permutation
+
+    // Coordinate of the solved cube's slice positions (the other coordinates are 0 when solved)
+    private int solvedSlicePositions;
+
+    private TwoPhaseTables() {
+        CubeState solved = CubeState.getSolvedState();
+        solvedSlicePositions = slicePositions(solved.getEdgePositions());
+
+        generateMoveTables();
+    }
+
+
+    // Load the pruning tables from fileName, generate and save them there first if it doesn't exist yet
+    public static synchronized TwoPhaseTables load(String fileName) throws IOException {
+
+        TwoPhaseTables tables = loadedTables.get(fileName);
+        if(tables != null) return tables;
+
+        tables = new TwoPhaseTables();
+
+        if(new File(fileName).exists()) {
+            tables.loadPruningTables(fileName);
+        } else {
+            tables.generatePruningTables();
+            tables.savePruningTables(fileName);
+        }
+
+        loadedTables.put(fileName, tables);
+
+        return tables;
+    }
+
+
+    // Coordinates of a cube
+
+    // Orientation of the corner at position p is digit p in base 3
+    public static int cornerOrientations(byte[] cornerPositions, byte[] cornerOrientations) {
+        int coordinate = 0;
+        for(int i = 0; i < 8; i++) {
+            coordinate += cornerOrientations[i] * LUT.pow(3, cornerPositions[i]);
+        }
+        return coordinate;
+    }
+
+    // Orientation of the edge at position p is bit p
+    public static int edgeOrientations(byte[] edgePositions, byte[] edgeOrientations) {
+        int coordinate = 0;
+        for(int i = 0; i < 12; i++) {
+            coordinate |= edgeOrientations[i] << edgePositions[i];
+        }
+        return coordinate;
+    }
+
+    // Rank of the set of positions of the slice edges
+    public static int slicePositions(byte[] edgePositions) {
+        int mask = 0;
+        for(int i = 4; i < 8; i++) {
+            mask |= 1 << edgePositions[i];
+        }
+        return rankCombination(mask);
+    }
+
+    // Only valid in the subgroup
+    public static int cornerPermutation(byte[] cornerPositions) {
+        return eightRanking.rank(cornerPositions);
+    }
+
+    // Only valid in the subgroup
+    public static int edgePermutation(byte[] edgePositions) {
+        byte[] positions = new byte[8];
+        for(int i = 0; i < 8; i++) {
+            int position = edgePositions[UD_EDGES[i]];
+            positions[i] = (byte) (position < 4 ? position : position - 4);
+        }
+        return eightRanking.rank(positions);
+    }
+
+    // Only valid in the subgroup
+    public static int slicePermutation(byte[] edgePositions) {
+        byte[] positions = new byte[4];
+        for(int i = 0; i < 4; i++) {
+            positions[i] = (byte) (edgePositions[4 + i] - 4);
+        }
+        return fourRanking.rank(positions);
+    }
+
+
+    // Moving coordinates, m is an index in MoveTables for phase 1 and an index in PHASE2_MOVES for phase 2
+
+    public int moveCornerOrientations(int coordinate, int m) {
+        return cornerOrientationMoves[coordinate * MoveTables.MOVE_COUNT + m];
+    }
+
+    public int moveEdgeOrientations(int coordinate, int m) {
+        return edgeOrientationMoves[coordinate * MoveTables.MOVE_COUNT + m];
+    }
+
+    public int moveSlicePositions(int coordinate, int m) {
+        return slicePositionMoves[coordinate * MoveTables.MOVE_COUNT + m];
+    }
+
+    public int moveCornerPermutation(int coordinate, int i) {
+        return cornerPermutationMoves[coordinate * PHASE2_MOVES.length + i];
+    }
+
+    public int moveEdgePermutation(int coordinate, int i) {
+        return edgePermutationMoves[coordinate * PHASE2_MOVES.length + i];
+    }
+
+    public int moveSlicePermutation(int coordinate, int i) {
+        return slicePermutationMoves[coordinate * PHASE2_MOVES.length + i];
+    }
+
+
+    // Lower bound for the number of moves to get into the subgroup, 0 only in the subgroup
+    public int phase1Distance(int cornerOrientations, int edgeOrientations, int slicePositions) {
+        return Math.max(cornerSlicePruning[cornerOrientations * SLICE_POSITIONS + slicePositions], edgeSlicePruning[edgeOrientations * SLICE_POSITIONS + slicePositions]);
+    }
+
+    // Lower bound for the number of subgroup moves to solve the cube, 0 only if it is solved
+    public int phase2Distance(int cornerPermutation, int edgePermutation, int slicePermutation) {
+        return Math.max(cornerPermutationPruning[cornerPermutation * SLICE_PERMUTATIONS + slicePermutation], edgePermutationPruning[edgePermutation * SLICE_PERMUTATIONS + slicePermutation]);
+    }
+
+
+    private void generateMoveTables() {
+
+        int[] phase1Moves = new int[MoveTables.MOVE_COUNT];
+        for(int m = 0; m < phase1Moves.length; m++) {
+            phase1Moves[m] = m;
+        }
+
+        cornerOrientationMoves = generateMoveTable(CORNER_ORIENTATIONS, phase1Moves, (c, cP, cO, eP, eO) -> {
+            for(int i = 0; i < 8; i++) {
+                cO[i] = (byte) (c / LUT.pow(3, i) % 3);
+            }
+        }, (cP, cO, eP, eO) -> cornerOrientations(cP, cO));
+
+        edgeOrientationMoves = generateMoveTable(EDGE_ORIENTATIONS, phase1Moves, (c, cP, cO, eP, eO) -> {
+            for(int i = 0; i < 12; i++) {
+                eO[i] = (byte) ((c >> i) & 1);
+            }
+        }, (cP, cO, eP, eO) -> edgeOrientations(eP, eO));
+
+        slicePositionMoves = generateMoveTable(SLICE_POSITIONS, phase1Moves, (c, cP, cO, eP, eO) -> {
+            // Slice edges on the positions of the combination, the other edges on the remaining positions
+            int mask = unrankCombination(c);
+            int sliceEdge = 4;
+            int otherEdge = 0;
+            for(int position = 0; position < 12; position++) {
+                if((mask & (1 << position)) != 0) {
+                    eP[sliceEdge++] = (byte) position;
+                } else {
+                    eP[UD_EDGES[otherEdge++]] = (byte) position;
+                }
+            }
+        }, (cP, cO, eP, eO) -> slicePositions(eP));
+
+        cornerPermutationMoves = generateMoveTable(CORNER_PERMUTATIONS, PHASE2_MOVES, (c, cP, cO, eP, eO) -> {
+            eightRanking.unrank(c, cP);
+        }, (cP, cO, eP, eO) -> cornerPermutation(cP));
+
+        edgePermutationMoves = generateMoveTable(EDGE_PERMUTATIONS, PHASE2_MOVES, (c, cP, cO, eP, eO) -> {
+            byte[] positions = new byte[8];
+            eightRanking.unrank(c, positions);
+            for(int i = 0; i < 8; i++) {
+                eP[UD_EDGES[i]] = (byte) (positions[i] < 4 ? positions[i] : positions[i] + 4);
+            }
+        }, (cP, cO, eP, eO) -> edgePermutation(eP));
+
+        slicePermutationMoves = generateMoveTable(SLICE_PERMUTATIONS, PHASE2_MOVES, (c, cP, cO, eP, eO) -> {
+            byte[] positions = new byte[4];
+            fourRanking.unrank(c, positions);
+            for(int i = 0; i < 4; i++) {
+                eP[4 + i] = (byte) (positions[i] + 4);
+            }
+        }, (cP, cO, eP, eO) -> slicePermutation(eP));
+    }
+
+
+    // Sets the pieces described by a coordinate in the arrays of a solved cube
+    private interface Decoder {
+        void decode(int coordinate, byte[] cP, byte[] cO, byte[] eP, byte[] eO);
+    }
+
+    private interface Encoder {
+        int encode(byte[] cP, byte[] cO, byte[] eP, byte[] eO);
+    }
+
+    // [coordinate * moves.length + i] -> coordinate after move moves[i]
+    private static int[] generateMoveTable(int size, int[] moves, Decoder decoder, Encoder encoder) {
+
+        int[] table = new int[size * moves.length];
+
+        for(int coordinate = 0; coordinate < size; coordinate++) {
+            for(int i = 0; i < moves.length; i++) {
+                CubeState state = CubeState.getSolvedState();
+                byte[] cP = state.getCornerPositions();
+                byte[] cO = state.getCornerOrientations();
+                byte[] eP = state.getEdgePositions();
+                byte[] eO = state.getEdgeOrientations();
+
+                decoder.decode(coordinate, cP, cO, eP, eO);
+                MoveTables.applyMove(cP, cO, eP, eO, moves[i]);
+
+                table[coordinate * moves.length + i] = encoder.encode(cP, cO, eP, eO);
+            }
+        }
+
+        return table;
+    }
+
+
+    private void generatePruningTables() {
+
+        System.out.println("Generating two-phase pruning tables");
+        long t1 = System.currentTimeMillis();
+
+        cornerSlicePruning = generatePruningTable(cornerOrientationMoves, slicePositionMoves, SLICE_POSITIONS, MoveTables.MOVE_COUNT, solvedSlicePositions);
+        edgeSlicePruning = generatePruningTable(edgeOrientationMoves, slicePositionMoves, SLICE_POSITIONS, MoveTables.MOVE_COUNT, solvedSlicePositions);
+        cornerPermutationPruning = generatePruningTable(cornerPermutationMoves, slicePermutationMoves, SLICE_PERMUTATIONS, PHASE2_MOVES.length, 0);
+        edgePermutationPruning = generatePruningTable(edgePermutationMoves, slicePermutationMoves, SLICE_PERMUTATIONS, PHASE2_MOVES.length, 0);
+
+        System.out.println("Time taken: " + (System.currentTimeMillis() - t1) + "ms");
+    }
+
+
+    // Table over pairs of coordinates a * sizeB + b, filled depth by depth from the solved pair (0, solvedB)
+    private static byte[] generatePruningTable(int[] movesA, int[] movesB, int sizeB, int moveCount, int solvedB) {
+
+        int sizeA = movesA.length / moveCount;
+
+        byte[] table = new byte[sizeA * sizeB];
+        Arrays.fill(table, (byte) -1);
+        table[solvedB] = 0;
+
+        boolean changed = true;
+        for(int depth = 0; changed; depth++) {
+            changed = false;
+
+            for(int index = 0; index < table.length; index++) {
+                if(table[index] != depth) continue;
+
+                int a = index / sizeB;
+                int b = index % sizeB;
+
+                for(int m = 0; m < moveCount; m++) {
+                    int child = movesA[a * moveCount + m] * sizeB + movesB[b * moveCount + m];
+
+                    if(table[child] == -1) {
+                        table[child] = (byte) (depth + 1);
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        return table;
+    }
+
+
+    // The four pruning tables one after another in one LUT file (see LUTFile)
+    private void savePruningTables(String fileName) throws IOException {
+
+        System.out.println("Saving two-phase pruning tables");
+
+        byte[] values = new byte[PRUNING_TABLES_SIZE];
+
+        int offset = 0;
+        for(byte[] table : new byte[][] {cornerSlicePruning, edgeSlicePruning, cornerPermutationPruning, edgePermutationPruning}) {
+            System.arraycopy(table, 0, values, offset, table.length);
+            offset += table.length;
+        }
+
+        LUTFile.save(PRUNING_TABLES_DESCRIPTION, values, LUTFile.Encoding.BYTES, fileName);
+    }
+
+
+    // The header and checksum of the file are verified, so a file of older tables or a corrupted file isn't used
+    private void loadPruningTables(String fileName) throws IOException {
+
+        byte[] values = LUTFile.load(PRUNING_TABLES_DESCRIPTION, PRUNING_TABLES_SIZE, fileName);
+
+        int offset = 0;
+        cornerSlicePruning = Arrays.copyOfRange(values, offset, offset += CORNER_ORIENTATIONS * SLICE_POSITIONS);
+        edgeSlicePruning = Arrays.copyOfRange(values, offset, offset += EDGE_ORIENTATIONS * SLICE_POSITIONS);
+        cornerPermutationPruning = Arrays.copyOfRange(values, offset, offset += CORNER_PERMUTATIONS * SLICE_PERMUTATIONS);
+        edgePermutationPruning = Arrays.copyOfRange(values, offset, offset += EDGE_PERMUTATIONS * SLICE_PERMUTATIONS);
+    }
+
+
+    // Rank of a set of 4 of 12 positions in the combinatorial number system
+    // (sum of (position choose k) for the k-th smallest position, k = 1-4)
+    private static int rankCombination(int mask) {
+        int rank = 0;
+        int k = 1;
+        for(int position = 0; position < 12; position++) {
+            if((mask & (1 << position)) != 0) {
+                rank += choose(position, k++);
+            }
+        }
+        return rank;
+    }
+
+    // Inverse of rankCombination, the largest positions are found first
+    private static int unrankCombination(int rank) {
+        int mask = 0;
+        int position = 11;
+        for(int k = 4; k >= 1; k--) {
+            while(choose(position, k) > rank) {
+                position--;
+            }
+            rank -= choose(position, k);
+            mask |= 1 << position;
+            position--;
+        }
+        return mask;
+    }
+
+    // n choose k
+    private static int choose(int n, int k) {
+        if(k > n) return 0;
+        return LUT.pick(n, k) / LUT.factorial(k);
+    }
+}
@@ -0,0 +1,89 @@
+package com.dxymf.lut.generating;
+
+import java.io.IOException;
+
+import com.dxymf.CubeState;
+import com.dxymf.lut.BigLUTStorage;
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.LUTFile;
+
+// Generates the table of a LUT with more than Integer.MAX_VALUE values (e.g. a PatternLUT of 8 edges with orientation)
+// by scanning the whole table depth by depth like ParallelLUTGenerator (see DepthScan),
+// but with the values stored two per byte off-heap while generating
+// The table is either kept in direct memory or in a scratch file that is mapped into memory,
+// the scratch file lets the OS write parts of the table to disk so tables larger than the memory can be generated
+public class BigLUTGenerator {
+
+    // Values must fit into 4 bits and BigLUTStorage.EMPTY marks unexplored states
+    private static final int MAX_DEPTH = BigLUTStorage.EMPTY - 1;
+
+    // LUT that defines the encoding of the states
+    private LUT pattern;
+
+    // Number of threads scanning the table
+    private int threads;
+
+    // Data of the LUT
+    private BigLUTStorage lut;
+
+    public BigLUTGenerator(LUT pattern, int threads) {
+        this.pattern = pattern;
+        this.threads = threads;
+    }
+
+    public BigLUTGenerator(LUT pattern) {
+        this(pattern, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    // Generate PDB in direct memory (needs getSize() / 2 bytes of direct memory, see -XX:MaxDirectMemorySize)
+    public void generateLUT() {
+
+        generate(BigLUTStorage.allocate(pattern.getSize()));
+    }
+
+
+    // Generate PDB in scratchFileName, which is overwritten and can be deleted after saving
+    public void generateLUT(String scratchFileName) throws IOException {
+
+        generate(BigLUTStorage.create(scratchFileName, pattern.getSize()));
+    }
+
+
+    private void generate(BigLUTStorage storage) {
+
+        lut = storage;
+
+        System.out.println("Starting generating LUT with " + pattern.getSize() + " values with " + threads + " threads");
+        long t1 = System.currentTimeMillis();
+
+        // Add solved state to LUT with depth 0
+        CubeState solved = CubeState.getSolvedState();
+        lut.setIfEmpty(pattern.encode(solved.getCornerPositions(), solved.getCornerOrientations(), solved.getEdgePositions(), solved.getEdgeOrientations()), 0);
+
+        DepthScan.Table table = new DepthScan.Table() {
+            public int get(long index) {
+                return lut.get(index);
+            }
+
+            // Two values share a byte, so unlike in ParallelLUTGenerator the write has to be atomic
+            public void setIfEmpty(long index, int value) {
+                lut.setIfEmpty(index, value);
+            }
+        };
+
+        long totalStates = new DepthScan(pattern, table, MAX_DEPTH).run(threads);
+
+        System.out.println("Done generating LUT");
+        System.out.println("Time taken: " + (System.currentTimeMillis() - t1) + "ms");
+        System.out.println("Number of unique states: " + totalStates);
+    }
+
+
+    // Save LUT to binary file with two values per byte (load with LUT.loadLUT or mapLUT)
+    // Indices that encode never returns keep the value BigLUTStorage.EMPTY
+    public void saveLUT(String fileName) throws IOException {
+
+        LUTFile.save(pattern, lut, fileName);
+    }
+}
@@ -0,0 +1,135 @@
+package com.dxymf.lut.generating;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dxymf.CubeState;
+import com.dxymf.MoveTables;
+import com.dxymf.lut.LUT;
+
+// Scan of a whole table depth by depth instead of a queue, used by ParallelLUTGenerator and BigLUTGenerator
+// Every index at the current depth is decoded, all 18 moves are applied and unseen children get depth + 1
+// The scan is split into chunks that are processed by all threads
+class DepthScan {
+
+    // Number of indices per chunk of work
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    // Values of the table that is generated
+    interface Table {
+
+        // Value at index
+        int get(long index);
+
+        // Set the value at index if the state hasn't been explored yet, called by all threads at once
+        void setIfEmpty(long index, int value);
+    }
+
+    // LUT that defines the encoding of the states
+    private LUT pattern;
+
+    private Table table;
+
+    // Largest depth the table can store
+    private int maxDepth;
+
+    DepthScan(LUT pattern, Table table, int maxDepth) {
+        this.pattern = pattern;
+        this.table = table;
+        this.maxDepth = maxDepth;
+    }
+
+
+    // Scan depth by depth with threads threads until a depth has no states, the solved state must already have depth 0
+    // Returns the number of unique states
+    long run(int threads) {
+
+        long t1 = System.currentTimeMillis();
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try{
+            long totalStates = 0;
+
+            // Stop at the first depth without any states
+            for(int depth = 0; ; depth++) {
+                long states = scanDepth(executor, threads, depth);
+                if(states == 0) break;
+
+                totalStates += states;
+
+                System.out.println("Depth " + depth + ": " + states + " states after " + (System.currentTimeMillis() - t1) + "ms");
+            }
+
+            return totalStates;
+
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+
+    // Expand all states at depth, returns the number of states at depth
+    // (counting the states found at depth + 1 instead would count states twice when two threads find them at once)
+    private long scanDepth(ExecutorService executor, int threads, int depth) {
+
+        AtomicLong nextChunk = new AtomicLong();
+        long chunkCount = (pattern.getSize() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        List<Future<Long>> workers = new ArrayList<>();
+
+        for(int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                long states = 0;
+
+                // Each thread decodes into its own cube arrays
+                CubeState solved = CubeState.getSolvedState();
+                byte[] cP = solved.getCornerPositions();
+                byte[] cO = solved.getCornerOrientations();
+                byte[] eP = solved.getEdgePositions();
+                byte[] eO = solved.getEdgeOrientations();
+
+                for(long chunk = nextChunk.getAndIncrement(); chunk < chunkCount; chunk = nextChunk.getAndIncrement()) {
+                    long end = Math.min(pattern.getSize(), (chunk + 1) * CHUNK_SIZE);
+
+                    for(long index = chunk * CHUNK_SIZE; index < end; index++) {
+                        if(table.get(index) != depth) continue;
+
+                        if(depth == maxDepth) {
+                            throw new IllegalStateException("Pattern " + pattern.getDescription() + " has states deeper than " + maxDepth + " moves");
+                        }
+
+                        states++;
+                        pattern.decode(index, cP, cO, eP, eO);
+
+                        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                            MoveTables.applyMove(cP, cO, eP, eO, m);
+
+                            table.setIfEmpty(pattern.encode(cP, cO, eP, eO), depth + 1);
+
+                            MoveTables.applyMove(cP, cO, eP, eO, MoveTables.inverse(m));
+                        }
+                    }
+                }
+
+                return states;
+            }));
+        }
+
+        // Waiting for all workers also makes their writes visible for the next depth
+        long states = 0;
+        for(Future<Long> worker : workers) {
+            try{
+                states += worker.get();
+            } catch(Exception e) {
+                throw new IllegalStateException("Scanning depth " + depth + " failed", e);
+            }
+        }
+
+        return states;
+    }
+}
@@ -0,0 +1,64 @@
+package com.dxymf.lut.generating;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import com.dxymf.CubeState;
+import com.dxymf.MoveTables;
+import com.dxymf.lut.LUT;
+
+// BFS over the indices of a LUT that queues plain ints instead of state objects
+// States are recreated from their index with LUT.decode when they are taken from the queue
+public class IndexBFS {
+
+    // Fill lut (filled with -1) with the depth of every state of pattern
+    // Returns the number of unique states
+    public static long generate(LUT pattern, byte[] lut) {
+
+        CubeState solved = CubeState.getSolvedState();
+        byte[] cP = solved.getCornerPositions();
+        byte[] cO = solved.getCornerOrientations();
+        byte[] eP = solved.getEdgePositions();
+        byte[] eO = solved.getEdgeOrientations();
+
+        // Add solved state to LUT with depth 0
+        int startingIndex = (int) pattern.encode(cP, cO, eP, eO);
+        lut[startingIndex] = 0;
+
+        long newStates = 1;
+
+        try(IntQueue queue = IntQueue.forTableSize(lut.length)) {
+
+            queue.offer(startingIndex);
+
+            while(!queue.isEmpty()) {
+
+                int index = queue.poll();
+                int currentDepth = lut[index];
+
+                pattern.decode(index, cP, cO, eP, eO);
+
+                // Apply all possible moves
+                for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                    MoveTables.applyMove(cP, cO, eP, eO, m);
+
+                    int childIndex = (int) pattern.encode(cP, cO, eP, eO);
+
+                    // If the new state has not been seen before -> record it to LUT and add it to queue
+                    if(lut[childIndex] == -1) {
+                        lut[childIndex] = (byte) (currentDepth + 1);
+                        newStates++;
+                        queue.offer(childIndex);
+                    }
+
+                    MoveTables.applyMove(cP, cO, eP, eO, MoveTables.inverse(m));
+                }
+            }
+
+        } catch(IOException e) {
+            throw new UncheckedIOException("BFS queue failed", e);
+        }
+
+        return newStates;
+    }
+}
@@ -0,0 +1,27 @@
+package com.dxymf.lut.generating;
+
+import java.io.IOException;
+
+// FIFO queue of primitive ints so BFS queues don't need an object per state
+public interface IntQueue extends AutoCloseable {
+
+    // Tables with more entries than this get a queue that spills to disk
+    int SPILL_THRESHOLD = 1 << 24;
+
+    void offer(int value) throws IOException;
+
+    int poll() throws IOException;
+
+    boolean isEmpty();
+
+    void close() throws IOException;
+
+    // Queue for a BFS over a table with size entries
+    static IntQueue forTableSize(int size) throws IOException {
+        if(size > SPILL_THRESHOLD) {
+            return new SpillingIntQueue();
+        }
+
+        return new IntRingBuffer();
+    }
+}
@@ -0,0 +1,63 @@
+package com.dxymf.lut.generating;
+
+// Growable circular int array
+public class IntRingBuffer implements IntQueue {
+
+    private int[] buffer;
+
+    // Index of the next value to poll
+    private int head = 0;
+    // Number of values in the buffer
+    private int count = 0;
+
+    public IntRingBuffer() {
+        this(1 << 10);
+    }
+
+    public IntRingBuffer(int capacity) {
+        buffer = new int[capacity];
+    }
+
+    public void offer(int value) {
+        if(count == buffer.length) {
+            grow();
+        }
+
+        // buffer.length is always a power of 2
+        buffer[(head + count) & (buffer.length - 1)] = value;
+        count++;
+    }
+
+    public int poll() {
+        int value = buffer[head];
+
+        head = (head + 1) & (buffer.length - 1);
+        count--;
+
+        return value;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void close() {
+        buffer = null;
+    }
+
+    // Double the capacity and move the values to the start of the new array
+    private void grow() {
+        int[] newBuffer = new int[buffer.length * 2];
+
+        for(int i = 0; i < count; i++) {
+            newBuffer[i] = buffer[(head + i) & (buffer.length - 1)];
+        }
+
+        buffer = newBuffer;
+        head = 0;
+    }
+}
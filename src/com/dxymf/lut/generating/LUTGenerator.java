@@ -0,0 +1,88 @@
+package com.dxymf.lut.generating;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import com.dxymf.CubeState;
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.LUTFile;
+
+// Generates the table of any LUT (e.g. a PatternLUT for any PatternSpec) with a BFS from the solved state
+// The LUT's encode and decode define the table, the result is loaded with the load methods of the same LUT
+public class LUTGenerator {
+
+    // LUT that defines the encoding of the states
+    protected LUT pattern;
+
+    // Data of the LUT
+    protected byte[] lut;
+
+    public LUTGenerator(LUT pattern) {
+        this.pattern = pattern;
+
+        if(pattern.getSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("LUT " + pattern.getDescription() + " has too many values (" + pattern.getSize() + ") for a byte array, use BigLUTGenerator");
+        }
+
+        lut = new byte[(int) pattern.getSize()];
+    }
+
+
+    // Generate PDB
+    public void generateLUT() {
+        // Fill LUT with -1 (unexplored states)
+        Arrays.fill(lut, (byte) -1);
+
+        System.out.println("Starting generating LUT");
+        long t1 = System.currentTimeMillis();
+
+        // BFS over the indices of the LUT, the queue holds ints instead of state objects
+        long newStates = IndexBFS.generate(pattern, lut);
+
+        fillUnreachedIndices();
+
+        System.out.println("Done generating LUT");
+        System.out.println("Time taken: " + (System.currentTimeMillis() - t1) + "ms");
+        System.out.println("Number of unique states: " + newStates);
+    }
+
+
+    // Indices that encode never returns aren't reached by the BFS (in a SymmetricPatternLUT these are states
+    // that are stored under another symmetry of their class), they get the value of the index their state is encoded to
+    protected void fillUnreachedIndices() {
+
+        CubeState solved = CubeState.getSolvedState();
+        byte[] cP = solved.getCornerPositions();
+        byte[] cO = solved.getCornerOrientations();
+        byte[] eP = solved.getEdgePositions();
+        byte[] eO = solved.getEdgeOrientations();
+
+        for(int index = 0; index < lut.length; index++) {
+            if(lut[index] != -1) continue;
+
+            pattern.decode(index, cP, cO, eP, eO);
+            lut[index] = lut[(int) pattern.encode(cP, cO, eP, eO)];
+        }
+    }
+
+
+    // Save LUT to binary file (with a header, see LUTFile)
+    public void saveLUT(String fileName) throws IOException {
+
+        LUTFile.save(pattern, lut, LUTFile.Encoding.BYTES, fileName);
+    }
+
+
+    // Save LUT to binary file with two values per byte (load with LUT.loadLUT or LUT.loadPackedLUT)
+    public void savePackedLUT(String fileName) throws IOException {
+
+        LUTFile.save(pattern, lut, LUTFile.Encoding.PACKED, fileName);
+    }
+
+
+    // Save LUT to binary file with four values mod 3 per byte (load with LUT.loadLUT or LUT.loadMod3LUT)
+    public void saveMod3LUT(String fileName) throws IOException {
+
+        LUTFile.save(pattern, lut, LUTFile.Encoding.MOD3, fileName);
+    }
+}
@@ -0,0 +1,60 @@
+package com.dxymf.lut.generating;
+
+import java.util.Arrays;
+
+import com.dxymf.CubeState;
+import com.dxymf.lut.LUT;
+
+// Generates the table of any LUT by scanning the whole table depth by depth instead of using a queue (see DepthScan)
+// The scan is split into chunks that are processed by all threads, produces the same file as LUTGenerator
+public class ParallelLUTGenerator extends LUTGenerator {
+
+    // Number of threads scanning the table
+    private int threads;
+
+    public ParallelLUTGenerator(LUT pattern, int threads) {
+        super(pattern);
+
+        this.threads = threads;
+    }
+
+    public ParallelLUTGenerator(LUT pattern) {
+        this(pattern, Runtime.getRuntime().availableProcessors());
+    }
+
+
+    // Generate PDB
+    public void generateLUT() {
+        // Fill LUT with -1 (unexplored states)
+        Arrays.fill(lut, (byte) -1);
+
+        System.out.println("Starting generating LUT with " + threads + " threads");
+        long t1 = System.currentTimeMillis();
+
+        // Add solved state to LUT with depth 0
+        CubeState solved = CubeState.getSolvedState();
+        lut[(int) pattern.encode(solved.getCornerPositions(), solved.getCornerOrientations(), solved.getEdgePositions(), solved.getEdgeOrientations())] = 0;
+
+        DepthScan.Table table = new DepthScan.Table() {
+            public int get(long index) {
+                return lut[(int) index];
+            }
+
+            // Writes race only with other writes of depth + 1 to the same index
+            // which is harmless because byte array elements are written atomically
+            public void setIfEmpty(long index, int value) {
+                if(lut[(int) index] == -1) {
+                    lut[(int) index] = (byte) value;
+                }
+            }
+        };
+
+        long totalStates = new DepthScan(pattern, table, Byte.MAX_VALUE).run(threads);
+
+        fillUnreachedIndices();
+
+        System.out.println("Done generating LUT");
+        System.out.println("Time taken: " + (System.currentTimeMillis() - t1) + "ms");
+        System.out.println("Number of unique states: " + totalStates);
+    }
+}
@@ -0,0 +1,102 @@
+package com.dxymf.lut.generating;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Int queue that only keeps two blocks in memory and spills everything in between to a temporary file
+// Values are polled from the head block, offered to the tail block and full tail blocks are appended to the file
+public class SpillingIntQueue implements IntQueue {
+
+    // Number of values per block (4 MB)
+    private static final int BLOCK_SIZE = 1 << 20;
+
+    private Path file;
+    private FileChannel channel;
+
+    // Block that values are polled from
+    private ByteBuffer head = ByteBuffer.allocateDirect(BLOCK_SIZE * 4);
+    // Block that values are offered to
+    private ByteBuffer tail = ByteBuffer.allocateDirect(BLOCK_SIZE * 4);
+
+    // Positions in the file of the next block to read and the next block to write
+    private long readPosition = 0;
+    private long writePosition = 0;
+
+    public SpillingIntQueue() throws IOException {
+        file = Files.createTempFile("bfs-queue", ".bin");
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+
+        // head is empty until the first refill
+        head.flip();
+    }
+
+    public void offer(int value) throws IOException {
+        if(!tail.hasRemaining()) {
+            spill();
+        }
+
+        tail.putInt(value);
+    }
+
+    public int poll() throws IOException {
+        if(!head.hasRemaining()) {
+            refill();
+        }
+
+        return head.getInt();
+    }
+
+    public boolean isEmpty() {
+        return !head.hasRemaining() && readPosition == writePosition && tail.position() == 0;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+        Files.deleteIfExists(file);
+    }
+
+    // Append the full tail block to the file
+    private void spill() throws IOException {
+        tail.flip();
+
+        while(tail.hasRemaining()) {
+            writePosition += channel.write(tail, writePosition);
+        }
+
+        tail.clear();
+    }
+
+    // Read the next block from the file, or take the tail block if nothing has been spilled
+    private void refill() throws IOException {
+        head.clear();
+
+        if(readPosition == writePosition) {
+            // Swap head and tail so the values in the tail are polled next
+            ByteBuffer empty = head;
+            head = tail;
+            tail = empty;
+
+            head.flip();
+            return;
+        }
+
+        long end = Math.min(writePosition, readPosition + head.capacity());
+        head.limit((int) (end - readPosition));
+
+        while(head.hasRemaining()) {
+            readPosition += channel.read(head, readPosition);
+        }
+
+        head.flip();
+
+        // Start writing at the beginning again once everything spilled has been read
+        if(readPosition == writePosition) {
+            readPosition = 0;
+            writePosition = 0;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.dxymf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.generating.LUTGenerator;
+
+// Assertions for the checks in test/, there is no test framework so every check is a class with a main method
+// A failed check throws an AssertionError, so the JVM exits with an error and the stack trace shows the failed check
+// Compile and run all checks with:
+// javac -d out $(find src test -name '*.java')
+// for c in $(cd test && find . -name '*Check.java' | sed 's|^\./||; s|\.java$||; s|/|.|g'); do java -cp out $c || break; done
+public class Checks {
+
+    // Code of checkThrows that is expected to throw
+    public interface Failing {
+        void run() throws Exception;
+    }
+
+
+    public static void check(boolean condition, String message) {
+
+        if(!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+
+    public static void checkEqual(long expected, long actual, String message) {
+
+        if(expected != actual) {
+            throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+
+    public static void checkSameState(CubeState expected, CubeState actual, String message) {
+
+        boolean same = Arrays.equals(expected.getCornerPositions(), actual.getCornerPositions())
+            && Arrays.equals(expected.getCornerOrientations(), actual.getCornerOrientations())
+            && Arrays.equals(expected.getEdgePositions(), actual.getEdgePositions())
+            && Arrays.equals(expected.getEdgeOrientations(), actual.getEdgeOrientations());
+
+        if(!same) {
+            throw new AssertionError(message + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+
+    // code must throw an exception of the given type
+    public static void checkThrows(Class<? extends Exception> type, Failing code, String message) {
+
+        try{
+            code.run();
+        } catch(Exception e) {
+            if(type.isInstance(e)) return;
+
+            throw new AssertionError(message + ": expected " + type.getSimpleName() + " but got " + e, e);
+        }
+
+        throw new AssertionError(message + ": expected " + type.getSimpleName() + " but nothing was thrown");
+    }
+
+
+    // Solved state after moves random moves
+    public static CubeState scramble(Random random, int moves) {
+
+        CubeState state = CubeState.getSolvedState();
+        for(int i = 0; i < moves; i++) {
+            state.applyMove(random.nextInt(MoveTables.MOVE_COUNT));
+        }
+
+        return state;
+    }
+
+
+    // File in the temporary directory that is deleted when the JVM exits
+    public static String tempFile(String prefix) throws IOException {
+
+        File file = File.createTempFile(prefix, ".bin");
+        file.deleteOnExit();
+
+        return file.getPath();
+    }
+
+
+    // Generate the table of lut with LUTGenerator and load it, returns the file the table was saved to
+    public static String generate(LUT lut) throws IOException {
+
+        LUTGenerator generator = new LUTGenerator(lut);
+        generator.generateLUT();
+
+        String fileName = tempFile("lut");
+        generator.saveLUT(fileName);
+        lut.loadLUT(fileName);
+
+        return fileName;
+    }
+}
@@ -0,0 +1,151 @@
+package com.dxymf;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import com.dxymf.lut.EdgeLUT;
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.PatternLUT;
+import com.dxymf.lut.PatternSpec;
+
+// MoveAutomaton.SIMPLE must prune exactly like the simple rules the solvers used before,
+// and an automaton for sequences of up to n moves must allow exactly one sequence to every state of up to n moves
+public class MoveAutomatonCheck {
+
+    // Sequences of up to this many moves are enumerated
+    private static final int LENGTH = 5;
+
+    // Number of states that need exactly 0, 1, 2, ... moves
+    private static final long[] STATES_AT_DEPTH = {1, 18, 243, 3240, 43239, 574908};
+
+    // Number of sequences the simple rules allow for 0, 1, 2, ... moves
+    private static final long[] SIMPLE_SEQUENCES = {1, 18, 243, 3240, 43254, 577368};
+
+    public static void main(String[] args) throws Exception {
+
+        checkSimpleRules(MoveAutomaton.SIMPLE, MoveAutomaton.START, -1, 0);
+
+        for(int maxLength = 2; maxLength <= LENGTH; maxLength++) {
+            MoveAutomaton automaton = MoveAutomaton.build(maxLength);
+            checkEqual(maxLength, automaton.getMaxLength(), "Length of the automaton");
+
+            long[] counts = new long[LENGTH + 1];
+            HashSet<Long> states = new HashSet<>();
+
+            enumerate(automaton, CubeState.getSolvedState(), MoveAutomaton.START, 0, maxLength, counts, states);
+
+            // The sequences of up to maxLength moves lead to different states and there are as many of each length
+            // as there are states that need that many moves, so every sequence is an optimal solution of a different state
+            for(int length = 0; length <= maxLength; length++) {
+                checkEqual(STATES_AT_DEPTH[length], counts[length], "Sequences of " + length + " moves allowed by the automaton for " + maxLength + " moves");
+            }
+
+            if(maxLength == 2) {
+                for(int length = 0; length <= LENGTH; length++) {
+                    checkEqual(SIMPLE_SEQUENCES[length], counts[length], "Sequences of " + length + " moves allowed by the simple rules");
+                }
+            }
+        }
+
+        checkSolver();
+
+        System.out.println("MoveAutomatonCheck passed");
+    }
+
+
+    // The rules of the solvers before the automaton: no two moves of the same face in a row
+    // and opposite faces only in the order R L, U D, F B
+    private static void checkSimpleRules(MoveAutomaton automaton, int state, int previousMove, int length) {
+
+        if(length == LENGTH) return;
+
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            boolean allowed = true;
+
+            if(previousMove != -1) {
+                int type = MoveTables.type(m);
+                int previousType = MoveTables.type(previousMove);
+
+                if(type == previousType) allowed = false;
+                if(type <= 3 && type == previousType - 3) allowed = false;
+            }
+
+            int next = automaton.next(state, m);
+            check(allowed == (next != MoveAutomaton.REJECTED), "Move " + m + " after move " + previousMove + " allowed by the simple rules: " + allowed);
+
+            if(allowed) {
+                checkSimpleRules(automaton, next, m, length + 1);
+            }
+        }
+    }
+
+
+    // Count the allowed sequences of each length and check that the sequences of up to maxLength moves
+    // all lead to different states
+    private static void enumerate(MoveAutomaton automaton, CubeState cube, int state, int length, int maxLength, long[] counts, HashSet<Long> states) {
+
+        counts[length]++;
+
+        if(length <= maxLength) {
+            check(states.add(cube.longHash()), "Two allowed sequences of up to " + maxLength + " moves lead to " + cube);
+        }
+
+        if(length == LENGTH) return;
+
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            int next = automaton.next(state, m);
+            if(next == MoveAutomaton.REJECTED) continue;
+
+            check(automaton.isAllowed(state, m), "isAllowed of an allowed move");
+
+            CubeState child = cube.clone();
+            child.applyMove(m);
+
+            enumerate(automaton, child, next, length + 1, maxLength, counts, states);
+        }
+    }
+
+
+    // Pruning with a longer automaton must not change the length of the optimal solutions
+    private static void checkSolver() throws Exception {
+
+        LUT corners = new PatternLUT(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3));
+        LUT edges = new EdgeLUT(new byte[] {0, 1, 2, 3});
+        Checks.generate(corners);
+        Checks.generate(edges);
+
+        Random random = new Random(7);
+
+        for(int i = 0; i < 6; i++) {
+            CubeState state = Checks.scramble(random, 8);
+
+            Solver simple = new Solver(corners, edges);
+            Solver automaton = new Solver(corners, edges);
+            automaton.setMoveAutomaton(MoveAutomaton.build(4));
+
+            SolveResult expected = simple.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+            SolveResult result = automaton.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+            checkEqual(expected.getLength(), result.getLength(), "Solution length of " + state + " with the automaton");
+            check(result.getExploredStates() <= expected.getExploredStates(), "Explored states of " + state + " with the automaton");
+
+            CubeState solved = state.clone();
+            for(Move move : result.getSolution()) solved.applyMove(move);
+            check(solved.isSolved(), "Solution " + result.getSolutionString() + " of " + state);
+
+            // The workers of ParallelSolver prune with the automaton from the state they start at
+            ParallelSolver parallel = new ParallelSolver(new LUT[] {corners, edges}, 2);
+            parallel.setMoveAutomaton(MoveAutomaton.build(4));
+
+            SolveResult parallelResult = parallel.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+            checkEqual(expected.getLength(), parallelResult.getLength(), "Solution length of " + state + " with the automaton in parallel");
+
+            solved = state.clone();
+            for(Move move : parallelResult.getSolution()) solved.applyMove(move);
+            check(solved.isSolved(), "Parallel solution " + parallelResult.getSolutionString() + " of " + state);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.dxymf;
+
+import static com.dxymf.Checks.checkEqual;
+import static com.dxymf.Checks.checkSameState;
+
+import java.util.Random;
+
+// Moves applied with MoveTables must give the same states as the turn by turn implementation CubeState used before
+public class MoveTablesCheck {
+
+    // Changes of the old CubeState.applyMove for one clockwise turn of R, U, F, L, D, B (-1 -> position not affected)
+    private static final byte[][] CORNER_POSITION_CHANGES = {
+        {-1, 5, 1, -1, -1, 6, 2, -1},
+        {1, 2, 3, 0, -1, -1, -1, -1},
+        {-1, -1, 6, 2, -1, -1, 7, 3},
+        {3, -1, -1, 7, 0, -1, -1, 4},
+        {-1, -1, -1, -1, 7, 4, 5, 6},
+        {4, 0, -1, -1, 5, 1, -1, -1}
+    };
+    private static final byte[][] CORNER_ORIENTATION_CHANGES = {
+        {1, 0, 2}, {0, 2, 1}, {2, 1, 0}, {1, 0, 2}, {0, 2, 1}, {2, 1, 0}
+    };
+    private static final byte[][] EDGE_POSITION_CHANGES = {
+        {-1, 5, -1, -1, -1, 9, 1, -1, -1, 6, -1, -1},
+        {1, 2, 3, 0, -1, -1, -1, -1, -1, -1, -1, -1},
+        {-1, -1, 6, -1, -1, -1, 10, 2, -1, -1, 7, -1},
+        {-1, -1, -1, 7, 3, -1, -1, 11, -1, -1, -1, 4},
+        {-1, -1, -1, -1, -1, -1, -1, -1, 11, 8, 9, 10},
+        {4, -1, -1, -1, 8, 0, -1, -1, 5, -1, -1, -1}
+    };
+    private static final byte[][] EDGE_ORIENTATION_CHANGES = {
+        {0, 1}, {0, 1}, {1, 0}, {0, 1}, {0, 1}, {1, 0}
+    };
+
+    public static void main(String[] args) {
+
+        Random random = new Random(10);
+
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            Move move = Move.fromIndex(m);
+            checkEqual(m, move.getIndex(), "Index of move " + move);
+            checkEqual(move.getType(), MoveTables.type(m), "Type of move " + move);
+            checkEqual(Move.fromString(move.toString()).getIndex(), m, "Index of move " + move + " from its name");
+
+            // A move followed by its inverse changes nothing
+            CubeState undone = CubeState.getSolvedState();
+            undone.applyMove(m);
+            undone.applyMove(MoveTables.inverse(m));
+            checkSameState(CubeState.getSolvedState(), undone, "Move " + move + " followed by its inverse");
+        }
+
+        for(int i = 0; i < 20000; i++) {
+            CubeState state = Checks.scramble(random, random.nextInt(30));
+            int m = random.nextInt(MoveTables.MOVE_COUNT);
+            Move move = Move.fromIndex(m);
+
+            CubeState expected = applyOldMove(state, move);
+
+            CubeState byIndex = state.clone();
+            byIndex.applyMove(m);
+            checkSameState(expected, byIndex, "Move " + move + " applied to " + state);
+
+            CubeState byMove = state.clone();
+            byMove.applyMove(move);
+            checkSameState(expected, byMove, "Move " + move + " applied as a Move to " + state);
+        }
+
+        System.out.println("MoveTablesCheck passed");
+    }
+
+
+    // The old CubeState.applyMove: direction clockwise turns of the type's changes
+    private static CubeState applyOldMove(CubeState state, Move move) {
+
+        byte[] cornerPositions = state.getCornerPositions();
+        byte[] cornerOrientations = state.getCornerOrientations();
+        byte[] edgePositions = state.getEdgePositions();
+        byte[] edgeOrientations = state.getEdgeOrientations();
+
+        int type = move.getType() - 1;
+
+        for(int i = 0; i < move.getDirection(); i++) {
+            byte[] newCornerPositions = cornerPositions.clone();
+            byte[] newCornerOrientations = cornerOrientations.clone();
+            byte[] newEdgePositions = edgePositions.clone();
+            byte[] newEdgeOrientations = edgeOrientations.clone();
+
+            for(int j = 0; j < 8; j++) {
+                if(CORNER_POSITION_CHANGES[type][cornerPositions[j]] == -1) continue;
+
+                newCornerPositions[j] = CORNER_POSITION_CHANGES[type][cornerPositions[j]];
+                newCornerOrientations[j] = CORNER_ORIENTATION_CHANGES[type][cornerOrientations[j]];
+            }
+
+            for(int j = 0; j < 12; j++) {
+                if(EDGE_POSITION_CHANGES[type][edgePositions[j]] == -1) continue;
+
+                newEdgePositions[j] = EDGE_POSITION_CHANGES[type][edgePositions[j]];
+                newEdgeOrientations[j] = EDGE_ORIENTATION_CHANGES[type][edgeOrientations[j]];
+            }
+
+            cornerPositions = newCornerPositions;
+            cornerOrientations = newCornerOrientations;
+            edgePositions = newEdgePositions;
+            edgeOrientations = newEdgeOrientations;
+        }
+
+        return new CubeState(cornerPositions, cornerOrientations, edgePositions, edgeOrientations);
+    }
+}
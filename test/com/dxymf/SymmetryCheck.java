@@ -0,0 +1,138 @@
+package com.dxymf;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+import static com.dxymf.Checks.checkSameState;
+
+import java.util.Random;
+
+import com.dxymf.lut.EdgeLUT;
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.PatternLUT;
+import com.dxymf.lut.PatternSpec;
+import com.dxymf.lut.generating.LUTGenerator;
+
+// Conjugates and inverses of a state must need the same number of moves as the state (so the Solver can look them up)
+// Conjugating maps every move to a move and respects composition, inverting undoes the moves in reverse order
+public class SymmetryCheck {
+
+    public static void main(String[] args) throws Exception {
+
+        Random random = new Random(5);
+
+        CubeState[] moves = new CubeState[MoveTables.MOVE_COUNT];
+        for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+            moves[m] = CubeState.getSolvedState();
+            moves[m].applyMove(m);
+        }
+
+        // Move that each move is conjugated to by each symmetry
+        int[][] conjugatedMoves = new int[SymmetryTables.SYMMETRY_COUNT][MoveTables.MOVE_COUNT];
+
+        for(int s = 0; s < SymmetryTables.SYMMETRY_COUNT; s++) {
+            checkSameState(CubeState.getSolvedState(), CubeState.getSolvedState().conjugate(s), "Solved state conjugated by " + s);
+
+            boolean[] found = new boolean[MoveTables.MOVE_COUNT];
+
+            for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                conjugatedMoves[s][m] = findMove(moves, moves[m].conjugate(s));
+
+                check(conjugatedMoves[s][m] != -1, "Move " + m + " conjugated by " + s + " isn't a move");
+                check(!found[conjugatedMoves[s][m]], "Two moves conjugated by " + s + " are the same move");
+                found[conjugatedMoves[s][m]] = true;
+            }
+        }
+
+        for(int i = 0; i < 2000; i++) {
+            int length = random.nextInt(25);
+            int[] sequence = new int[length];
+            for(int j = 0; j < length; j++) sequence[j] = random.nextInt(MoveTables.MOVE_COUNT);
+
+            CubeState state = apply(sequence);
+            CubeState other = Checks.scramble(random, 20);
+            int s = random.nextInt(SymmetryTables.SYMMETRY_COUNT);
+            int t = random.nextInt(SymmetryTables.SYMMETRY_COUNT);
+
+            // The conjugate is reached by the conjugated moves, so it needs the same number of moves
+            int[] conjugatedSequence = new int[length];
+            for(int j = 0; j < length; j++) conjugatedSequence[j] = conjugatedMoves[s][sequence[j]];
+            checkSameState(apply(conjugatedSequence), state.conjugate(s), "Conjugate by " + s + " of " + state);
+
+            checkSameState(state.conjugate(s).compose(other.conjugate(s)), state.compose(other).conjugate(s), "Conjugate of a composed state");
+            checkSameState(state, state.conjugate(s).conjugate(SymmetryTables.inverse(s)), "Conjugate by " + s + " and its inverse");
+            checkSameState(state.conjugate(SymmetryTables.product(t, s)), state.conjugate(s).conjugate(t), "Conjugate by the product of " + t + " and " + s);
+
+            // The inverse is reached by the inverted moves in reverse order
+            int[] inverseSequence = new int[length];
+            for(int j = 0; j < length; j++) inverseSequence[j] = MoveTables.inverse(sequence[length - 1 - j]);
+            checkSameState(apply(inverseSequence), state.inverse(), "Inverse of " + state);
+
+            check(state.compose(state.inverse()).isSolved(), "State followed by its inverse");
+            check(state.inverse().compose(state).isSolved(), "Inverse followed by the state");
+            checkSameState(state, state.inverse().inverse(), "Inverse of the inverse");
+
+            int m = random.nextInt(MoveTables.MOVE_COUNT);
+            CubeState moved = state.clone();
+            moved.applyMove(m);
+            checkSameState(moved, state.compose(moves[m]), "State followed by move " + m);
+        }
+
+        checkSolver(random);
+
+        System.out.println("SymmetryCheck passed");
+    }
+
+
+    // Lookups on conjugates and inverses must not change the length of the optimal solutions,
+    // also with a LUT that stores values mod 3 (the values of conjugates are carried down from the parent's conjugate)
+    private static void checkSolver(Random random) throws Exception {
+
+        LUT corners = new PatternLUT(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3));
+        LUT edges = new EdgeLUT(new byte[] {0, 1, 2, 3});
+        Checks.generate(corners);
+
+        LUTGenerator edgeGenerator = new LUTGenerator(edges);
+        edgeGenerator.generateLUT();
+        String mod3File = Checks.tempFile("mod3");
+        edgeGenerator.saveMod3LUT(mod3File);
+        edges.loadMod3LUT(mod3File);
+
+        for(int i = 0; i < 6; i++) {
+            CubeState state = Checks.scramble(random, 7);
+
+            Solver plain = new Solver(corners, edges);
+            Solver symmetric = new Solver(corners, edges);
+            symmetric.setSymmetricLookups(2, 6, 17, 30);
+            symmetric.setInverseLookups(true);
+
+            SolveResult expected = plain.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+            SolveResult result = symmetric.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+            checkEqual(expected.getLength(), result.getLength(), "Solution length of " + state + " with symmetric and inverse lookups");
+
+            CubeState solved = state.clone();
+            for(Move move : result.getSolution()) solved.applyMove(move);
+            check(solved.isSolved(), "Solution " + result.getSolutionString() + " of " + state);
+        }
+    }
+
+
+    private static CubeState apply(int[] sequence) {
+
+        CubeState state = CubeState.getSolvedState();
+        for(int m : sequence) state.applyMove(m);
+
+        return state;
+    }
+
+
+    // Index of the move that gives state, -1 if there is none
+    private static int findMove(CubeState[] moves, CubeState state) {
+
+        for(int m = 0; m < moves.length; m++) {
+            if(moves[m].toString().equals(state.toString())) return m;
+        }
+
+        return -1;
+    }
+}
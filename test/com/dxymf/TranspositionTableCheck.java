@@ -0,0 +1,103 @@
+package com.dxymf;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import com.dxymf.lut.EdgeLUT;
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.PatternLUT;
+import com.dxymf.lut.PatternSpec;
+
+// The transposition table must only report states that were stored with at least as many moves left,
+// and cutting off those states must not change the length of the optimal solutions
+public class TranspositionTableCheck {
+
+    public static void main(String[] args) throws Exception {
+
+        // Largest power of two of 9 byte entries
+        checkEqual(64, new TranspositionTable(1000).size(), "Entries of 1000 bytes");
+        checkEqual(1 << 20, new TranspositionTable(9L << 20).size(), "Entries of 9MB");
+
+        TranspositionTable table = new TranspositionTable(9 * 1024);
+        int size = table.size();
+
+        check(!table.checkAndStore(42, 5), "First lookup of a state");
+        check(table.checkAndStore(42, 5), "State with as many moves left");
+        check(table.checkAndStore(42, 3), "State with fewer moves left");
+        check(!table.checkAndStore(42, 6), "State with more moves left");
+        check(table.checkAndStore(42, 6), "State after storing it with more moves left");
+
+        // Key 0 marks empty slots, so it must still be stored
+        check(!table.checkAndStore(0, 2), "First lookup of key 0");
+        check(table.checkAndStore(0, 2), "Second lookup of key 0");
+
+        // A key in the same slot replaces the stored state
+        check(!table.checkAndStore(7, 4), "First lookup of key 7");
+        check(!table.checkAndStore(7 + size, 4), "Key in the same slot as 7");
+        check(!table.checkAndStore(7, 4), "Key 7 after it was replaced");
+
+        checkEqual(4, table.getHits(), "Hits");
+        checkEqual(6, table.getMisses(), "Misses");
+
+        table.clear();
+        table.resetCounters();
+        check(!table.checkAndStore(42, 1), "State after clearing");
+        checkEqual(0, table.getHits(), "Hits after resetting");
+        checkEqual(1, table.getMisses(), "Misses after resetting");
+
+        // The keys are hashes of the whole state, different states must practically never share one
+        Random random = new Random(6);
+        HashMap<Long, String> states = new HashMap<>();
+        for(int i = 0; i < 200000; i++) {
+            CubeState state = Checks.scramble(random, 25);
+            String previous = states.put(state.longHash(), state.toString());
+
+            check(previous == null || previous.equals(state.toString()), "States " + previous + " and " + state + " have the same hash");
+        }
+
+        checkSolver(random);
+
+        System.out.println("TranspositionTableCheck passed");
+    }
+
+
+    private static void checkSolver(Random random) throws Exception {
+
+        LUT corners = new PatternLUT(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3));
+        LUT edges = new EdgeLUT(new byte[] {0, 1, 2, 3});
+        Checks.generate(corners);
+        Checks.generate(edges);
+
+        long hits = 0;
+
+        for(int i = 0; i < 6; i++) {
+            CubeState state = Checks.scramble(random, 9);
+
+            Solver plain = new Solver(corners, edges);
+            SolveResult expected = plain.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+            // A table that keeps all states and one so small that states replace each other
+            for(long memoryBytes : new long[] {1 << 24, 1 << 12}) {
+                Solver transpositions = new Solver(corners, edges);
+                transpositions.setTranspositionTable(memoryBytes, 8);
+
+                SolveResult result = transpositions.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+                checkEqual(expected.getLength(), result.getLength(), "Solution length of " + state + " with a transposition table of " + memoryBytes + " bytes");
+                check(result.getExploredStates() <= expected.getExploredStates(), "Explored states of " + state + " with a transposition table of " + memoryBytes + " bytes");
+
+                CubeState solved = state.clone();
+                for(Move move : result.getSolution()) solved.applyMove(move);
+                check(solved.isSolved(), "Solution " + result.getSolutionString() + " of " + state);
+
+                hits += transpositions.getTranspositionHits();
+            }
+        }
+
+        // Different move sequences to the same state are rare in these short searches, but they do occur
+        check(hits > 0, "Transposition table cut off states");
+    }
+}
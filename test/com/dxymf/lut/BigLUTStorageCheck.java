@@ -0,0 +1,215 @@
+package com.dxymf.lut;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+
+import java.util.Random;
+
+import com.dxymf.Checks;
+import com.dxymf.CubeState;
+import com.dxymf.lut.generating.BigLUTGenerator;
+import com.dxymf.lut.generating.LUTGenerator;
+
+// BigLUTStorage must keep every value apart from its neighbours in the same byte and in the next segment,
+// and tables generated, saved and mapped with it must have the values of the small generators
+public class BigLUTStorageCheck {
+
+    // First index of the second segment
+    private static final long SEGMENT_VALUES = 1L << 31;
+
+    public static void main(String[] args) throws Exception {
+
+        // Segments of the data
+        checkEqual(1, BigLUTStorage.segmentCount(1L << 30), "Segments of 1GB");
+        checkEqual(2, BigLUTStorage.segmentCount((1L << 30) + 1), "Segments of 1GB and a byte");
+        checkEqual(5, BigLUTStorage.segmentLength((1L << 30) + 5, 1), "Bytes of the second segment");
+        checkEqual((SEGMENT_VALUES >> 1) + 1, BigLUTStorage.dataLength(SEGMENT_VALUES + 1), "Bytes of 2^31 + 1 values");
+
+        checkNeighbours();
+        checkThreads();
+        checkSegmentBoundary();
+        checkSaveAndMap();
+        checkGenerator();
+        checkLongIndices();
+
+        System.out.println("BigLUTStorageCheck passed");
+    }
+
+
+    // Setting a value must not change the values sharing its byte or its int
+    private static void checkNeighbours() {
+
+        BigLUTStorage storage = BigLUTStorage.allocate(1001);
+        checkEqual(1001, storage.size(), "Size");
+
+        for(long index = 0; index < storage.size(); index++) {
+            checkEqual(BigLUTStorage.EMPTY, storage.get(index), "Value at " + index + " after allocating");
+        }
+
+        // Values 0 to 14, 15 is EMPTY
+        for(int index = 0; index < 15; index++) {
+            check(storage.setIfEmpty(index, index), "Setting the empty value at " + index);
+            check(!storage.setIfEmpty(index, 3), "Setting the value at " + index + " again");
+        }
+
+        check(storage.setIfEmpty(1000, 7), "Setting the last value");
+
+        for(int index = 0; index < 15; index++) {
+            checkEqual(index, storage.get(index), "Value at " + index);
+        }
+        checkEqual(BigLUTStorage.EMPTY, storage.get(15), "Value after the set values");
+        checkEqual(BigLUTStorage.EMPTY, storage.get(999), "Value before the last value");
+        checkEqual(7, storage.get(1000), "Last value");
+
+        storage.fill(2);
+        for(long index = 0; index < storage.size(); index++) {
+            checkEqual(2, storage.get(index), "Value at " + index + " after filling");
+        }
+    }
+
+
+    // Threads setting neighbouring values at the same time must not overwrite each other's values
+    private static void checkThreads() throws InterruptedException {
+
+        int size = 1 << 20;
+        int threadCount = 4;
+        BigLUTStorage storage = BigLUTStorage.allocate(size);
+
+        Thread[] threads = new Thread[threadCount];
+        for(int t = 0; t < threadCount; t++) {
+            int thread = t;
+
+            threads[t] = new Thread(() -> {
+                for(int index = thread; index < size; index += threadCount) {
+                    storage.setIfEmpty(index, (index * 7) % 15);
+                }
+            });
+            threads[t].start();
+        }
+
+        for(Thread thread : threads) thread.join();
+
+        for(int index = 0; index < size; index++) {
+            checkEqual((index * 7) % 15, storage.get(index), "Value at " + index + " set by thread " + (index % threadCount));
+        }
+    }
+
+
+    // Values around the first index of the second segment, in a mapped file so the check doesn't need 1GB of direct memory
+    private static void checkSegmentBoundary() throws Exception {
+
+        String fileName = Checks.tempFile("segments");
+        BigLUTStorage storage = BigLUTStorage.create(fileName, SEGMENT_VALUES + 100);
+
+        for(long index = SEGMENT_VALUES - 4; index < SEGMENT_VALUES + 4; index++) {
+            check(storage.setIfEmpty(index, (int) (index - SEGMENT_VALUES + 4)), "Setting the empty value at " + index);
+        }
+
+        for(long index = SEGMENT_VALUES - 4; index < SEGMENT_VALUES + 4; index++) {
+            checkEqual(index - SEGMENT_VALUES + 4, storage.get(index), "Value at " + index);
+        }
+
+        // The values of the second segment must not wrap around to the start of the first
+        for(long index = 0; index < 8; index++) {
+            checkEqual(BigLUTStorage.EMPTY, storage.get(index), "Value at " + index);
+        }
+        checkEqual(BigLUTStorage.EMPTY, storage.get(SEGMENT_VALUES - 5), "Value before the set values");
+        checkEqual(BigLUTStorage.EMPTY, storage.get(SEGMENT_VALUES + 4), "Value after the set values");
+
+        check(storage.setIfEmpty(SEGMENT_VALUES + 99, 9), "Setting the last value");
+        checkEqual(9, storage.get(SEGMENT_VALUES + 99), "Last value");
+    }
+
+
+    // Values saved by LUTFile load into a packed LUT and map into a BigLUTStorage again
+    private static void checkSaveAndMap() throws Exception {
+
+        EdgeLUT lut = new EdgeLUT(new byte[] {0, 1, 2});
+        Checks.generate(lut);
+
+        BigLUTStorage storage = BigLUTStorage.allocate(lut.getSize());
+        for(long index = 0; index < lut.getSize(); index++) {
+            storage.setIfEmpty(index, lut.getValue(index));
+        }
+
+        String fileName = Checks.tempFile("big");
+        LUTFile.save(lut, storage, fileName);
+
+        EdgeLUT loaded = new EdgeLUT(new byte[] {0, 1, 2});
+        loaded.loadPackedLUT(fileName);
+
+        LUTFile.Header header = LUTFile.readHeader(lut, fileName);
+        BigLUTStorage mapped = BigLUTStorage.map(fileName, header.length, lut.getSize());
+
+        for(long index = 0; index < lut.getSize(); index++) {
+            checkEqual(lut.getValue(index), loaded.getValue(index), "Loaded value at " + index);
+            checkEqual(lut.getValue(index), mapped.get(index), "Mapped value at " + index);
+        }
+    }
+
+
+    // BigLUTGenerator in direct memory and in a scratch file must give the table of LUTGenerator
+    private static void checkGenerator() throws Exception {
+
+        LUT lut = new PatternLUT(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3));
+        LUTGenerator generator = new LUTGenerator(lut);
+        generator.generateLUT();
+        String fileName = Checks.tempFile("lut");
+        generator.saveLUT(fileName);
+        lut.loadLUT(fileName);
+
+        for(String scratchFileName : new String[] {null, Checks.tempFile("scratch")}) {
+            BigLUTGenerator bigGenerator = new BigLUTGenerator(lut, 2);
+
+            if(scratchFileName == null) {
+                bigGenerator.generateLUT();
+            } else {
+                bigGenerator.generateLUT(scratchFileName);
+            }
+
+            String bigFileName = Checks.tempFile("big");
+            bigGenerator.saveLUT(bigFileName);
+
+            LUT loaded = new PatternLUT(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3));
+            loaded.loadLUT(bigFileName);
+
+            for(long index = 0; index < lut.getSize(); index++) {
+                checkEqual(lut.getValue(index), loaded.getValue(index), "Value at " + index + " generated " + (scratchFileName == null ? "in memory" : "in a file"));
+            }
+        }
+    }
+
+
+    // Indices of a pattern of 8 edges go past Integer.MAX_VALUE and must survive decoding
+    private static void checkLongIndices() {
+
+        PatternLUT lut = new PatternLUT(PatternSpec.edges((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4, (byte) 5, (byte) 6, (byte) 7));
+        checkEqual(12L * 11 * 10 * 9 * 8 * 7 * 6 * 5 * 256, lut.getSize(), "Size of 8 edges");
+
+        CubeState solved = CubeState.getSolvedState();
+        byte[] cP = solved.getCornerPositions();
+        byte[] cO = solved.getCornerOrientations();
+        byte[] eP = solved.getEdgePositions();
+        byte[] eO = solved.getEdgeOrientations();
+
+        Random random = new Random(9);
+        boolean large = false;
+
+        for(int i = 0; i < 20000; i++) {
+            long index = (i < 2) ? lut.getSize() - 1 - i : Math.floorMod(random.nextLong(), lut.getSize());
+            large |= index > Integer.MAX_VALUE;
+
+            lut.decode(index, cP, cO, eP, eO);
+            checkEqual(index, lut.encode(cP, cO, eP, eO), "Index " + index + " after decoding");
+        }
+
+        check(large, "Indices past Integer.MAX_VALUE");
+
+        for(int i = 0; i < 20000; i++) {
+            CubeState state = Checks.scramble(random, 30);
+            long index = lut.encode(state.getCornerPositions(), state.getCornerOrientations(), state.getEdgePositions(), state.getEdgeOrientations());
+
+            check(index >= 0 && index < lut.getSize(), "Index " + index + " of " + state + " out of range");
+        }
+    }
+}
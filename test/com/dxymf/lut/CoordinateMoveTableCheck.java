@@ -0,0 +1,142 @@
+package com.dxymf.lut;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+import static com.dxymf.Checks.checkThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+import com.dxymf.Checks;
+import com.dxymf.CubeState;
+import com.dxymf.MoveTables;
+import com.dxymf.lut.generating.LUTGenerator;
+
+// Coordinates carried through moves with the move tables must be the coordinates of the moved states,
+// for tables generated on the fly and for tables loaded from their file
+public class CoordinateMoveTableCheck {
+
+    public static void main(String[] args) throws Exception {
+
+        Random random = new Random(11);
+
+        checkMoves(new CornerLUT(), new CornerLUT(), random);
+        checkMoves(new EdgeLUT(new byte[] {0, 1, 2, 3, 4, 5}), new EdgeLUT(new byte[] {0, 1, 2, 3, 4, 5}), random);
+        checkMoves(new EdgeLUT(new byte[] {11, 3, 7}), new EdgeLUT(new byte[] {11, 3, 7}), random);
+        checkMoves(new EdgePosLUT(), new EdgePosLUT(), random);
+
+        checkMoveCounts(random);
+        checkFiles();
+
+        System.out.println("CoordinateMoveTableCheck passed");
+    }
+
+
+    // generated gets a newly generated move table, loaded reads it from the file generated saved it to
+    private static <T extends LUT & MoveTableLUT> void checkMoves(T generated, T loaded, Random random) throws Exception {
+
+        String fileName = Checks.tempFile("moves");
+        new File(fileName).delete();
+
+        check(!generated.hasMoveTable(), generated.getDescription() + " has a move table before loading it");
+        generated.loadMoveTable(fileName);
+        check(generated.hasMoveTable(), generated.getDescription() + " has a move table after loading it");
+        check(new File(fileName).exists(), "Move table of " + generated.getDescription() + " was saved");
+
+        // Loaded tables are shared by file name, so the saved table is read under another name
+        String copyName = Checks.tempFile("moves");
+        Files.copy(Path.of(fileName), Path.of(copyName), StandardCopyOption.REPLACE_EXISTING);
+        loaded.loadMoveTable(copyName);
+
+        for(int i = 0; i < 200; i++) {
+            CubeState state = Checks.scramble(random, 30);
+            long coordinate = coordinate(generated, state);
+
+            for(int j = 0; j < 50; j++) {
+                int m = random.nextInt(MoveTables.MOVE_COUNT);
+
+                checkEqual(generated.applyMove(coordinate, m), loaded.applyMove(coordinate, m), generated.getDescription() + " loaded move table");
+
+                coordinate = generated.applyMove(coordinate, m);
+                state.applyMove(m);
+
+                checkEqual(coordinate(generated, state), coordinate, generated.getDescription() + " coordinate of " + state + " after move " + m);
+                checkEqual(generated.encode(state.getCornerPositions(), state.getCornerOrientations(), state.getEdgePositions(), state.getEdgeOrientations()),
+                    generated.getIndex(coordinate), generated.getDescription() + " index of " + state);
+            }
+        }
+    }
+
+
+    // Values looked up by coordinate must be the values looked up by state, also for a LUT that stores values mod 3
+    private static void checkMoveCounts(Random random) throws Exception {
+
+        EdgeLUT lut = new EdgeLUT(new byte[] {0, 1, 2, 3});
+        LUTGenerator generator = new LUTGenerator(lut);
+        generator.generateLUT();
+
+        String fileName = Checks.tempFile("lut");
+        String mod3File = Checks.tempFile("mod3");
+        generator.saveLUT(fileName);
+        generator.saveMod3LUT(mod3File);
+
+        String movesFile = Checks.tempFile("moves");
+        new File(movesFile).delete();
+        lut.loadMoveTable(movesFile);
+
+        for(String file : new String[] {fileName, mod3File}) {
+            lut.loadLUT(file);
+
+            for(int i = 0; i < 2000; i++) {
+                CubeState state = Checks.scramble(random, random.nextInt(12));
+                long coordinate = coordinate(lut, state);
+
+                checkEqual(lut.getMoveCount(state), lut.getMoveCount(coordinate), "Value of " + state + " by coordinate" + (lut.isExact() ? "" : " mod 3"));
+            }
+        }
+    }
+
+
+    // Move tables are only used for the pieces they were saved for and only if the file is intact
+    private static void checkFiles() throws Exception {
+
+        String fileName = Checks.tempFile("moves");
+        new File(fileName).delete();
+        new EdgeLUT(new byte[] {0, 1, 2}).loadMoveTable(fileName);
+
+        // The table of 3 edges is already loaded from this file
+        checkThrows(IOException.class, () -> new EdgeLUT(new byte[] {0, 1, 2, 3}).loadMoveTable(fileName), "Loaded move table for another number of edges");
+        new EdgeLUT(new byte[] {5, 7, 9}).loadMoveTable(fileName);
+
+        // Copies of the file aren't loaded yet, so they are read and checked
+        byte[] file = Files.readAllBytes(Path.of(fileName));
+
+        checkThrows(IOException.class, () -> new EdgeLUT(new byte[] {0, 1, 2, 3}).loadMoveTable(copy(file)), "Move table file for another number of edges");
+        checkThrows(IOException.class, () -> new CornerLUT().loadMoveTable(copy(file)), "Move table file of edges loaded for corners");
+
+        byte[] damaged = file.clone();
+        damaged[damaged.length - 1] ^= (byte) 0xFF;
+        checkThrows(IOException.class, () -> new EdgeLUT(new byte[] {0, 1, 2}).loadMoveTable(copy(damaged)), "Damaged move table file");
+
+        new EdgeLUT(new byte[] {0, 1, 2}).loadMoveTable(copy(file));
+    }
+
+
+    private static String copy(byte[] file) throws IOException {
+
+        String fileName = Checks.tempFile("moves");
+        Files.write(Path.of(fileName), file);
+
+        return fileName;
+    }
+
+
+    private static long coordinate(MoveTableLUT lut, CubeState state) {
+
+        return lut.getCoordinate(state.getCornerPositions(), state.getCornerOrientations(), state.getEdgePositions(), state.getEdgeOrientations());
+    }
+}
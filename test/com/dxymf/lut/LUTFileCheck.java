@@ -0,0 +1,136 @@
+package com.dxymf.lut;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+import static com.dxymf.Checks.checkThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.dxymf.Checks;
+import com.dxymf.lut.generating.LUTGenerator;
+
+// LUT files must load with the values they were saved with and every damaged or foreign file must be rejected
+public class LUTFileCheck {
+
+    private static final byte[] EDGES = {0, 1, 2};
+
+    public static void main(String[] args) throws Exception {
+
+        EdgeLUT lut = new EdgeLUT(EDGES);
+        LUTGenerator generator = new LUTGenerator(lut);
+        generator.generateLUT();
+
+        String bytesFile = Checks.tempFile("bytes");
+        String packedFile = Checks.tempFile("packed");
+        String mod3File = Checks.tempFile("mod3");
+        generator.saveLUT(bytesFile);
+        generator.savePackedLUT(packedFile);
+        generator.saveMod3LUT(mod3File);
+
+        lut.loadLUT(bytesFile);
+
+        // The header decides the encoding
+        checkHeader(lut, bytesFile, LUTFile.Encoding.BYTES);
+        checkHeader(lut, packedFile, LUTFile.Encoding.PACKED);
+        checkHeader(lut, mod3File, LUTFile.Encoding.MOD3);
+
+        EdgeLUT loaded = new EdgeLUT(EDGES);
+        loaded.loadLUT(packedFile);
+        checkSameValues(lut, loaded, 16, "Packed file");
+
+        loaded.loadLUT(mod3File);
+        check(!loaded.isExact(), "LUT loaded from a mod 3 file isn't exact");
+        checkSameValues(lut, loaded, 3, "Mod 3 file");
+
+        loaded.mapLUT(bytesFile, false);
+        checkSameValues(lut, loaded, 16, "Mapped file");
+
+        // Raw files of older versions are the values without a header
+        byte[] values = new byte[(int) lut.getSize()];
+        for(int i = 0; i < values.length; i++) values[i] = (byte) lut.getValue(i);
+
+        String rawFile = Checks.tempFile("raw");
+        Files.write(Path.of(rawFile), values);
+        loaded.loadLUT(rawFile);
+        checkSameValues(lut, loaded, 16, "Raw file");
+
+        Files.write(Path.of(rawFile), Arrays.copyOf(values, values.length - 1));
+        checkThrows(IOException.class, () -> new EdgeLUT(EDGES).loadLUT(rawFile), "Raw file with a missing value");
+
+        // Damaged files
+        byte[] file = Files.readAllBytes(Path.of(bytesFile));
+        int headerLength = LUTFile.readHeader(lut, bytesFile).length;
+
+        checkDamaged(flip(file, file.length - 1), "Last value changed");
+        checkDamaged(flip(file, headerLength), "First value changed");
+        checkDamaged(flip(file, headerLength - 1), "Checksum changed");
+        checkDamaged(flip(file, 5), "Version changed");
+        checkDamaged(flip(file, 12), "Pattern changed");
+        checkDamaged(Arrays.copyOf(file, file.length - 1), "Truncated file");
+        checkDamaged(Arrays.copyOf(file, file.length + 1), "File with an extra byte");
+
+        // Files of other LUTs or in another encoding than requested
+        checkThrows(IOException.class, () -> new EdgeLUT(new byte[] {0, 1, 3}).loadLUT(bytesFile), "File of another pattern");
+        checkThrows(IOException.class, () -> new EdgeLUT(EDGES).loadPackedLUT(bytesFile), "Bytes file loaded as packed");
+        checkThrows(IOException.class, () -> new EdgeLUT(EDGES).loadMod3LUT(packedFile), "Packed file loaded as mod 3");
+        checkThrows(IOException.class, () -> new EdgeLUT(EDGES).mapLUT(packedFile, false), "Packed file mapped");
+
+        // Values that don't belong to a LUT (see TwoPhaseTables)
+        String tableFile = Checks.tempFile("table");
+        LUTFile.save("table", values, LUTFile.Encoding.BYTES, tableFile);
+        check(Arrays.equals(values, LUTFile.load("table", values.length, tableFile)), "Values loaded without a LUT");
+
+        checkThrows(IOException.class, () -> LUTFile.load("other table", values.length, tableFile), "Values of another table");
+        checkThrows(IOException.class, () -> LUTFile.load("table", values.length + 1, tableFile), "Values of another size");
+        checkThrows(IOException.class, () -> LUTFile.load("table", values.length, rawFile), "Values without a header");
+
+        byte[] tableBytes = Files.readAllBytes(Path.of(tableFile));
+        Files.write(Path.of(tableFile), flip(tableBytes, tableBytes.length - 1));
+        checkThrows(IOException.class, () -> LUTFile.load("table", values.length, tableFile), "Damaged values without a LUT");
+
+        System.out.println("LUTFileCheck passed");
+    }
+
+
+    private static void checkHeader(LUT lut, String fileName, LUTFile.Encoding encoding) throws IOException {
+
+        LUTFile.Header header = LUTFile.readHeader(lut, fileName);
+
+        check(header != null, fileName + " has a header");
+        check(header.pattern.equals(lut.getDescription()), "Pattern of " + encoding + " file");
+        check(header.encoding == encoding, "Encoding of " + encoding + " file");
+        checkEqual(lut.getSize(), header.entryCount, "Entry count of " + encoding + " file");
+        checkEqual(Files.size(Path.of(fileName)) - header.length, header.dataLength, "Data length of " + encoding + " file");
+    }
+
+
+    // Values of loaded must be the values of lut mod modulus
+    private static void checkSameValues(LUT lut, LUT loaded, int modulus, String message) {
+
+        for(long index = 0; index < lut.getSize(); index++) {
+            checkEqual(lut.getValue(index) % modulus, loaded.getValue(index), message + " value at " + index);
+        }
+    }
+
+
+    private static void checkDamaged(byte[] file, String message) throws IOException {
+
+        String fileName = Checks.tempFile("damaged");
+        Files.write(Path.of(fileName), file);
+
+        checkThrows(IOException.class, () -> new EdgeLUT(EDGES).loadLUT(fileName), message);
+    }
+
+
+    // Copy of data with the bits of one byte inverted
+    private static byte[] flip(byte[] data, int index) {
+
+        byte[] flipped = data.clone();
+        flipped[index] ^= (byte) 0xFF;
+
+        return flipped;
+    }
+}
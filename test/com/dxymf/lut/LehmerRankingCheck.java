@@ -0,0 +1,148 @@
+package com.dxymf.lut;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// The rank of a partial permutation must be its position in lexicographic order of all partial permutations of K out of N,
+// unranking must give the permutation back
+public class LehmerRankingCheck {
+
+    public static void main(String[] args) {
+
+        // Small rankings are checked for every permutation
+        checkAllPermutations(8, 1);
+        checkAllPermutations(8, 3);
+        checkAllPermutations(8, 7);
+        checkAllPermutations(8, 8);
+        checkAllPermutations(12, 4);
+        checkAllPermutations(12, 6);
+
+        // Larger ones against the lexicographic rank of random permutations
+        Random random = new Random(8);
+        checkRandomPermutations(12, 7, random);
+        checkRandomPermutations(12, 11, random);
+        checkRandomPermutations(12, 12, random);
+
+        System.out.println("LehmerRankingCheck passed");
+    }
+
+
+    // Enumerates the permutations in lexicographic order, the n-th one must have rank n
+    private static void checkAllPermutations(int N, int K) {
+
+        LehmerRanking ranking = new LehmerRanking(N, K);
+        checkEqual(LUT.pick(N, K), ranking.getSize(), "Size of " + N + " pick " + K);
+
+        long count = enumerate(ranking, N, K, new byte[K], 0, 0, 0);
+        checkEqual(ranking.getSize(), count, "Permutations of " + K + " out of " + N);
+    }
+
+
+    private static long enumerate(LehmerRanking ranking, int N, int K, byte[] perm, int length, int used, long count) {
+
+        if(length == K) {
+            checkPermutation(ranking, N, K, perm, (int) count);
+            return count + 1;
+        }
+
+        for(int p = 0; p < N; p++) {
+            if((used & (1 << p)) != 0) continue;
+
+            perm[length] = (byte) p;
+            count = enumerate(ranking, N, K, perm, length + 1, used | (1 << p), count);
+        }
+
+        return count;
+    }
+
+
+    private static void checkRandomPermutations(int N, int K, Random random) {
+
+        LehmerRanking ranking = new LehmerRanking(N, K);
+        checkEqual(LUT.pick(N, K), ranking.getSize(), "Size of " + N + " pick " + K);
+
+        for(int i = 0; i < 100000; i++) {
+            byte[] all = new byte[N];
+            for(int j = 0; j < N; j++) all[j] = (byte) j;
+
+            for(int j = N - 1; j > 0; j--) {
+                int k = random.nextInt(j + 1);
+                byte swap = all[j];
+                all[j] = all[k];
+                all[k] = swap;
+            }
+
+            byte[] perm = Arrays.copyOf(all, K);
+            checkPermutation(ranking, N, K, perm, lexicographicRank(N, K, perm));
+        }
+    }
+
+
+    // Rank of perm counted directly: for every element the permutations that start like perm up to it
+    // and continue with a smaller unused element
+    private static int lexicographicRank(int N, int K, byte[] perm) {
+
+        int rank = 0;
+
+        for(int i = 0; i < K; i++) {
+            int smaller = 0;
+            for(int p = 0; p < perm[i]; p++) {
+                boolean used = false;
+                for(int j = 0; j < i; j++) {
+                    if(perm[j] == p) used = true;
+                }
+                if(!used) smaller++;
+            }
+
+            rank += smaller * LUT.pick(N - 1 - i, K - 1 - i);
+        }
+
+        return rank;
+    }
+
+
+    // All variants of rank must give expected and all variants of unrank must give perm back
+    private static void checkPermutation(LehmerRanking ranking, int N, int K, byte[] perm, int expected) {
+
+        String name = Arrays.toString(perm) + " of " + N;
+
+        checkEqual(expected, ranking.rank(perm), "Rank of " + name);
+
+        // The same permutation behind other elements
+        byte[] shifted = new byte[K + 3];
+        System.arraycopy(perm, 0, shifted, 3, K);
+        checkEqual(expected, ranking.rank(shifted, 3), "Rank at offset 3 of " + name);
+
+        // The same permutation at the positions subset of an array, as in the pieces of a CubeState
+        // (5 is coprime to 8 and 12, so the positions are distinct)
+        byte[] subset = new byte[K];
+        byte[] array = new byte[N];
+        for(int i = 0; i < K; i++) {
+            subset[i] = (byte) ((5 * i + 2) % N);
+            array[subset[i]] = perm[i];
+        }
+        checkEqual(expected, ranking.rank(array, subset), "Rank of " + name + " in an array");
+
+        byte[] unrankedArray = new byte[N];
+        ranking.unrank(expected, unrankedArray, subset);
+        for(int i = 0; i < K; i++) {
+            checkEqual(perm[i], unrankedArray[subset[i]], "Element " + i + " of " + name + " unranked into an array");
+        }
+
+        // unrank writes the permutation followed by the unused elements in increasing order
+        byte[] unranked = new byte[N];
+        ranking.unrank(expected, unranked);
+        check(Arrays.equals(perm, Arrays.copyOf(unranked, K)), "Unranked " + Arrays.toString(unranked) + " instead of " + name);
+
+        int used = 0;
+        for(int i = 0; i < N; i++) {
+            check((used & (1 << unranked[i])) == 0, "Element " + unranked[i] + " twice in " + Arrays.toString(unranked));
+            used |= 1 << unranked[i];
+
+            if(i > K) check(unranked[i - 1] < unranked[i], "Unused elements in increasing order in " + Arrays.toString(unranked));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.dxymf.lut;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+import static com.dxymf.Checks.checkThrows;
+
+import java.io.File;
+import java.util.Random;
+
+import com.dxymf.Checks;
+import com.dxymf.CubeState;
+import com.dxymf.FastSolver;
+import com.dxymf.MoveTables;
+import com.dxymf.ParallelSolver;
+import com.dxymf.SolveResult;
+import com.dxymf.lut.generating.LUTGenerator;
+
+// Mod3LUTStorage must store every value mod 3 and a LUT loaded mod 3 must reconstruct the exact values
+// both from the parent's value and by searching
+public class Mod3LUTStorageCheck {
+
+    public static void main(String[] args) throws Exception {
+
+        Random random = new Random(2);
+        byte[] values = new byte[10003];
+        for(int i = 0; i < values.length; i++) values[i] = (byte) random.nextInt(21);
+
+        Mod3LUTStorage storage = new Mod3LUTStorage(Mod3LUTStorage.pack(values), values.length);
+        checkEqual(values.length, storage.size(), "Size");
+        check(!storage.isExact(), "Mod 3 storage isn't exact");
+
+        for(int i = 0; i < values.length; i++) {
+            checkEqual(values[i] % 3, storage.get(i), "Value mod 3 at " + i);
+
+            // The parent of a state is one move away, so its value differs by at most 1
+            for(int parentValue = Math.max(0, values[i] - 1); parentValue <= values[i] + 1; parentValue++) {
+                checkEqual(values[i], storage.get(i, parentValue), "Value at " + i + " with parent value " + parentValue);
+            }
+        }
+
+        checkThrows(IllegalArgumentException.class, () -> Mod3LUTStorage.pack(new byte[] {2, -1}), "Packing an unexplored state");
+
+        // The same LUT loaded exact and mod 3
+        EdgeLUT lut = new EdgeLUT(new byte[] {0, 1, 2, 3});
+        LUTGenerator generator = new LUTGenerator(lut);
+        generator.generateLUT();
+
+        String bytesFile = Checks.tempFile("bytes");
+        String mod3File = Checks.tempFile("mod3");
+        generator.saveLUT(bytesFile);
+        generator.saveMod3LUT(mod3File);
+
+        EdgeLUT mod3LUT = new EdgeLUT(new byte[] {0, 1, 2, 3});
+        lut.loadLUT(bytesFile);
+        mod3LUT.loadMod3LUT(mod3File);
+
+        check(!mod3LUT.isExact(), "Mod 3 LUT isn't exact");
+
+        for(int i = 0; i < 2000; i++) {
+            CubeState state = Checks.scramble(random, random.nextInt(16));
+            int moveCount = lut.getMoveCount(state);
+
+            // Without the parent's value the exact value is searched
+            checkEqual(moveCount, mod3LUT.getMoveCount(state), "Searched value of " + state);
+
+            for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                CubeState child = state.clone();
+                child.applyMove(m);
+
+                checkEqual(lut.getMoveCount(child), mod3LUT.getMoveCount(child, moveCount), "Value of " + child + " from its parent's value");
+            }
+        }
+
+        checkSolvers(lut, mod3LUT, random);
+
+        System.out.println("Mod3LUTStorageCheck passed");
+    }
+
+
+    // FastSolver and ParallelSolver carry the exact values down the path, so with a mod 3 LUT
+    // they must see the same heuristic at every node as with the exact LUT and explore the same states
+    private static void checkSolvers(EdgeLUT lut, EdgeLUT mod3LUT, Random random) throws Exception {
+
+        LUT corners = new PatternLUT(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3));
+        Checks.generate(corners);
+
+        String movesFile = Checks.tempFile("moves");
+        new File(movesFile).delete();
+        lut.loadMoveTable(movesFile);
+        mod3LUT.loadMoveTable(movesFile);
+
+        for(int i = 0; i < 6; i++) {
+            CubeState state = Checks.scramble(random, 7);
+
+            // Cube arrays and coordinates of move tables
+            LUT[][] lutSets = {{corners, lut}, {lut}};
+            LUT[][] mod3LutSets = {{corners, mod3LUT}, {mod3LUT}};
+
+            for(int k = 0; k < lutSets.length; k++) {
+                FastSolver exact = new FastSolver(lutSets[k]);
+                FastSolver mod3 = new FastSolver(mod3LutSets[k]);
+                exact.setVerbose(false);
+                mod3.setVerbose(false);
+
+                SolveResult expected = exact.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+                SolveResult result = mod3.solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+                checkEqual(expected.getLength(), result.getLength(), "FastSolver solution length of " + state + " with a mod 3 LUT");
+                checkEqual(expected.getExploredStates(), result.getExploredStates(), "FastSolver explored states of " + state + " with a mod 3 LUT");
+            }
+
+            SolveResult expected = new ParallelSolver(new LUT[] {corners, lut}, 2).solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+            SolveResult result = new ParallelSolver(new LUT[] {corners, mod3LUT}, 2).solve(state, Long.MAX_VALUE, Long.MAX_VALUE, null);
+
+            checkEqual(expected.getLength(), result.getLength(), "ParallelSolver solution length of " + state + " with a mod 3 LUT");
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.dxymf.lut;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+import static com.dxymf.Checks.checkThrows;
+
+import java.util.Random;
+
+import com.dxymf.Checks;
+import com.dxymf.lut.generating.LUTGenerator;
+
+// NibbleLUTStorage must return every packed value unchanged and a packed LUT must have the values of the byte per value LUT
+public class NibbleLUTStorageCheck {
+
+    public static void main(String[] args) throws Exception {
+
+        // Every pair of values sharing a byte
+        for(int low = 0; low < 16; low++) {
+            for(int high = 0; high < 16; high++) {
+                byte[] packed = NibbleLUTStorage.pack(new byte[] {(byte) low, (byte) high});
+
+                checkEqual(1, packed.length, "Length of two packed values");
+                checkEqual((high << 4) | low, packed[0] & 0xFF, "Byte of " + low + " and " + high);
+
+                NibbleLUTStorage storage = new NibbleLUTStorage(packed, 2);
+                checkEqual(low, storage.get(0), "Low nibble of " + low + " and " + high);
+                checkEqual(high, storage.get(1), "High nibble of " + low + " and " + high);
+            }
+        }
+
+        // Odd number of values, the last byte only has a low nibble
+        Random random = new Random(1);
+        byte[] values = new byte[10001];
+        for(int i = 0; i < values.length; i++) values[i] = (byte) random.nextInt(16);
+
+        NibbleLUTStorage storage = new NibbleLUTStorage(NibbleLUTStorage.pack(values), values.length);
+        checkEqual(values.length, storage.size(), "Size");
+        for(int i = 0; i < values.length; i++) {
+            checkEqual(values[i], storage.get(i), "Value at " + i);
+        }
+
+        checkThrows(IllegalArgumentException.class, () -> NibbleLUTStorage.pack(new byte[] {3, 16}), "Packing 16");
+        checkThrows(IllegalArgumentException.class, () -> NibbleLUTStorage.pack(new byte[] {-1}), "Packing an unexplored state");
+
+        // The same LUT loaded with one and with two values per byte
+        EdgeLUT lut = new EdgeLUT(new byte[] {0, 1, 2});
+        LUTGenerator generator = new LUTGenerator(lut);
+        generator.generateLUT();
+
+        String bytesFile = Checks.tempFile("bytes");
+        String packedFile = Checks.tempFile("packed");
+        generator.saveLUT(bytesFile);
+        generator.savePackedLUT(packedFile);
+
+        EdgeLUT packedLUT = new EdgeLUT(new byte[] {0, 1, 2});
+        lut.loadLUT(bytesFile);
+        packedLUT.loadPackedLUT(packedFile);
+
+        check(packedLUT.isExact(), "Packed LUT is exact");
+        for(long index = 0; index < lut.getSize(); index++) {
+            checkEqual(lut.getValue(index), packedLUT.getValue(index), "Packed LUT value at " + index);
+        }
+
+        System.out.println("NibbleLUTStorageCheck passed");
+    }
+}
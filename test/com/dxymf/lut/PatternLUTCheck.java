@@ -0,0 +1,106 @@
+package com.dxymf.lut;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+import static com.dxymf.Checks.checkThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.dxymf.Checks;
+import com.dxymf.CubeState;
+
+// The encoding of PatternLUT must be a bijection between the indices and the states of the observed pieces
+public class PatternLUTCheck {
+
+    public static void main(String[] args) throws Exception {
+
+        // Small patterns are checked for every index
+        checkAllIndices(new PatternLUT(PatternSpec.corners((byte) 0, (byte) 1, (byte) 2)), 8 * 7 * 6 * 27);
+        checkAllIndices(new PatternLUT(PatternSpec.edges((byte) 5, (byte) 0, (byte) 9)), 12 * 11 * 10 * 8);
+        checkAllIndices(new PatternLUT(PatternSpec.edgePositions((byte) 0, (byte) 1, (byte) 2, (byte) 3)), 12 * 11 * 10 * 9);
+        checkAllIndices(new PatternLUT(new PatternSpec(new byte[] {1, 6}, new byte[] {3, 7}, true)), 8 * 7 * 9 * 12 * 11 * 4);
+        checkAllIndices(new PatternLUT(new PatternSpec(new byte[] {1, 6}, new byte[] {3, 7}, false)), 8 * 7 * 12 * 11);
+
+        // Large patterns with random states
+        Random random = new Random(4);
+        checkRandomStates(new CornerLUT(), 8 * 7 * 6 * 5 * 4 * 3 * 2 * 2187, random);
+        checkRandomStates(new EdgeLUT(new byte[] {0, 1, 2, 3, 4, 5, 6}), 12L * 11 * 10 * 9 * 8 * 7 * 6 * 128, random);
+        checkRandomStates(new EdgePosLUT(), 479001600, random);
+
+        // All pieces of a kind -> the last one is determined by the others and dropped
+        checkEqual(7, PatternSpec.corners((byte) 0, (byte) 1, (byte) 2, (byte) 3, (byte) 4, (byte) 5, (byte) 6, (byte) 7).getCorners().length, "Corners of a spec with all corners");
+
+        checkThrows(IllegalArgumentException.class, () -> PatternSpec.edges((byte) 1, (byte) 1), "Spec with an edge twice");
+        checkThrows(IllegalArgumentException.class, () -> PatternSpec.corners((byte) 8), "Spec with corner 8");
+        checkThrows(IllegalArgumentException.class, () -> PatternSpec.edges(), "Spec without pieces");
+
+        System.out.println("PatternLUTCheck passed");
+    }
+
+
+    // decode and encode of every index give the index back
+    private static void checkAllIndices(PatternLUT lut, long size) {
+
+        checkEqual(size, lut.getSize(), lut.getDescription() + " size");
+
+        // The getters of CubeState return copies, so the state is decoded into these arrays
+        CubeState solved = CubeState.getSolvedState();
+        byte[] cP = solved.getCornerPositions();
+        byte[] cO = solved.getCornerOrientations();
+        byte[] eP = solved.getEdgePositions();
+        byte[] eO = solved.getEdgeOrientations();
+
+        for(long index = 0; index < size; index++) {
+            lut.decode(index, cP, cO, eP, eO);
+
+            checkEqual(index, lut.encode(cP, cO, eP, eO), lut.getDescription() + " index after decoding");
+        }
+    }
+
+
+    // Random states are encoded into the table and decoding the index restores the observed pieces
+    private static void checkRandomStates(PatternLUT lut, long size, Random random) {
+
+        checkEqual(size, lut.getSize(), lut.getDescription() + " size");
+
+        PatternSpec spec = lut.getSpec();
+
+        for(int i = 0; i < 20000; i++) {
+            CubeState state = Checks.scramble(random, 30);
+
+            long index = encode(lut, state);
+            check(index >= 0 && index < size, lut.getDescription() + " index " + index + " out of range");
+
+            CubeState other = Checks.scramble(random, 30);
+            byte[] cP = other.getCornerPositions();
+            byte[] cO = other.getCornerOrientations();
+            byte[] eP = other.getEdgePositions();
+            byte[] eO = other.getEdgeOrientations();
+
+            lut.decode(index, cP, cO, eP, eO);
+            CubeState decoded = new CubeState(cP, cO, eP, eO);
+
+            checkEqual(index, encode(lut, decoded), lut.getDescription() + " index after decoding");
+            check(Arrays.equals(observed(state.getCornerPositions(), spec.getCorners()), observed(decoded.getCornerPositions(), spec.getCorners())), "Decoded corner positions of " + state);
+            check(Arrays.equals(observed(state.getEdgePositions(), spec.getEdges()), observed(decoded.getEdgePositions(), spec.getEdges())), "Decoded edge positions of " + state);
+
+            if(spec.isOrientationObserved()) {
+                check(Arrays.equals(observed(state.getCornerOrientations(), spec.getCorners()), observed(decoded.getCornerOrientations(), spec.getCorners())), "Decoded corner orientations of " + state);
+                check(Arrays.equals(observed(state.getEdgeOrientations(), spec.getEdges()), observed(decoded.getEdgeOrientations(), spec.getEdges())), "Decoded edge orientations of " + state);
+            }
+        }
+    }
+
+
+    private static long encode(LUT lut, CubeState state) {
+
+        return lut.encode(state.getCornerPositions(), state.getCornerOrientations(), state.getEdgePositions(), state.getEdgeOrientations());
+    }
+
+
+    private static byte[] observed(byte[] array, byte[] pieces) {
+
+        return CubeState.extractElementsFromArray(array, pieces);
+    }
+}
@@ -0,0 +1,110 @@
+package com.dxymf.lut.generating;
+
+import static com.dxymf.Checks.check;
+import static com.dxymf.Checks.checkEqual;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.dxymf.CubeState;
+import com.dxymf.MoveTables;
+import com.dxymf.lut.EdgeLUT;
+import com.dxymf.lut.LUT;
+import com.dxymf.lut.PatternSpec;
+import com.dxymf.lut.SymmetricPatternLUT;
+
+// The BFS over int indices must give the same table as a BFS that queues the states themselves,
+// and both int queues must return the values in the order they were offered
+public class IndexBFSCheck {
+
+    public static void main(String[] args) throws Exception {
+
+        checkQueue(new IntRingBuffer(4), 100000);
+        // More than two blocks, so blocks are spilled to the file and read back
+        checkQueue(new SpillingIntQueue(), 5 << 20);
+
+        checkTable(new EdgeLUT(new byte[] {0, 1, 2, 3}));
+        checkTable(new SymmetricPatternLUT(PatternSpec.edges((byte) 0, (byte) 1, (byte) 2, (byte) 3)));
+
+        System.out.println("IndexBFSCheck passed");
+    }
+
+
+    // Offer and poll count values in random bursts, the queue must behave like an ArrayDeque
+    private static void checkQueue(IntQueue queue, int count) throws Exception {
+
+        Random random = new Random(3);
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+
+        try(queue) {
+            int offered = 0;
+
+            while(offered < count || !expected.isEmpty()) {
+                int offers = (offered < count) ? random.nextInt(1 << 16) : 0;
+                for(int i = 0; i < offers && offered < count; i++) {
+                    int value = random.nextInt();
+                    queue.offer(value);
+                    expected.add(value);
+                    offered++;
+                }
+
+                int polls = random.nextInt(1 << 16);
+                for(int i = 0; i < polls && !expected.isEmpty(); i++) {
+                    check(!queue.isEmpty(), queue.getClass().getSimpleName() + " is empty with " + expected.size() + " values left");
+                    checkEqual(expected.poll(), queue.poll(), queue.getClass().getSimpleName() + " value");
+                }
+            }
+
+            check(queue.isEmpty(), queue.getClass().getSimpleName() + " is empty at the end");
+        }
+    }
+
+
+    // IndexBFS and ParallelLUTGenerator against a BFS over CubeState objects
+    private static void checkTable(LUT pattern) {
+
+        byte[] expected = new byte[(int) pattern.getSize()];
+        Arrays.fill(expected, (byte) -1);
+
+        CubeState solved = CubeState.getSolvedState();
+        expected[(int) pattern.encode(solved.getCornerPositions(), solved.getCornerOrientations(), solved.getEdgePositions(), solved.getEdgeOrientations())] = 0;
+
+        ArrayDeque<CubeState> queue = new ArrayDeque<>();
+        queue.add(solved);
+        long expectedStates = 1;
+
+        while(!queue.isEmpty()) {
+            CubeState state = queue.poll();
+            int depth = expected[(int) pattern.encode(state.getCornerPositions(), state.getCornerOrientations(), state.getEdgePositions(), state.getEdgeOrientations())];
+
+            for(int m = 0; m < MoveTables.MOVE_COUNT; m++) {
+                CubeState child = state.clone();
+                child.applyMove(m);
+
+                int index = (int) pattern.encode(child.getCornerPositions(), child.getCornerOrientations(), child.getEdgePositions(), child.getEdgeOrientations());
+                if(expected[index] == -1) {
+                    expected[index] = (byte) (depth + 1);
+                    expectedStates++;
+                    queue.add(child);
+                }
+            }
+        }
+
+        byte[] lut = new byte[(int) pattern.getSize()];
+        Arrays.fill(lut, (byte) -1);
+
+        checkEqual(expectedStates, IndexBFS.generate(pattern, lut), pattern.getDescription() + " unique states");
+        check(Arrays.equals(expected, lut), pattern.getDescription() + " table of IndexBFS");
+
+        // The generators also fill the indices that encode never returns, the others must match
+        ParallelLUTGenerator generator = new ParallelLUTGenerator(pattern, 3);
+        generator.generateLUT();
+
+        for(int index = 0; index < lut.length; index++) {
+            if(expected[index] != -1) {
+                checkEqual(expected[index], generator.lut[index], pattern.getDescription() + " ParallelLUTGenerator value at " + index);
+            }
+        }
+    }
+}